@@ -0,0 +1,75 @@
+package com.one211.application.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.one211.application.model.Cluster;
+import com.one211.application.model.ClusterWithAction;
+import com.one211.application.model.User;
+import com.one211.application.model.UserWithStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bodies of the list endpoints in each encoding they are served in, written with mappers built the way Boot and
+ * {@code BinaryContentConfig} build the app's, so JSON, CBOR and Smile can be compared over the same lists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "200"})
+    public int size;
+
+    @Param({"json", "cbor", "smile"})
+    public String format;
+
+    private ObjectWriter writer;
+    private List<UserWithStatus> users;
+    private List<ClusterWithAction> clusterActions;
+    private List<Cluster> clusters;
+
+    @Setup
+    public void setUp() {
+        Jackson2ObjectMapperBuilder builder = switch (format) {
+            case "json" -> Jackson2ObjectMapperBuilder.json();
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile();
+            default -> throw new IllegalArgumentException("Unknown format " + format);
+        };
+        writer = builder.build().writer();
+        LocalDateTime now = LocalDateTime.now();
+        users = new ArrayList<>(size);
+        clusterActions = new ArrayList<>(size);
+        clusters = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            User user = new User((long) i, "User " + i, "user" + i + "@one211.com", null, "USER", "Member of the platform team", now, now, 1L);
+            users.add(new UserWithStatus(user, i % 2 == 0 ? "assign" : "unassign"));
+            Cluster cluster = new Cluster((long) i, 42L, "cluster-" + i, "Cluster number " + i, i % 3 != 0, now, 1L);
+            clusters.add(cluster);
+            clusterActions.add(new ClusterWithAction(cluster, i % 2 == 0 ? "assign" : "unassign"));
+        }
+    }
+
+    @Benchmark
+    public byte[] usersWithStatus() throws Exception {
+        return writer.writeValueAsBytes(users);
+    }
+
+    @Benchmark
+    public byte[] clustersWithAction() throws Exception {
+        return writer.writeValueAsBytes(clusterActions);
+    }
+
+    @Benchmark
+    public byte[] clusters() throws Exception {
+        return writer.writeValueAsBytes(clusters);
+    }
+}
@@ -0,0 +1,72 @@
+package com.one211.application.benchmark;
+
+import com.one211.application.model.UserOrg;
+import com.one211.application.security.CustomUserDetails;
+import com.one211.application.security.JwtAuthenticationFilter;
+import com.one211.application.security.JwtHelper;
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The JWT filter in front of every request, with the user lookup answered from memory.
+ * Each invocation builds a fresh mock request because the filter marks requests it has already seen.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+
+    private static final long ORG_ID = 42L;
+    private static final FilterChain NO_OP_CHAIN = (request, response) -> { };
+
+    private JwtAuthenticationFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        JwtHelper jwtHelper = new JwtHelper();
+        CustomUserDetails userDetails = new CustomUserDetails(new UserOrg("Gagan Taneja", "gagan@one211.com", "{bcrypt}", "ADMIN", ORG_ID, "One211"));
+        filter = new JwtAuthenticationFilter(jwtHelper, username -> userDetails);
+        authorization = "Bearer " + jwtHelper.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse authenticatedRequest() throws Exception {
+        return filter(request("/api/org/" + ORG_ID + "/cluster"));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse orgMismatch() throws Exception {
+        return filter(request("/api/org/" + (ORG_ID + 1) + "/cluster"));
+    }
+
+    @Benchmark
+    public MockHttpServletResponse anonymousRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/login");
+        return filter(request);
+    }
+
+    private MockHttpServletRequest request(String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+        request.addHeader("Authorization", authorization);
+        return request;
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, NO_OP_CHAIN);
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
@@ -0,0 +1,42 @@
+package com.one211.application.benchmark;
+
+import com.one211.application.model.JwtPayload;
+import com.one211.application.model.UserOrg;
+import com.one211.application.security.CustomUserDetails;
+import com.one211.application.security.JwtHelper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token signing on login and parsing on every authenticated request.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtHelper jwtHelper;
+    private CustomUserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtHelper = new JwtHelper();
+        userDetails = new CustomUserDetails(new UserOrg("Gagan Taneja", "gagan@one211.com", "{bcrypt}", "ADMIN", 42L, "One211"));
+        token = jwtHelper.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtHelper.generateToken(userDetails);
+    }
+
+    @Benchmark
+    public JwtPayload getPayload() {
+        return jwtHelper.getPayload(token);
+    }
+}
@@ -0,0 +1,148 @@
+package com.one211.application.benchmark;
+
+import com.one211.application.model.Cluster;
+import com.one211.application.model.ClusterRowMapper;
+import com.one211.application.model.ClusterWithAction;
+import com.one211.application.model.ClusterWithActionRowMapper;
+import com.one211.application.model.Group;
+import com.one211.application.model.GroupRowMapper;
+import com.one211.application.model.Organization;
+import com.one211.application.model.OrganizationRowMapper;
+import com.one211.application.model.User;
+import com.one211.application.model.UserOrg;
+import com.one211.application.model.UserOrgRowMapper;
+import com.one211.application.model.UserRowMapper;
+import com.one211.application.model.Webhook;
+import com.one211.application.model.WebhookRowMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The generated model mappers, one query's worth at a time: a new mapper per call, as the services create them.
+ * The {@code clusterList} pair compares a generated mapper with the by-name mapper it replaced over a large
+ * result set; run with {@code -prof gc} to see the allocation per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMapperBenchmark {
+
+    @Param("1000")
+    private int listSize;
+
+    private ResultSet clusterRow;
+    private ResultSet clusterWithActionRow;
+    private ResultSet groupRow;
+    private ResultSet organizationRow;
+    private ResultSet userRow;
+    private ResultSet userOrgRow;
+    private ResultSet webhookRow;
+    private ResultSet clusterRows;
+
+    @Setup
+    public void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        Object[] cluster = {"id", 7L, "org_id", 42L, "name", "edge-eu-west-1", "description", "Edge cluster",
+                "active", true, "creation_time", now, "version", 3L};
+        clusterRow = Rows.of(cluster);
+        clusterRows = Rows.repeat(listSize, cluster);
+        clusterWithActionRow = Rows.of("id", 7L, "org_id", 42L, "name", "edge-eu-west-1", "description", "Edge cluster",
+                "active", true, "creation_time", now, "version", 3L, "action", "assign");
+        groupRow = Rows.of("id", 11L, "name", "Platform", "description", "Platform team", "org_id", 42L,
+                "creation_time", now, "version", 1L);
+        organizationRow = Rows.of("id", 42L, "name", "One211", "description", "Big Data Com.",
+                "created_at", now, "updated_at", now, "version", 2L);
+        userRow = Rows.of("id", 5L, "name", "Gagan Taneja", "email", "gagan@one211.com", "password", "$2a$10$abcdefghijklmnopqrstuv",
+                "role", "ADMIN", "description", "Owner", "created_at", now, "updated_at", now, "version", 4L);
+        userOrgRow = Rows.of("user_name", "Gagan Taneja", "user_email", "gagan@one211.com", "password", "$2a$10$abcdefghijklmnopqrstuv",
+                "role", "ADMIN", "org_id", 42L, "org_name", "One211");
+        webhookRow = Rows.of("id", 3L, "org_id", 42L, "url", "https://hooks.example.com/one211", "secret", "s3cr3t",
+                "active", true, "last_delivered_id", 1024L, "failure_count", 0, "next_attempt_at", now,
+                "last_error", null, "creation_time", now);
+    }
+
+    @Benchmark
+    public Cluster cluster() throws SQLException {
+        return new ClusterRowMapper().mapRow(clusterRow, 1);
+    }
+
+    @Benchmark
+    public ClusterWithAction clusterWithAction() throws SQLException {
+        return new ClusterWithActionRowMapper().mapRow(clusterWithActionRow, 1);
+    }
+
+    @Benchmark
+    public Group group() throws SQLException {
+        return new GroupRowMapper().mapRow(groupRow, 1);
+    }
+
+    @Benchmark
+    public Organization organization() throws SQLException {
+        return new OrganizationRowMapper().mapRow(organizationRow, 1);
+    }
+
+    @Benchmark
+    public User user() throws SQLException {
+        return new UserRowMapper().mapRow(userRow, 1);
+    }
+
+    @Benchmark
+    public UserOrg userOrg() throws SQLException {
+        return new UserOrgRowMapper().mapRow(userOrgRow, 1);
+    }
+
+    @Benchmark
+    public Webhook webhook() throws SQLException {
+        return new WebhookRowMapper().mapRow(webhookRow, 1);
+    }
+
+    @Benchmark
+    public List<Cluster> clusterList() throws SQLException {
+        return extract(new ClusterRowMapper());
+    }
+
+    @Benchmark
+    public List<Cluster> clusterListByName() throws SQLException {
+        return extract(RowMapperBenchmark::clusterByName);
+    }
+
+    private List<Cluster> extract(RowMapper<Cluster> mapper) throws SQLException {
+        clusterRows.beforeFirst();
+        return new RowMapperResultSetExtractor<>(mapper, listSize).extractData(clusterRows);
+    }
+
+    /**
+     * The hand-written mapper {@code ClusterService} used before the mappers were generated.
+     */
+    private static Cluster clusterByName(ResultSet rs, int rowNum) throws SQLException {
+        return new Cluster(
+                rs.getLong("id"),
+                rs.getLong("org_id"),
+                rs.getString("name"),
+                rs.getString("description"),
+                rs.getBoolean("active"),
+                rs.getTimestamp("creation_time").toLocalDateTime(),
+                rs.getLong("version")
+        );
+    }
+}
@@ -0,0 +1,76 @@
+package com.one211.application.benchmark;
+
+import org.postgresql.core.Oid;
+import org.postgresql.jdbc.BenchmarkResultSets;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+
+/**
+ * In-memory Postgres driver result sets, so mappers can be measured without a database. Values are held in the
+ * text format the server sends and decoded by the driver on every read, as in production.
+ */
+final class Rows {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSSSSS");
+
+    private Rows() {
+    }
+
+    /**
+     * One row, positioned on it.
+     *
+     * @param columns alternating column label and value
+     */
+    static ResultSet of(Object... columns) {
+        ResultSet rows = repeat(1, columns);
+        try {
+            rows.next();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not build benchmark row", e);
+        }
+        return rows;
+    }
+
+    /**
+     * {@code count} copies of one row, positioned before the first; {@link ResultSet#beforeFirst()} rewinds it.
+     *
+     * @param columns alternating column label and value
+     */
+    static ResultSet repeat(int count, Object... columns) {
+        int width = columns.length / 2;
+        String[] labels = new String[width];
+        int[] oids = new int[width];
+        byte[][] row = new byte[width][];
+        for (int i = 0; i < width; i++) {
+            Object value = columns[i * 2 + 1];
+            labels[i] = (String) columns[i * 2];
+            oids[i] = oid(value);
+            row[i] = value == null ? null : text(value).getBytes(StandardCharsets.UTF_8);
+        }
+        return BenchmarkResultSets.of(labels, oids, Collections.nCopies(count, row));
+    }
+
+    private static int oid(Object value) {
+        return switch (value) {
+            case null -> Oid.VARCHAR;
+            case Long ignored -> Oid.INT8;
+            case Integer ignored -> Oid.INT4;
+            case Boolean ignored -> Oid.BOOL;
+            case LocalDateTime ignored -> Oid.TIMESTAMP;
+            default -> Oid.VARCHAR;
+        };
+    }
+
+    private static String text(Object value) {
+        return switch (value) {
+            case Boolean bool -> bool ? "t" : "f";
+            case LocalDateTime timestamp -> TIMESTAMP.format(timestamp);
+            default -> value.toString();
+        };
+    }
+}
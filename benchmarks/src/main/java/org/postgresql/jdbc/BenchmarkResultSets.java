@@ -0,0 +1,100 @@
+package org.postgresql.jdbc;
+
+import org.postgresql.core.BaseConnection;
+import org.postgresql.core.BaseStatement;
+import org.postgresql.core.Encoding;
+import org.postgresql.core.Field;
+import org.postgresql.core.QueryExecutor;
+import org.postgresql.core.Tuple;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.logging.Logger;
+
+/**
+ * Builds the driver's own {@link PgResultSet} over rows held in memory, so mappers pay the real decoding cost of
+ * the Postgres text protocol without a server. The constructor is package-private, hence this package.
+ * The connection and statement behind it answer only what the result set asks for.
+ * <p>
+ * This relies on driver internals ({@link PgResultSet}'s constructor, {@link Tuple}, {@link Field}), which change
+ * between releases. The benchmarks pom pins the driver to the version the application ships with.
+ */
+public final class BenchmarkResultSets {
+
+    private BenchmarkResultSets() {
+    }
+
+    /**
+     * @param labels column labels
+     * @param oids   column type oids, see {@link org.postgresql.core.Oid}
+     * @param rows   each row's columns in text format, null for SQL NULL
+     * @return a scrollable result set positioned before the first row
+     */
+    public static ResultSet of(String[] labels, int[] oids, List<byte[][]> rows) {
+        Field[] fields = new Field[labels.length];
+        for (int i = 0; i < labels.length; i++) {
+            fields[i] = new Field(labels[i], oids[i]);
+            fields[i].setFormat(Field.TEXT_FORMAT);
+        }
+        List<Tuple> tuples = rows.stream().map(Tuple::new).toList();
+        try {
+            return new PgResultSet(null, statement(connection()), fields, tuples, null, 0, 0,
+                    ResultSet.TYPE_SCROLL_INSENSITIVE, ResultSet.CONCUR_READ_ONLY, ResultSet.HOLD_CURSORS_OVER_COMMIT, false);
+        } catch (SQLException e) {
+            throw new IllegalStateException("Could not build result set", e);
+        }
+    }
+
+    private static BaseConnection connection() {
+        TimestampUtils timestampUtils = new TimestampUtils(true, TimeZone::getDefault);
+        Encoding encoding = Encoding.getJVMEncoding("UTF-8");
+        QueryExecutor queryExecutor = proxy(QueryExecutor.class, (name, args) -> name.equals("getIntegerDateTimes") ? Boolean.TRUE : null);
+        Logger logger = Logger.getLogger("org.postgresql");
+        TypeInfoCache[] typeInfo = new TypeInfoCache[1];
+        BaseConnection connection = proxy(BaseConnection.class, (name, args) -> switch (name) {
+            case "getTimestampUtils" -> timestampUtils;
+            case "getEncoding" -> encoding;
+            case "getTypeInfo" -> typeInfo[0];
+            case "getQueryExecutor" -> queryExecutor;
+            case "getLogger" -> logger;
+            default -> null;
+        });
+        typeInfo[0] = new TypeInfoCache(connection, -1);
+        return connection;
+    }
+
+    private static BaseStatement statement(BaseConnection connection) {
+        return proxy(BaseStatement.class, (name, args) -> name.equals("getConnection") || name.equals("getPGConnection") ? connection : null);
+    }
+
+    private interface Answer {
+        Object apply(String method, Object[] args);
+    }
+
+    /**
+     * Unanswered methods return the zero value of their return type; identity methods behave as for any object.
+     */
+    private static <T> T proxy(Class<T> type, Answer answer) {
+        return type.cast(Proxy.newProxyInstance(BenchmarkResultSets.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "equals":
+                    return proxy == args[0];
+                case "toString":
+                    return type.getSimpleName();
+                default:
+                    Object result = answer.apply(method.getName(), args);
+                    Class<?> returnType = method.getReturnType();
+                    if (result != null || !returnType.isPrimitive() || returnType == void.class) {
+                        return result;
+                    }
+                    return Array.get(Array.newInstance(returnType, 1), 0);
+            }
+        }));
+    }
+}
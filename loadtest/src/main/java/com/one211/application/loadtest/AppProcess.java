@@ -0,0 +1,119 @@
+package com.one211.application.loadtest;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The application in its own JVM, by default started from this jar's classpath, so the load generator
+ * does not compete with it for heap and GC.
+ */
+final class AppProcess implements AutoCloseable {
+
+    private static final String MAIN_CLASS = "com.one211.application.Main";
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    private final Process process;
+    private final String baseUrl;
+    private final Path log;
+    private final long launchedAt;
+    private long readyAt;
+
+    private AppProcess(Process process, String baseUrl, Path log, long launchedAt) {
+        this.process = process;
+        this.baseUrl = baseUrl;
+        this.log = log;
+        this.launchedAt = launchedAt;
+    }
+
+    static AppProcess start(Options options) throws IOException, InterruptedException {
+        return start(List.of(java(), "-cp", System.getProperty("java.class.path"), MAIN_CLASS),
+                options.dbUrl(), options.dbUser(), options.dbPassword());
+    }
+
+    /**
+     * @param command java command line up to and including the main class or jar and any app arguments;
+     *                the port and database arguments are appended
+     */
+    static AppProcess start(List<String> command, String dbUrl, String dbUser, String dbPassword) throws IOException, InterruptedException {
+        int port = freePort();
+        Path log = Files.createTempFile("one211-loadtest-app", ".log");
+        List<String> commandLine = new ArrayList<>(command);
+        commandLine.addAll(List.of(
+                "--server.port=" + port,
+                "--management.server.port=0",
+                "--spring.datasource.url=" + dbUrl,
+                "--spring.datasource.username=" + dbUser,
+                "--spring.datasource.password=" + dbPassword));
+        long launchedAt = System.nanoTime();
+        Process process = new ProcessBuilder(commandLine)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        AppProcess app = new AppProcess(process, "http://localhost:" + port, log, launchedAt);
+        System.out.println("Starting app on port " + port + ", log at " + log);
+        app.awaitReady();
+        return app;
+    }
+
+    static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    String baseUrl() {
+        return baseUrl;
+    }
+
+    /**
+     * Time from launching the process to the first HTTP response.
+     */
+    Duration timeToFirstResponse() {
+        return Duration.ofNanos(readyAt - launchedAt);
+    }
+
+    /**
+     * Any HTTP response, even a 401, means the server is accepting requests.
+     */
+    private void awaitReady() throws InterruptedException {
+        HttpClient client = HttpClient.newHttpClient();
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(baseUrl + "/api/login")).timeout(Duration.ofSeconds(2)).GET().build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("App exited with code " + process.exitValue() + " during startup, see " + log);
+            }
+            try {
+                client.send(probe, HttpResponse.BodyHandlers.discarding());
+                readyAt = System.nanoTime();
+                return;
+            } catch (IOException e) {
+                Thread.sleep(10);
+            }
+        }
+        close();
+        throw new IllegalStateException("App did not start within " + STARTUP_TIMEOUT + ", see " + log);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.one211.application.loadtest;
+
+import org.flywaydb.core.Flyway;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fills a database with synthetic tenants for benchmarks and EXPLAIN checks, loading with COPY rather than the API.
+ * Org size follows a bounded power law, so most orgs are small and a few are very large. Within an org, groups per
+ * user and clusters per user or group follow one too, and members and clusters are drawn with a bias towards the
+ * low-numbered ones, so some groups and clusters are far more popular than others.
+ * <p>
+ * The seed and options fully determine the rows: each org draws from its own random streams, so the thread count
+ * only changes the load order. Names include the seed, and a seed that is already loaded is refused.
+ * Every user's password is {@link Seeder#PASSWORD}; the first user of each org is its admin.
+ * <p>
+ * Options: {@code --seed}, {@code --orgs}, {@code --max-users-per-org}, {@code --max-clusters-per-org},
+ * {@code --max-groups-per-org}, {@code --max-groups-per-user}, {@code --max-clusters-per-source}, {@code --alpha}
+ * (the power-law exponent; smaller gives heavier tails), {@code --threads}, {@code --dry-run} (generate and count
+ * without a database) and the database options of {@link LoadTest}. Migrations are applied before loading.
+ */
+public final class DatasetGenerator {
+
+    private static final Set<String> KNOWN = Set.of("db-url", "db-user", "db-password", "seed", "orgs",
+            "max-users-per-org", "max-clusters-per-org", "max-groups-per-org", "max-groups-per-user",
+            "max-clusters-per-source", "alpha", "threads", "dry-run");
+
+    // A fixed salt keeps the dataset identical between runs; BCrypt.gensalt would draw a new one each time.
+    private static final String PASSWORD_HASH = BCrypt.hashpw(Seeder.PASSWORD, "$2a$10$b25lMjExZGF0YXNldGdlbg");
+    // Orgs handed to a worker at a time: small enough to balance the few very large orgs across threads.
+    private static final int ORGS_PER_BATCH = 16;
+    // Popular members and clusters: index = n * u^skew, so low indexes are drawn far more often.
+    private static final double POPULARITY_SKEW = 2.0;
+
+    private static final long COUNTS = 1;
+    private static final long MEMBERSHIPS = 2;
+    private static final long USER_ASSIGNMENTS = 3;
+    private static final long GROUP_ASSIGNMENTS = 4;
+
+    private static final String[] TABLES = {"organization", "\"user\"", "user_org", "cluster", "\"group\"", "group_closure", "user_group", "cluster_association"};
+
+    /**
+     * Everything that determines the generated rows.
+     */
+    record Shape(long seed, int orgs, int maxUsersPerOrg, int maxClustersPerOrg, int maxGroupsPerOrg,
+                 int maxGroupsPerUser, int maxClustersPerSource, double alpha) {}
+
+    private record Org(int index, long id, int users, int clusters, int groups) {}
+
+    private final Shape shape;
+    private final long firstOrgId;
+    private final Map<String, LongAdder> rows = new LinkedHashMap<>();
+
+    private DatasetGenerator(Shape shape, long firstOrgId) {
+        this.shape = shape;
+        this.firstOrgId = firstOrgId;
+        for (String table : TABLES) {
+            rows.put(table, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = Options.values(args);
+        Options.rejectUnknown(values, KNOWN);
+        Shape shape = new Shape(
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                Integer.parseInt(values.getOrDefault("orgs", "1000")),
+                Integer.parseInt(values.getOrDefault("max-users-per-org", "20000")),
+                Integer.parseInt(values.getOrDefault("max-clusters-per-org", "2000")),
+                Integer.parseInt(values.getOrDefault("max-groups-per-org", "500")),
+                Integer.parseInt(values.getOrDefault("max-groups-per-user", "20")),
+                Integer.parseInt(values.getOrDefault("max-clusters-per-source", "200")),
+                Double.parseDouble(values.getOrDefault("alpha", "1.2")));
+        int threads = Integer.parseInt(values.getOrDefault("threads", String.valueOf(Math.min(8, Runtime.getRuntime().availableProcessors()))));
+        boolean dryRun = Boolean.parseBoolean(values.getOrDefault("dry-run", "false"));
+        String dbUrl = values.getOrDefault("db-url", Options.DEFAULT_DB_URL);
+        String dbUser = values.getOrDefault("db-user", Options.DEFAULT_DB_USER);
+        String dbPassword = values.getOrDefault("db-password", Options.DEFAULT_DB_PASSWORD);
+
+        long start = System.nanoTime();
+        DatasetGenerator generator;
+        if (dryRun) {
+            generator = new DatasetGenerator(shape, 1);
+            generator.load(threads, null);
+        } else {
+            Flyway.configure().dataSource(dbUrl, dbUser, dbPassword).baselineOnMigrate(true).baselineVersion("1").load().migrate();
+            try (Connection connection = DriverManager.getConnection(dbUrl, dbUser, dbPassword);
+                 Statement statement = connection.createStatement()) {
+                try (ResultSet loaded = statement.executeQuery("SELECT COUNT(*) FROM organization WHERE name = '" + orgName(shape.seed(), 0) + "'")) {
+                    loaded.next();
+                    if (loaded.getLong(1) > 0) {
+                        throw new IllegalStateException("The dataset for seed " + shape.seed() + " is already loaded");
+                    }
+                }
+                long firstOrgId;
+                try (ResultSet maxId = statement.executeQuery("SELECT COALESCE(MAX(id), 0) + 1 FROM organization")) {
+                    maxId.next();
+                    firstOrgId = maxId.getLong(1);
+                }
+                generator = new DatasetGenerator(shape, firstOrgId);
+                generator.load(threads, () -> DriverManager.getConnection(dbUrl, dbUser, dbPassword));
+                // Org ids were assigned here, so move the sequence past them for orgs created through the API.
+                statement.execute("SELECT setval(pg_get_serial_sequence('organization', 'id'), (SELECT MAX(id) FROM organization))");
+                for (String table : TABLES) {
+                    statement.execute("ANALYZE " + table);
+                }
+            }
+        }
+
+        long millis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        long total = 0;
+        System.out.printf("%n%-22s %12s   (seed %d, %d orgs, %s)%n", "table", "rows", shape.seed(), shape.orgs(), dryRun ? "dry run" : dbUrl);
+        for (Map.Entry<String, LongAdder> table : generator.rows.entrySet()) {
+            System.out.printf("%-22s %12d%n", table.getKey(), table.getValue().sum());
+            total += table.getValue().sum();
+        }
+        System.out.printf("%-22s %12d   in %.1f s, %.0f rows/s%n", "total", total, millis / 1000.0, total * 1000.0 / millis);
+    }
+
+    private interface ConnectionSource {
+        Connection open() throws SQLException;
+    }
+
+    /**
+     * Each worker loads batches of orgs on its own connection, one COPY per table per batch, parents before children.
+     *
+     * @param connections null on a dry run
+     */
+    private void load(int threads, ConnectionSource connections) throws InterruptedException, ExecutionException {
+        AtomicInteger nextBatch = new AtomicInteger();
+        int batches = (shape.orgs() + ORGS_PER_BATCH - 1) / ORGS_PER_BATCH;
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> workers = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                workers.add(executor.submit(() -> {
+                    try (Connection connection = connections == null ? null : connections.open()) {
+                        for (int batch = nextBatch.getAndIncrement(); batch < batches; batch = nextBatch.getAndIncrement()) {
+                            List<Org> orgs = new ArrayList<>(ORGS_PER_BATCH);
+                            for (int index = batch * ORGS_PER_BATCH; index < Math.min(shape.orgs(), (batch + 1) * ORGS_PER_BATCH); index++) {
+                                orgs.add(org(index));
+                            }
+                            loadBatch(connection, orgs);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+    }
+
+    private void loadBatch(Connection connection, List<Org> orgs) throws SQLException {
+        copy(connection, "COPY organization (id, name, description) FROM STDIN", out -> {
+            for (Org org : orgs) {
+                out.add(org.id()).add(orgName(shape.seed(), org.index())).add("Generated org").end();
+            }
+        });
+        copy(connection, "COPY \"user\" (name, email, password, role, description) FROM STDIN", out -> {
+            for (Org org : orgs) {
+                for (int user = 0; user < org.users(); user++) {
+                    out.add("User " + user).add(email(org, user)).add(PASSWORD_HASH).add(user == 0 ? "ADMIN" : "USER").add("Generated user").end();
+                }
+            }
+        });
+        copy(connection, "COPY user_org (user_name, org_id, role) FROM STDIN", out -> {
+            for (Org org : orgs) {
+                for (int user = 0; user < org.users(); user++) {
+                    out.add(email(org, user)).add(org.id()).add(user == 0 ? "ADMIN" : "USER").end();
+                }
+            }
+        });
+        copy(connection, "COPY cluster (org_id, name, description) FROM STDIN", out -> {
+            for (Org org : orgs) {
+                for (int cluster = 0; cluster < org.clusters(); cluster++) {
+                    out.add(org.id()).add("cluster-" + cluster).add("Generated cluster").end();
+                }
+            }
+        });
+        copy(connection, "COPY \"group\" (org_id, name, description) FROM STDIN", out -> {
+            for (Org org : orgs) {
+                for (int group = 0; group < org.groups(); group++) {
+                    out.add(org.id()).add("group-" + group).add("Generated group").end();
+                }
+            }
+        });
+        // Generated groups are not nested, so each is only its own ancestor.
+        copy(connection, "COPY group_closure (org_id, ancestor_name, descendant_name, path_count) FROM STDIN", out -> {
+            for (Org org : orgs) {
+                for (int group = 0; group < org.groups(); group++) {
+                    out.add(org.id()).add("group-" + group).add("group-" + group).add(1).end();
+                }
+            }
+        });
+        copy(connection, "COPY user_group (user_name, group_name, org_id) FROM STDIN", out -> {
+            for (Org org : orgs) {
+                SplittableRandom random = random(org.index(), MEMBERSHIPS);
+                Picker groups = new Picker(org.groups());
+                for (int user = 0; user < org.users(); user++) {
+                    int count = powerLaw(random, 1, Math.min(org.groups(), shape.maxGroupsPerUser()));
+                    for (int group : groups.pick(random, count)) {
+                        out.add(email(org, user)).add("group-" + group).add(org.id()).end();
+                    }
+                }
+            }
+        });
+        copy(connection, "COPY cluster_association (source_name, source_type, cluster_name, org_id) FROM STDIN", out -> {
+            for (Org org : orgs) {
+                int maxClusters = Math.min(org.clusters(), shape.maxClustersPerSource());
+                Picker clusters = new Picker(org.clusters());
+                // Most users get their clusters through groups only, so direct assignments start at zero.
+                SplittableRandom random = random(org.index(), USER_ASSIGNMENTS);
+                for (int user = 0; user < org.users(); user++) {
+                    for (int cluster : clusters.pick(random, powerLaw(random, 1, maxClusters + 1) - 1)) {
+                        out.add(email(org, user)).add("USER").add("cluster-" + cluster).add(org.id()).end();
+                    }
+                }
+                random = random(org.index(), GROUP_ASSIGNMENTS);
+                for (int group = 0; group < org.groups(); group++) {
+                    for (int cluster : clusters.pick(random, powerLaw(random, 1, maxClusters))) {
+                        out.add("group-" + group).add("GROUP").add("cluster-" + cluster).add(org.id()).end();
+                    }
+                }
+            }
+        });
+    }
+
+    private interface Rows {
+        void write(CopyStream out) throws SQLException;
+    }
+
+    private void copy(Connection connection, String sql, Rows rows) throws SQLException {
+        CopyIn copyIn = connection == null ? null : connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+        CopyStream out = new CopyStream(copyIn);
+        try {
+            rows.write(out);
+            out.finish();
+        } finally {
+            if (copyIn != null && copyIn.isActive()) {
+                copyIn.cancelCopy();
+            }
+        }
+        this.rows.get(sql.substring("COPY ".length(), sql.indexOf(" ("))).add(out.rows);
+    }
+
+    private Org org(int index) {
+        SplittableRandom random = random(index, COUNTS);
+        int users = powerLaw(random, 5, shape.maxUsersPerOrg());
+        int clusters = powerLaw(random, 2, shape.maxClustersPerOrg());
+        int groups = Math.min(users, powerLaw(random, 1, shape.maxGroupsPerOrg()));
+        return new Org(index, firstOrgId + index, users, clusters, groups);
+    }
+
+    /**
+     * Independent of every other org and stream, so each table can be generated on its own.
+     */
+    private SplittableRandom random(int org, long stream) {
+        return new SplittableRandom(shape.seed() * 0x9E3779B97F4A7C15L + org * 0xC2B2AE3D27D4EB4FL + stream);
+    }
+
+    /**
+     * A bounded discrete Pareto draw in {@code [min, max]}: P(X > x) falls off as x^-alpha.
+     */
+    private int powerLaw(SplittableRandom random, int min, int max) {
+        if (max <= min) {
+            return max;
+        }
+        double alpha = shape.alpha();
+        double tail = Math.pow((double) min / (max + 1), alpha);
+        double x = min / Math.pow(1 - random.nextDouble() * (1 - tail), 1 / alpha);
+        return Math.min(max, (int) x);
+    }
+
+    private static String orgName(long seed, int index) {
+        return "gen-" + seed + "-" + index;
+    }
+
+    private String email(Org org, int user) {
+        return "u" + user + ".o" + org.index() + ".s" + shape.seed() + "@gen.one211.test";
+    }
+
+    /**
+     * Distinct indexes below {@code n}, biased towards the low ones. Duplicate draws are dropped rather than
+     * redrawn, so a request for most of {@code n} returns somewhat fewer.
+     */
+    private static final class Picker {
+
+        private final int n;
+        private final BitSet picked;
+        private int[] result = new int[16];
+
+        Picker(int n) {
+            this.n = n;
+            this.picked = new BitSet(n);
+        }
+
+        int[] pick(SplittableRandom random, int count) {
+            if (result.length < count) {
+                result = new int[count];
+            }
+            int found = 0;
+            for (int i = 0; i < count; i++) {
+                int index = (int) (n * Math.pow(random.nextDouble(), POPULARITY_SKEW));
+                if (!picked.get(index)) {
+                    picked.set(index);
+                    result[found++] = index;
+                }
+            }
+            for (int i = 0; i < found; i++) {
+                picked.clear(result[i]);
+            }
+            return Arrays.copyOf(result, found);
+        }
+    }
+
+    /**
+     * Rows in COPY text format, buffered and sent in large writes. Generated values never contain tabs, newlines
+     * or backslashes, so nothing needs escaping.
+     */
+    private static final class CopyStream {
+
+        private static final int FLUSH_AT = 60 * 1024;
+
+        private final CopyIn copyIn;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int length;
+        private boolean rowStarted;
+        long rows;
+
+        CopyStream(CopyIn copyIn) {
+            this.copyIn = copyIn;
+        }
+
+        CopyStream add(String value) {
+            if (rowStarted) {
+                buffer[length++] = '\t';
+            }
+            for (int i = 0; i < value.length(); i++) {
+                buffer[length++] = (byte) value.charAt(i);
+            }
+            rowStarted = true;
+            return this;
+        }
+
+        CopyStream add(long value) {
+            return add(Long.toString(value));
+        }
+
+        void end() throws SQLException {
+            buffer[length++] = '\n';
+            rowStarted = false;
+            rows++;
+            if (length >= FLUSH_AT) {
+                flush();
+            }
+        }
+
+        void finish() throws SQLException {
+            flush();
+            if (copyIn != null) {
+                copyIn.endCopy();
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (copyIn != null && length > 0) {
+                copyIn.writeToCopy(buffer, 0, length);
+            }
+            length = 0;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.one211.application.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latencies of one endpoint in microseconds, measured from each request's intended start time.
+ * The histogram holds successful requests and dropped ones, the latter at the time they waited.
+ */
+final class EndpointStats {
+
+    private final String endpoint;
+    private final Recorder recorder = new Recorder(3);
+    private final AtomicLong errors = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    EndpointStats(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    void recordSuccess(long latencyNanos) {
+        recorder.recordValue(Math.max(1, latencyNanos / 1000));
+    }
+
+    void recordError() {
+        errors.incrementAndGet();
+    }
+
+    /**
+     * A request the driver never sent because too many were outstanding until the run was over.
+     */
+    void recordDropped(long waitedNanos) {
+        recorder.recordValue(Math.max(1, waitedNanos / 1000));
+        dropped.incrementAndGet();
+    }
+
+    long errors() {
+        return errors.get();
+    }
+
+    long dropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Latencies recorded since the previous call.
+     */
+    Histogram histogram() {
+        return recorder.getIntervalHistogram();
+    }
+}
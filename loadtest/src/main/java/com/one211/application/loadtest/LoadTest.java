@@ -0,0 +1,106 @@
+package com.one211.application.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+/**
+ * Seeds a dataset and drives the chosen scenario over HTTP at a fixed arrival rate.
+ * <p>
+ * Without {@code --base-url} the app is started against {@code --db-url}, a local Postgres database
+ * that must already exist. {@code --scenario=all} runs each single scenario in turn, and
+ * {@code --ceiling=true} raises the mixed scenario's rate step by step to find the highest rate the
+ * server sustains.
+ */
+public final class LoadTest {
+
+    private static final double CEILING_STEP = 1.5;
+    private static final int MAX_CEILING_STEPS = 20;
+    private static final double MAX_FAILURE_RATIO = 0.01;
+    private static final double MIN_ACHIEVED_RATIO = 0.95;
+
+    private LoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        if (!Scenarios.NAMES.contains(options.scenario())) {
+            throw new IllegalArgumentException("Unknown scenario " + options.scenario() + ", expected one of " + Scenarios.NAMES);
+        }
+        AppProcess app = options.baseUrl() == null ? AppProcess.start(options) : null;
+        try {
+            String baseUrl = app != null ? app.baseUrl() : options.baseUrl();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+            ObjectMapper objectMapper = new ObjectMapper();
+
+            long seedStart = System.nanoTime();
+            List<Seeder.Tenant> tenants = new Seeder(client, objectMapper, baseUrl).seed(options);
+            System.out.printf("Seeded %d orgs in %.1fs%n", tenants.size(), (System.nanoTime() - seedStart) / 1e9);
+
+            Scenarios scenarios = new Scenarios(baseUrl, objectMapper, tenants);
+            OpenLoopDriver driver = new OpenLoopDriver(client, options.maxInFlight());
+            if (options.ceiling()) {
+                findCeiling(driver, scenarios, options);
+            } else if ("all".equals(options.scenario())) {
+                for (String scenario : Scenarios.SINGLE) {
+                    run(driver, scenarios, scenario, options);
+                }
+            } else {
+                run(driver, scenarios, options.scenario(), options);
+            }
+        } finally {
+            if (app != null) {
+                app.close();
+            }
+        }
+    }
+
+    private static void run(OpenLoopDriver driver, Scenarios scenarios, String scenario, Options options) throws Exception {
+        Scenarios.RequestFactory requests = scenarios.named(scenario);
+        System.out.printf("%n== %s at %.0f req/s: %ds warmup, %ds measured%n",
+                scenario, options.rate(), options.warmup().toSeconds(), options.duration().toSeconds());
+        driver.run(requests, options.rate(), options.warmup());
+        Report report = new Report(driver.run(requests, options.rate(), options.duration()), options.duration());
+        report.print(System.out);
+        if (options.output() != null) {
+            report.write(options.output(), scenario);
+        }
+    }
+
+    /**
+     * A step is sustained when nearly every arrival succeeds, the server keeps up with the offered rate
+     * and p99 stays within the SLO. The ceiling is the last sustained rate.
+     */
+    private static void findCeiling(OpenLoopDriver driver, Scenarios scenarios, Options options) throws Exception {
+        Scenarios.RequestFactory requests = scenarios.named("mixed");
+        System.out.printf("%n== ceiling search, mixed scenario, %ds per step, p99 SLO %.0f ms%n",
+                options.duration().toSeconds(), options.sloP99Millis());
+        driver.run(requests, options.rate(), options.warmup());
+        double rate = options.rate();
+        double ceiling = 0;
+        for (int step = 0; step < MAX_CEILING_STEPS; step++, rate *= CEILING_STEP) {
+            Report report = new Report(driver.run(requests, rate, options.duration()), options.duration());
+            double p99 = Report.millis(report.total(), 99);
+            boolean sustained = report.failureRatio() <= MAX_FAILURE_RATIO
+                    && report.successesPerSecond() >= rate * MIN_ACHIEVED_RATIO
+                    && p99 <= options.sloP99Millis();
+            System.out.printf("offered %8.0f req/s  achieved %8.1f ok/s  failures %5.2f%%  p99 %8.2f ms  %s%n",
+                    rate, report.successesPerSecond(), report.failureRatio() * 100, p99, sustained ? "sustained" : "NOT sustained");
+            if (options.output() != null) {
+                report.write(options.output(), "ceiling-" + Math.round(rate));
+            }
+            if (!sustained) {
+                break;
+            }
+            ceiling = rate;
+        }
+        System.out.printf("Throughput ceiling: %.0f req/s%n", ceiling);
+    }
+}
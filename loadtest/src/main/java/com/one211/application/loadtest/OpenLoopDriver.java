@@ -0,0 +1,94 @@
+package com.one211.application.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sends requests on a fixed arrival schedule, whatever the server's response times.
+ * Each request's latency is measured from when it was scheduled to start rather than when it was
+ * actually sent, so a stalled server shows up in the percentiles instead of silently lowering the rate
+ * (coordinated omission).
+ * <p>
+ * Arrivals beyond {@code maxInFlight} outstanding requests wait in a backlog and are sent as responses come
+ * back; their time in it counts towards their latency. Whatever is still waiting when the drain times out is
+ * recorded as dropped, with the time it waited.
+ */
+final class OpenLoopDriver {
+
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final HttpClient client;
+    private final int maxInFlight;
+
+    OpenLoopDriver(HttpClient client, int maxInFlight) {
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Runs {@code requests} at {@code ratePerSecond} for {@code duration} and returns stats per endpoint.
+     */
+    Map<String, EndpointStats> run(Scenarios.RequestFactory requests, double ratePerSecond, Duration duration) throws InterruptedException {
+        Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Queue<Arrival> backlog = new ConcurrentLinkedQueue<>();
+        double intervalNanos = 1_000_000_000d / ratePerSecond;
+        long start = System.nanoTime();
+        long end = start + duration.toNanos();
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended - end >= 0) {
+                break;
+            }
+            long wait = intended - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            Scenarios.Request request = requests.next();
+            backlog.add(new Arrival(request, stats.computeIfAbsent(request.endpoint(), EndpointStats::new), intended));
+            sendBacklog(backlog, inFlight);
+        }
+        if (!inFlight.tryAcquire(maxInFlight, DRAIN_TIMEOUT.toMillis(), TimeUnit.MILLISECONDS)) {
+            System.out.println("Warning: requests still outstanding " + DRAIN_TIMEOUT.toSeconds() + "s after the run ended");
+            for (Arrival arrival; (arrival = backlog.poll()) != null; ) {
+                arrival.endpoint().recordDropped(System.nanoTime() - arrival.intended());
+            }
+        } else {
+            inFlight.release(maxInFlight);
+        }
+        return stats;
+    }
+
+    /**
+     * Sends waiting arrivals, oldest first, while there are free slots.
+     */
+    private void sendBacklog(Queue<Arrival> backlog, Semaphore inFlight) {
+        while (!backlog.isEmpty() && inFlight.tryAcquire()) {
+            Arrival arrival = backlog.poll();
+            if (arrival == null) {
+                inFlight.release();
+                return;
+            }
+            client.sendAsync(arrival.request().http(), HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+                long latency = System.nanoTime() - arrival.intended();
+                inFlight.release();
+                if (error == null && (response.statusCode() / 100 == 2 || response.statusCode() == 304)) {
+                    arrival.endpoint().recordSuccess(latency);
+                } else {
+                    arrival.endpoint().recordError();
+                }
+                sendBacklog(backlog, inFlight);
+            });
+        }
+    }
+
+    private record Arrival(Scenarios.Request request, EndpointStats endpoint, long intended) {}
+}
@@ -0,0 +1,75 @@
+package com.one211.application.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Command line options, given as {@code --name=value}.
+ *
+ * @param baseUrl      an already running server; when absent the app is started against {@code dbUrl}
+ * @param scenario     login, reads, assignments, membership or mixed
+ * @param rate         arrivals per second, independent of how fast responses come back
+ * @param ceiling      step the mixed scenario's rate up until it stops being sustained
+ * @param sloP99Millis p99 above which a ceiling step counts as not sustained
+ */
+record Options(String baseUrl, String dbUrl, String dbUser, String dbPassword,
+               int orgs, int usersPerOrg, int clustersPerOrg, int groupsPerOrg,
+               String scenario, double rate, Duration duration, Duration warmup,
+               boolean ceiling, double sloP99Millis, int maxInFlight, Path output) {
+
+    static final String DEFAULT_DB_URL = "jdbc:postgresql://localhost:5432/one211_load";
+    static final String DEFAULT_DB_USER = "postgres";
+    static final String DEFAULT_DB_PASSWORD = "postgres";
+
+    private static final Set<String> KNOWN = Set.of(
+            "db-url", "db-user", "db-password", "orgs", "users-per-org", "clusters-per-org", "groups-per-org",
+            "scenario", "rate", "duration-s", "warmup-s", "ceiling", "slo-p99-ms", "max-in-flight", "output");
+
+    static Options parse(String[] args) {
+        Map<String, String> values = values(args);
+        Options options = new Options(
+                values.remove("base-url"),
+                values.getOrDefault("db-url", DEFAULT_DB_URL),
+                values.getOrDefault("db-user", DEFAULT_DB_USER),
+                values.getOrDefault("db-password", DEFAULT_DB_PASSWORD),
+                Integer.parseInt(values.getOrDefault("orgs", "4")),
+                Integer.parseInt(values.getOrDefault("users-per-org", "20")),
+                Integer.parseInt(values.getOrDefault("clusters-per-org", "50")),
+                Integer.parseInt(values.getOrDefault("groups-per-org", "10")),
+                values.getOrDefault("scenario", "mixed"),
+                Double.parseDouble(values.getOrDefault("rate", "200")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration-s", "60"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup-s", "15"))),
+                Boolean.parseBoolean(values.getOrDefault("ceiling", "false")),
+                Double.parseDouble(values.getOrDefault("slo-p99-ms", "250")),
+                Integer.parseInt(values.getOrDefault("max-in-flight", "10000")),
+                values.containsKey("output") ? Path.of(values.get("output")) : null
+        );
+        rejectUnknown(values, KNOWN);
+        return options;
+    }
+
+    static Map<String, String> values(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            int equals = arg.indexOf('=');
+            values.put(arg.substring(2, equals), arg.substring(equals + 1));
+        }
+        return values;
+    }
+
+    static void rejectUnknown(Map<String, String> values, Set<String> known) {
+        Set<String> unknown = new HashSet<>(values.keySet());
+        unknown.removeAll(known);
+        if (!unknown.isEmpty()) {
+            throw new IllegalArgumentException("Unknown options: " + unknown);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.one211.application.loadtest;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Per-endpoint percentiles of one run, plus their sum across endpoints.
+ */
+final class Report {
+
+    static final String TOTAL = "TOTAL";
+
+    private final Map<String, Histogram> histograms = new TreeMap<>();
+    private final Map<String, long[]> failures = new TreeMap<>();
+    private final Duration duration;
+
+    Report(Map<String, EndpointStats> stats, Duration duration) {
+        this.duration = duration;
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+        long totalDropped = 0;
+        for (EndpointStats endpoint : stats.values()) {
+            Histogram histogram = endpoint.histogram();
+            histograms.put(endpoint.endpoint(), histogram);
+            failures.put(endpoint.endpoint(), new long[]{endpoint.errors(), endpoint.dropped()});
+            total.add(histogram);
+            totalErrors += endpoint.errors();
+            totalDropped += endpoint.dropped();
+        }
+        histograms.put(TOTAL, total);
+        failures.put(TOTAL, new long[]{totalErrors, totalDropped});
+    }
+
+    Histogram total() {
+        return histograms.get(TOTAL);
+    }
+
+    /**
+     * Errors and dropped requests as a fraction of all arrivals. Dropped requests are in the histogram too.
+     */
+    double failureRatio() {
+        long[] total = failures.get(TOTAL);
+        long arrivals = total().getTotalCount() + total[0];
+        return arrivals == 0 ? 0 : (double) (total[0] + total[1]) / arrivals;
+    }
+
+    double successesPerSecond() {
+        return (total().getTotalCount() - failures.get(TOTAL)[1]) / (duration.toNanos() / 1e9);
+    }
+
+    void print(PrintStream out) {
+        out.printf("%-45s %9s %7s %7s %9s %9s %9s %9s %9s%n",
+                "endpoint", "ok", "errors", "dropped", "ok/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms");
+        histograms.forEach((endpoint, histogram) -> {
+            long[] failed = failures.get(endpoint);
+            long ok = histogram.getTotalCount() - failed[1];
+            out.printf("%-45s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint, ok, failed[0], failed[1], ok / (duration.toNanos() / 1e9),
+                    millis(histogram, 50), millis(histogram, 99), millis(histogram, 99.9), histogram.getMaxValue() / 1000d);
+        });
+    }
+
+    /**
+     * Writes one HdrHistogram percentile file per endpoint, in milliseconds, for plotting or diffing runs.
+     */
+    void write(Path directory, String prefix) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
+            String name = prefix + "-" + entry.getKey().replaceAll("[^A-Za-z0-9]+", "_") + ".hgrm";
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(name)))) {
+                entry.getValue().outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / 1000d;
+    }
+}
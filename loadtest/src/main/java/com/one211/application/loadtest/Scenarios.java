@@ -0,0 +1,162 @@
+package com.one211.application.loadtest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Request streams for each scenario. Requests are labelled with their route template, so the report
+ * groups them per endpoint rather than per URL.
+ */
+final class Scenarios {
+
+    record Request(String endpoint, HttpRequest http) {}
+
+    /**
+     * Called from the driver's single arrival thread only.
+     */
+    interface RequestFactory {
+        Request next();
+    }
+
+    static final List<String> SINGLE = List.of("login", "reads", "assignments", "membership");
+    static final List<String> NAMES = List.of("login", "reads", "assignments", "membership", "mixed", "all");
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final ObjectMapper objectMapper;
+    private final List<Seeder.Tenant> tenants;
+    private final SplittableRandom random = new SplittableRandom(211);
+    private final boolean[][] assigned;
+    private final boolean[][] members;
+
+    Scenarios(String baseUrl, ObjectMapper objectMapper, List<Seeder.Tenant> tenants) {
+        this.baseUrl = baseUrl;
+        this.objectMapper = objectMapper;
+        this.tenants = tenants;
+        this.assigned = new boolean[tenants.size()][];
+        this.members = new boolean[tenants.size()][];
+        for (int i = 0; i < tenants.size(); i++) {
+            Seeder.Tenant tenant = tenants.get(i);
+            assigned[i] = new boolean[tenant.users().size() * tenant.clusters().size()];
+            members[i] = new boolean[tenant.users().size() * tenant.groups().size()];
+        }
+    }
+
+    RequestFactory named(String name) {
+        return switch (name) {
+            case "login" -> this::login;
+            case "reads" -> this::read;
+            case "assignments" -> this::toggleAssignment;
+            case "membership" -> this::toggleMembership;
+            case "mixed" -> this::mixed;
+            default -> throw new IllegalArgumentException("Unknown scenario " + name + ", expected one of " + NAMES);
+        };
+    }
+
+    /**
+     * Mostly reads, with the write and login paths at rates a busy admin console would produce.
+     */
+    private Request mixed() {
+        int roll = random.nextInt(100);
+        if (roll < 70) {
+            return read();
+        }
+        if (roll < 85) {
+            return toggleAssignment();
+        }
+        if (roll < 95) {
+            return toggleMembership();
+        }
+        return login();
+    }
+
+    private Request login() {
+        int t = random.nextInt(tenants.size());
+        Seeder.Tenant tenant = tenants.get(t);
+        String email = tenant.users().get(random.nextInt(tenant.users().size()));
+        return post("POST /api/login/org/{orgId}", "/api/login/org/" + tenant.orgId(), null,
+                Map.of("email", email, "password", Seeder.PASSWORD));
+    }
+
+    private Request read() {
+        Seeder.Tenant tenant = tenants.get(random.nextInt(tenants.size()));
+        return switch (random.nextInt(3)) {
+            case 0 -> get("GET /api/org/{orgId}/cluster", "/api/org/" + tenant.orgId() + "/cluster", tenant.adminToken());
+            case 1 -> get("GET /api/orgs/{orgId}/groups", "/api/orgs/" + tenant.orgId() + "/groups", tenant.adminToken());
+            default -> get("GET /api/orgs/{orgId}/groups/{groupName}", "/api/orgs/" + tenant.orgId() + "/groups/"
+                    + encode(tenant.groups().get(random.nextInt(tenant.groups().size()))), tenant.adminToken());
+        };
+    }
+
+    /**
+     * Flips one user-cluster pair, so every request changes a row.
+     */
+    private Request toggleAssignment() {
+        int t = random.nextInt(tenants.size());
+        Seeder.Tenant tenant = tenants.get(t);
+        int pair = random.nextInt(assigned[t].length);
+        boolean assign = !assigned[t][pair];
+        assigned[t][pair] = assign;
+        String user = tenant.users().get(pair / tenant.clusters().size());
+        String cluster = tenant.clusters().get(pair % tenant.clusters().size());
+        return post("POST /api/orgs/{orgId}/cluster-assignments", "/api/orgs/" + tenant.orgId() + "/cluster-assignments",
+                tenant.adminToken(), Map.of("sourceType", "USER", "sourceName", user, "name", cluster,
+                        "action", assign ? "assign" : "unassign"));
+    }
+
+    /**
+     * Flips one user-group pair between member and non-member.
+     */
+    private Request toggleMembership() {
+        int t = random.nextInt(tenants.size());
+        Seeder.Tenant tenant = tenants.get(t);
+        int pair = random.nextInt(members[t].length);
+        boolean add = !members[t][pair];
+        members[t][pair] = add;
+        String user = tenant.users().get(pair / tenant.groups().size());
+        String group = tenant.groups().get(pair % tenant.groups().size());
+        return post("POST /api/orgs/{orgId}/user/{userName}", "/api/orgs/" + tenant.orgId() + "/user/" + encode(user),
+                tenant.adminToken(), Map.of("name", group, "action", add ? "add" : "remove"));
+    }
+
+    private Request get(String endpoint, String path, String token) {
+        return new Request(endpoint, HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Authorization", token)
+                .GET()
+                .build());
+    }
+
+    private Request post(String endpoint, String path, String token, Map<String, ?> body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(json(body)));
+        if (token != null) {
+            request.header("Authorization", token);
+        }
+        return new Request(endpoint, request.build());
+    }
+
+    private byte[] json(Map<String, ?> body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String encode(String segment) {
+        return URLEncoder.encode(segment, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}
@@ -0,0 +1,100 @@
+package com.one211.application.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Creates the orgs, users, clusters and groups the scenarios run against, through the public API.
+ * Names carry a per-run suffix so repeated runs against the same database do not collide.
+ */
+final class Seeder {
+
+    static final String PASSWORD = "load-test-password";
+
+    /**
+     * @param adminToken the {@code Bearer ...} value for the org's admin
+     */
+    record Tenant(long orgId, String adminToken, List<String> users, List<String> clusters, List<String> groups) {}
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper;
+    private final String baseUrl;
+    private final String run = Long.toString(System.currentTimeMillis(), 36);
+
+    Seeder(HttpClient client, ObjectMapper objectMapper, String baseUrl) {
+        this.client = client;
+        this.objectMapper = objectMapper;
+        this.baseUrl = baseUrl;
+    }
+
+    List<Tenant> seed(Options options) throws IOException, InterruptedException {
+        List<Tenant> tenants = new ArrayList<>(options.orgs());
+        for (int org = 0; org < options.orgs(); org++) {
+            String orgName = "load-" + run + "-" + org;
+            String adminEmail = "admin-" + run + "-" + org + "@load.one211.test";
+            post("/api/signup", null, Map.of("name", "Load Admin " + org, "email", adminEmail, "password", PASSWORD,
+                    "orgName", orgName, "orgDescription", "Load test org"));
+            long orgId = orgIdOf(adminEmail, orgName);
+            String token = login(orgId, adminEmail);
+
+            List<String> users = new ArrayList<>();
+            for (int i = 0; i < options.usersPerOrg(); i++) {
+                String email = "user-" + run + "-" + org + "-" + i + "@load.one211.test";
+                post("/api/org/" + orgId + "/user", token, Map.of("name", "Load User " + i, "email", email,
+                        "password", PASSWORD, "role", "USER", "description", "Load test user"));
+                users.add(email);
+            }
+            List<String> clusters = new ArrayList<>();
+            for (int i = 0; i < options.clustersPerOrg(); i++) {
+                String name = "cluster-" + i;
+                post("/api/org/" + orgId + "/cluster", token, Map.of("name", name, "description", "Load test cluster", "status", true));
+                clusters.add(name);
+            }
+            List<String> groups = new ArrayList<>();
+            for (int i = 0; i < options.groupsPerOrg(); i++) {
+                String name = "group-" + i;
+                post("/api/orgs/" + orgId + "/groups", token, Map.of("name", name, "description", "Load test group"));
+                groups.add(name);
+            }
+            tenants.add(new Tenant(orgId, token, users, clusters, groups));
+        }
+        return tenants;
+    }
+
+    String login(long orgId, String email) throws IOException, InterruptedException {
+        return post("/api/login/org/" + orgId, null, Map.of("email", email, "password", PASSWORD)).get("token").asText();
+    }
+
+    private long orgIdOf(String email, String orgName) throws IOException, InterruptedException {
+        for (JsonNode org : post("/api/login", null, Map.of("email", email, "password", PASSWORD))) {
+            if (orgName.equals(org.path("orgName").asText())) {
+                return org.get("orgId").asLong();
+            }
+        }
+        throw new IllegalStateException("Signed-up org " + orgName + " not found for " + email);
+    }
+
+    private JsonNode post(String path, String token, Map<String, ?> body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        if (token != null) {
+            request.header("Authorization", token);
+        }
+        HttpResponse<byte[]> response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() / 100 != 2) {
+            throw new IllegalStateException("Seeding failed: POST " + path + " returned " + response.statusCode()
+                    + " " + new String(response.body()));
+        }
+        return response.body().length == 0 ? objectMapper.nullNode() : objectMapper.readTree(response.body());
+    }
+}
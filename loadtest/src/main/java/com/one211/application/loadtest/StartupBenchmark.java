@@ -0,0 +1,58 @@
+package com.one211.application.loadtest;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Time from launching the app to its first HTTP response, for the plain executable jar and for the
+ * AOT + CDS build from {@code mvn -Pfast-start package}. The variants take turns so that machine noise
+ * hits both alike; the plain jar goes first and applies the schema the fast-start build expects.
+ * <p>
+ * Options: {@code --jar}, {@code --fast-start-dir}, {@code --runs} and the database options of {@link LoadTest}.
+ */
+public final class StartupBenchmark {
+
+    private static final Set<String> KNOWN = Set.of("jar", "fast-start-dir", "runs", "db-url", "db-user", "db-password");
+
+    private StartupBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> values = Options.values(args);
+        Options.rejectUnknown(values, KNOWN);
+        Path jar = Path.of(values.getOrDefault("jar", "target/application-1.0-SNAPSHOT-exec.jar"));
+        Path fastStart = Path.of(values.getOrDefault("fast-start-dir", "target/fast-start"));
+        int runs = Integer.parseInt(values.getOrDefault("runs", "5"));
+        String dbUrl = values.getOrDefault("db-url", Options.DEFAULT_DB_URL);
+        String dbUser = values.getOrDefault("db-user", Options.DEFAULT_DB_USER);
+        String dbPassword = values.getOrDefault("db-password", Options.DEFAULT_DB_PASSWORD);
+
+        Map<String, List<String>> variants = new LinkedHashMap<>();
+        variants.put("jar", List.of(AppProcess.java(), "-jar", jar.toString()));
+        variants.put("aot+cds", List.of(AppProcess.java(),
+                "-XX:SharedArchiveFile=" + fastStart.resolve("application.jsa"),
+                "-Dspring.aot.enabled=true",
+                "-jar", fastStart.resolve(jar.getFileName()).toString(),
+                "--spring.profiles.active=fast-start"));
+
+        Map<String, long[]> millis = new LinkedHashMap<>();
+        variants.keySet().forEach(variant -> millis.put(variant, new long[runs]));
+        for (int run = 0; run < runs; run++) {
+            for (Map.Entry<String, List<String>> variant : variants.entrySet()) {
+                try (AppProcess app = AppProcess.start(variant.getValue(), dbUrl, dbUser, dbPassword)) {
+                    millis.get(variant.getKey())[run] = app.timeToFirstResponse().toMillis();
+                }
+            }
+        }
+
+        System.out.printf("%n%-10s %8s %8s %8s   (time to first response, ms, %d runs)%n", "variant", "min", "median", "max", runs);
+        millis.forEach((variant, samples) -> {
+            Arrays.sort(samples);
+            System.out.printf("%-10s %8d %8d %8d%n", variant, samples[0], samples[samples.length / 2], samples[samples.length - 1]);
+        });
+    }
+}
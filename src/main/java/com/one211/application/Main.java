@@ -1,36 +1,48 @@
-package com.one211.application;
-
-import jakarta.annotation.PostConstruct;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.SpringApplication;
-import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.jdbc.core.JdbcTemplate;
-
-import java.sql.Connection;
-import java.sql.DatabaseMetaData;
-
-@SpringBootApplication
-public class Main {
-
-    @Autowired
-    private JdbcTemplate jdbcTemplate;
-
-    public static void main(String[] args) {
-        SpringApplication.run(Main.class, args);
-    }
-
-    @PostConstruct
-    public void printDatabaseInfo() {
-        try (Connection connection = jdbcTemplate.getDataSource().getConnection()) {
-            DatabaseMetaData metaData = connection.getMetaData();
-            String url = metaData.getURL();
-            String dbName = connection.getCatalog(); // or metaData.getDatabaseProductName()
-
-            System.out.println("🔌 Connected to DB:");
-            System.out.println("▶ URL: " + url);
-            System.out.println("▶ Database Name: " + dbName);
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-    }
-}
\ No newline at end of file
+package com.one211.application;
+
+import com.one211.application.config.NativeImageHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+
+@SpringBootApplication
+@ImportRuntimeHints(NativeImageHints.class)
+public class Main {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public static void main(String[] args) {
+        SpringApplication.run(Main.class, args);
+    }
+
+    /**
+     * Runs once the server accepts requests, off the startup thread, so a slow or unreachable database
+     * does not hold up startup. Opening the connection also starts the pool before the first request.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void printDatabaseInfoInBackground() {
+        Thread.ofVirtual().name("db-info").start(this::printDatabaseInfo);
+    }
+
+    public void printDatabaseInfo() {
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String url = metaData.getURL();
+            String dbName = connection.getCatalog(); // or metaData.getDatabaseProductName()
+
+            System.out.println("🔌 Connected to DB:");
+            System.out.println("▶ URL: " + url);
+            System.out.println("▶ Database Name: " + dbName);
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+}
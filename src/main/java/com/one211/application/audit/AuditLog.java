@@ -0,0 +1,276 @@
+package com.one211.application.audit;
+
+import com.one211.application.metrics.SqlStatementNames;
+import com.one211.application.model.AuditEvent;
+import com.one211.application.model.AuditStats;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Audit trail of mutating operations. Callers publish into a lock-free ring buffer and a single writer
+ * thread flushes it to the {@code audit_event} table in multi-row inserts.
+ * <p>
+ * An event published inside a transaction is only buffered once that transaction commits, so rolled-back
+ * operations leave no trace.
+ */
+@Component
+public class AuditLog {
+
+    public enum Durability {
+        /** Never block the caller; events are dropped and counted when the buffer is full. */
+        DROP,
+        /** Wait for buffer space, up to {@link #BLOCK_TIMEOUT_NANOS}, before dropping. */
+        BLOCK,
+        /** Insert in the caller's thread and transaction, which must exist. */
+        SYNC
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO audit_event (org_id, actor, action, target_type, target_name, detail, occurred_at) VALUES ";
+    private static final String INSERT_ROW = "(?, ?, ?, ?, ?, ?, ?)";
+    private static final String CREATE_PARTITION_QUERY =
+            "CREATE TABLE IF NOT EXISTS %s PARTITION OF audit_event FOR VALUES FROM ('%s') TO ('%s')";
+    private static final int COLUMNS = 7;
+    private static final int MAX_ATTEMPTS = 3;
+    private static final long BLOCK_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final JdbcTemplate jdbc;
+    private final Durability durability;
+    private final AuditRingBuffer<AuditEvent> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private volatile long caughtUpAt = System.currentTimeMillis();
+    private volatile boolean running;
+    private volatile Thread writer;
+    private YearMonth partitionedThrough;
+
+    public AuditLog(JdbcTemplate jdbc,
+                    @Value("${audit.durability:drop}") String durability,
+                    @Value("${audit.buffer-size:8192}") int bufferSize,
+                    @Value("${audit.batch-size:500}") int batchSize,
+                    @Value("${audit.flush-interval-ms:200}") long flushIntervalMillis) {
+        this.jdbc = jdbc;
+        this.durability = Durability.valueOf(durability.trim().toUpperCase());
+        this.buffer = new AuditRingBuffer<>(bufferSize);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::runWriter, "audit-writer");
+        thread.setDaemon(true);
+        writer = thread;
+        thread.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        Thread thread = writer;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            thread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+    }
+
+    /**
+     * Records an operation by the currently authenticated user.
+     */
+    public void publish(Long orgId, String action, String targetType, String targetName, String detail) {
+        publish(orgId, currentActor(), action, targetType, targetName, detail);
+    }
+
+    public void publish(Long orgId, String actor, String action, String targetType, String targetName, String detail) {
+        AuditEvent event = new AuditEvent(orgId, actor, action, targetType, targetName, detail, LocalDateTime.now());
+        switch (durability) {
+            case SYNC -> {
+                if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+                    throw new IllegalTransactionStateException("Synchronous audit of " + action + " needs the operation's transaction");
+                }
+                insert(List.of(event));
+                afterCommit(() -> {
+                    published.incrementAndGet();
+                    written.incrementAndGet();
+                });
+            }
+            case BLOCK -> afterCommit(() -> {
+                published.incrementAndGet();
+                enqueueBlocking(event);
+            });
+            case DROP -> afterCommit(() -> {
+                published.incrementAndGet();
+                enqueue(event);
+            });
+        }
+    }
+
+    public Durability durability() {
+        return durability;
+    }
+
+    public AuditStats stats() {
+        long pending = buffer.size();
+        long lag = pending == 0 ? 0 : Math.max(0, System.currentTimeMillis() - caughtUpAt);
+        return new AuditStats(published.get(), written.get(), dropped.get(), failed.get(), pending, lag);
+    }
+
+    private void enqueue(AuditEvent event) {
+        if (!buffer.offer(event)) {
+            onDrop();
+        }
+    }
+
+    private void enqueueBlocking(AuditEvent event) {
+        long deadline = System.nanoTime() + BLOCK_TIMEOUT_NANOS;
+        while (!buffer.offer(event)) {
+            if (System.nanoTime() - deadline >= 0) {
+                onDrop();
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(50));
+        }
+    }
+
+    private void onDrop() {
+        long drops = dropped.incrementAndGet();
+        if (drops == 1 || drops % 1000 == 0) {
+            log.warn("Audit buffer full, {} events dropped so far", drops);
+        }
+    }
+
+    private void runWriter() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        ensurePartitions(LocalDate.now());
+        while (running || buffer.size() > 0) {
+            buffer.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                caughtUpAt = System.currentTimeMillis();
+                if (running) {
+                    LockSupport.parkNanos(flushIntervalNanos);
+                }
+                continue;
+            }
+            ensurePartitions(batch.getLast().occurredAt().toLocalDate());
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<AuditEvent> batch) {
+        for (int attempt = 1; attempt <= MAX_ATTEMPTS; attempt++) {
+            try {
+                insert(batch);
+                written.addAndGet(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (attempt == MAX_ATTEMPTS || !running) {
+                    failed.addAndGet(batch.size());
+                    log.error("Dropping {} audit events after {} attempts", batch.size(), attempt, e);
+                    return;
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100L << attempt));
+            }
+        }
+    }
+
+    private void insert(List<AuditEvent> events) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + events.size() * (INSERT_ROW.length() + 2));
+        sql.append(INSERT_PREFIX);
+        Object[] args = new Object[events.size() * COLUMNS];
+        int i = 0;
+        for (AuditEvent event : events) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(INSERT_ROW);
+            args[i++] = event.orgId();
+            args[i++] = event.actor();
+            args[i++] = event.action();
+            args[i++] = event.targetType();
+            args[i++] = event.targetName();
+            args[i++] = event.detail();
+            args[i++] = Timestamp.valueOf(event.occurredAt());
+        }
+        SqlStatementNames.named("AuditLog.INSERT_PREFIX", () -> jdbc.update(sql.toString(), args));
+    }
+
+    /**
+     * Keeps the current and next month's partitions in place so rows only reach the default partition
+     * when partition creation fails.
+     */
+    private void ensurePartitions(LocalDate today) {
+        YearMonth next = YearMonth.from(today).plusMonths(1);
+        if (partitionedThrough != null && !partitionedThrough.isBefore(next)) {
+            return;
+        }
+        try {
+            for (YearMonth month = YearMonth.from(today); !month.isAfter(next); month = month.plusMonths(1)) {
+                String name = String.format("audit_event_y%dm%02d", month.getYear(), month.getMonthValue());
+                String sql = String.format(CREATE_PARTITION_QUERY, name, month.atDay(1), month.plusMonths(1).atDay(1));
+                SqlStatementNames.named("AuditLog.CREATE_PARTITION_QUERY", () -> {
+                    jdbc.execute(sql);
+                    return null;
+                });
+            }
+            // Only once they exist: a month left to the default partition cannot be attached later.
+            partitionedThrough = next;
+        } catch (RuntimeException e) {
+            log.warn("Could not create audit partitions through {}, retrying with the next batch: {}", next, e.getMessage());
+        }
+    }
+
+    /**
+     * Runs {@code action} once the current transaction commits, or now when there is none.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static String currentActor() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+}
@@ -0,0 +1,80 @@
+package com.one211.application.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.one211.application.audit.AuditLog;
+import com.one211.application.metrics.ServerTimingFilter;
+import com.one211.application.metrics.SqlStatementNames;
+import com.one211.application.metrics.TimedDataSource;
+import com.one211.application.metrics.TimedJsonHttpMessageConverter;
+import com.one211.application.service.ChangeFeedService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import javax.sql.DataSource;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Static so it is registered before the DataSource is created; the registry is looked up on first use.
+     */
+    @Bean
+    public static BeanPostProcessor timedDataSourcePostProcessor(ObjectProvider<MeterRegistry> registry,
+                                                                 ObjectProvider<SqlStatementNames> names) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TimedDataSource)) {
+                    return new TimedDataSource(dataSource, registry::getObject, names.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Ahead of the security filters, so a sampled request is timed from the first filter on.
+     */
+    @Bean
+    public FilterRegistrationBean<ServerTimingFilter> serverTimingFilter(@Value("${server-timing.sample-rate:0.0}") double sampleRate) {
+        FilterRegistrationBean<ServerTimingFilter> registration = new FilterRegistrationBean<>(new ServerTimingFilter(sampleRate));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    /**
+     * Replaces Boot's JSON converter.
+     */
+    @Bean
+    public MappingJackson2HttpMessageConverter mappingJackson2HttpMessageConverter(ObjectMapper objectMapper) {
+        return new TimedJsonHttpMessageConverter(objectMapper);
+    }
+
+    @Bean
+    public MeterBinder auditLogMetrics(AuditLog auditLog) {
+        return registry -> {
+            FunctionCounter.builder("audit.events.published", auditLog, log -> log.stats().published()).register(registry);
+            FunctionCounter.builder("audit.events.written", auditLog, log -> log.stats().written()).register(registry);
+            FunctionCounter.builder("audit.events.dropped", auditLog, log -> log.stats().dropped()).register(registry);
+            FunctionCounter.builder("audit.events.failed", auditLog, log -> log.stats().failed()).register(registry);
+            Gauge.builder("audit.events.pending", auditLog, log -> log.stats().pending()).register(registry);
+            Gauge.builder("audit.lag", auditLog, log -> log.stats().lagMillis()).baseUnit("milliseconds").register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder changeFeedMetrics(ChangeFeedService changeFeedService) {
+        return registry -> Gauge.builder("change_feed.subscribers", changeFeedService, ChangeFeedService::subscriberCount)
+                .register(registry);
+    }
+}
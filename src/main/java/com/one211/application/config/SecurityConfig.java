@@ -1,103 +1,113 @@
-package com.one211.application.config;
-
-import com.one211.application.model.User;
-import com.one211.application.model.UserOrg;
-import com.one211.application.security.CustomUserDetails;
-import com.one211.application.security.JwtAuthenticationEntryPoint;
-import com.one211.application.security.JwtAuthenticationFilter;
-import com.one211.application.security.JwtHelper;
-import com.one211.application.service.UserService;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.context.annotation.Bean;
-import org.springframework.context.annotation.Configuration;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.config.annotation.web.builders.HttpSecurity;
-import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.core.userdetails.UsernameNotFoundException;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
-import org.springframework.transaction.annotation.EnableTransactionManagement;
-
-import java.util.List;
-
-@Configuration
-@EnableTransactionManagement
-public class SecurityConfig {
-
-    @Autowired
-    private JwtAuthenticationEntryPoint point;
-
-    @Bean
-    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtHelper jwtHelper, UserDetailsService userDetailsService) {
-        return new JwtAuthenticationFilter(jwtHelper, userDetailsService);
-    }
-
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
-    }
-
-    @Bean
-    public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
-        return authConfig.getAuthenticationManager();
-    }
-
-    @Bean
-    public UserDetailsService userDetailsService(UserService userService) {
-        return email -> {
-            User user = userService.getUserByEmail(email);
-            if (user == null) {
-                throw new UsernameNotFoundException("User not found: " + email);
-            }
-            return new CustomUserDetails(new UserOrg(
-                    user.name(),
-                    user.email(),
-                    user.password(),
-                    user.role(),
-                    null,
-                    null
-            ));
-        };
-    }
-
-    @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
-        http
-                .cors(CORS -> CORS
-                        .configurationSource(request -> {
-                            var cors = new org.springframework.web.cors.CorsConfiguration();
-                            cors.setAllowedOrigins(List.of("http://localhost:5173"));
-                            cors.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
-                            cors.setAllowedHeaders(List.of("*"));
-                            cors.setAllowCredentials(true);
-                            return cors;
-                        })
-                )
-                .csrf(csrf -> csrf.disable())
-                .authorizeHttpRequests(auth -> auth
-                        .requestMatchers("/api/signup").permitAll()
-                        .requestMatchers("/api/login").permitAll()
-                        .requestMatchers("/api/login/org/*").permitAll()
-                        .requestMatchers("/api/org/*/user/*").permitAll()
-                        .requestMatchers("/api/org/*/user").hasRole("ADMIN")
-                        .requestMatchers("/api/org/*/cluster").hasRole("ADMIN")
-                        .requestMatchers("/api/org/*/cluster/*").hasRole("ADMIN")
-                        .requestMatchers("/api/orgs/*/cluster-assignments").hasRole("ADMIN")
-                        .requestMatchers("/api/orgs/*/groups").permitAll()
-                        .requestMatchers("/api/orgs/*/groups/*").permitAll()
-                        .requestMatchers("/api/orgs/*/user/*").permitAll()
-                        .requestMatchers("/api/orgs/*/groups").permitAll()
-                        .anyRequest().authenticated()
-                )
-                .exceptionHandling(ex -> ex.authenticationEntryPoint(point))
-                .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
-
-        http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
-
-        return http.build();
-    }
-}
+package com.one211.application.config;
+
+import com.one211.application.metrics.TimedPasswordEncoder;
+import com.one211.application.model.UserOrg;
+import com.one211.application.security.CustomUserDetails;
+import com.one211.application.security.JwtAuthenticationEntryPoint;
+import com.one211.application.security.JwtAuthenticationFilter;
+import com.one211.application.security.JwtHelper;
+import com.one211.application.tenant.TenantDirectory;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import java.util.List;
+
+@Configuration
+@EnableTransactionManagement
+public class SecurityConfig {
+
+    @Autowired
+    private JwtAuthenticationEntryPoint point;
+
+    @Bean
+    public JwtAuthenticationFilter jwtAuthenticationFilter(JwtHelper jwtHelper, UserDetailsService userDetailsService,
+                                                           TenantDirectory tenantDirectory,
+                                                           @Value("${server-timing.admins:true}") boolean timeAdmins) {
+        return new JwtAuthenticationFilter(jwtHelper, userDetailsService, tenantDirectory, timeAdmins);
+    }
+
+    @Bean
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        return new TimedPasswordEncoder(new BCryptPasswordEncoder(), meterRegistry);
+    }
+
+    @Bean
+    public AuthenticationManager authenticationManager(AuthenticationConfiguration authConfig) throws Exception {
+        return authConfig.getAuthenticationManager();
+    }
+
+    @Bean
+    public UserDetailsService userDetailsService(TenantDirectory tenantDirectory) {
+        return email -> {
+            UserOrg user = tenantDirectory.getUser(email);
+            if (user == null) {
+                throw new UsernameNotFoundException("User not found: " + email);
+            }
+            return new CustomUserDetails(user);
+        };
+    }
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http, JwtAuthenticationFilter jwtAuthenticationFilter) throws Exception {
+        http
+                .cors(CORS -> CORS
+                        .configurationSource(request -> {
+                            var cors = new org.springframework.web.cors.CorsConfiguration();
+                            cors.setAllowedOrigins(List.of("http://localhost:5173"));
+                            cors.setAllowedMethods(List.of("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
+                            cors.setAllowedHeaders(List.of("*"));
+                            cors.setExposedHeaders(List.of("ETag", "X-Total-Count", "X-Next-Cursor", "Server-Timing"));
+                            cors.setAllowCredentials(true);
+                            return cors;
+                        })
+                )
+                .csrf(csrf -> csrf.disable())
+                .authorizeHttpRequests(auth -> auth
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                        // Actuator is only bound to the management port, which is not exposed publicly
+                        .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll()
+                        .requestMatchers("/api/signup").permitAll()
+                        .requestMatchers("/api/login").permitAll()
+                        .requestMatchers("/api/login/org/*").permitAll()
+                        .requestMatchers(HttpMethod.PATCH, "/api/org/*").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.DELETE, "/api/org/*").hasRole("ADMIN")
+                        .requestMatchers("/api/org/*/deletion").hasRole("ADMIN")
+                        .requestMatchers("/api/org/*/user/*").permitAll()
+                        .requestMatchers("/api/org/*/user").hasRole("ADMIN")
+                        .requestMatchers("/api/org/*/cluster").hasRole("ADMIN")
+                        .requestMatchers("/api/org/*/cluster/*").hasRole("ADMIN")
+                        .requestMatchers("/api/orgs/*/cluster-assignments").hasRole("ADMIN")
+                        .requestMatchers("/api/orgs/*/webhooks", "/api/orgs/*/webhooks/*").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/api/orgs/*/groups/*/groups").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/api/orgs/*/groups/*/members", "/api/orgs/*/user/*/groups").authenticated()
+                        .requestMatchers("/api/orgs/*/groups").permitAll()
+                        .requestMatchers("/api/orgs/*/groups/*").permitAll()
+                        .requestMatchers("/api/orgs/*/user/*").permitAll()
+                        .requestMatchers("/api/orgs/*/groups").permitAll()
+                        .anyRequest().authenticated()
+                )
+                .exceptionHandling(ex -> ex.authenticationEntryPoint(point))
+                .sessionManagement(sess -> sess.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+
+        http.addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+
+        return http.build();
+    }
+}
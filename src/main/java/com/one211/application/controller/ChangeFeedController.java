@@ -0,0 +1,39 @@
+package com.one211.application.controller;
+
+import com.one211.application.security.JwtHelper;
+import com.one211.application.service.ChangeFeedService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+public class ChangeFeedController {
+
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
+    private final ChangeFeedService changeFeedService;
+    private final JwtHelper jwtHelper;
+
+    public ChangeFeedController(ChangeFeedService changeFeedService, JwtHelper jwtHelper) {
+        this.changeFeedService = changeFeedService;
+        this.jwtHelper = jwtHelper;
+    }
+
+    @GetMapping(path = "/orgs/{orgId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> events(@PathVariable Long orgId,
+                                             @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId,
+                                             @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!orgId.equals(jwtHelper.getOrgIdFromAuthorization(authorization))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CACHE_CONTROL, "no-cache")
+                .header("X-Accel-Buffering", "no")
+                .body(changeFeedService.subscribe(orgId, lastEventId));
+    }
+}
@@ -1,59 +1,108 @@
-package com.one211.application.controller;
-
-import com.one211.application.model.Cluster;
-import com.one211.application.security.JwtHelper;
-import com.one211.application.service.ClusterService;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
-
-@RestController
-@RequestMapping("/api")
-@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
-public class ClusterController {
-
-    private final ClusterService clusterService;
-
-    public ClusterController(ClusterService clusterService) {
-        this.clusterService = clusterService;
-    }
-
-    @PostMapping("/org/{orgId}/cluster")
-    public ResponseEntity<Cluster> createCluster(@PathVariable Long orgId, @RequestBody Cluster cluster) {
-        Cluster created = clusterService.addCluster(orgId, cluster);
-        return ResponseEntity.ok(created);
-    }
-
-    @GetMapping("/org/{orgId}/cluster/{clusterName}")
-    public ResponseEntity<Cluster> getCluster(@PathVariable Long orgId, @PathVariable String clusterName) {
-        Cluster cluster = clusterService.getClusterByName(orgId, clusterName);
-        return ResponseEntity.ok(cluster);
-    }
-
-    @GetMapping("/org/{orgId}/cluster")
-    public ResponseEntity<List<Cluster>> getAllClusters(@PathVariable Long orgId) {
-        List<Cluster> clusters = clusterService.getAllClusters(orgId);
-        return ResponseEntity.ok(clusters);
-    }
-
-    @PatchMapping("/org/{orgId}/cluster/{clusterName}")
-    public ResponseEntity<Cluster> updateCluster(
-            @PathVariable Long orgId,
-            @PathVariable String clusterName,
-            @RequestBody Cluster updatedCluster
-    ) {
-        Cluster updated = clusterService.updateCluster(orgId, clusterName, updatedCluster);
-        return ResponseEntity.ok(updated);
-    }
-
-    @DeleteMapping("/org/{orgId}/cluster/{clusterName}")
-    public ResponseEntity<Void> deleteCluster(@PathVariable Long orgId, @PathVariable String clusterName) {
-        boolean deleted = clusterService.deleteCluster(orgId, clusterName);
-        if (deleted) {
-            return  ResponseEntity.noContent().build();
-        } else {
-            return ResponseEntity.notFound().build();
-        }
-    }
-}
+package com.one211.application.controller;
+
+import com.one211.application.model.Cluster;
+import com.one211.application.model.ClusterFilter;
+import com.one211.application.model.ClusterPage;
+import com.one211.application.security.JwtHelper;
+import com.one211.application.service.ChangeVersionService;
+import com.one211.application.service.ClusterService;
+import com.one211.application.service.VersionConflictException;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+public class ClusterController {
+
+    private final ClusterService clusterService;
+    private final ChangeVersionService changeVersionService;
+
+    public ClusterController(ClusterService clusterService, ChangeVersionService changeVersionService) {
+        this.clusterService = clusterService;
+        this.changeVersionService = changeVersionService;
+    }
+
+    @PostMapping("/org/{orgId}/cluster")
+    public ResponseEntity<Cluster> createCluster(@PathVariable Long orgId, @RequestBody Cluster cluster) {
+        Cluster created = clusterService.addCluster(orgId, cluster);
+        return ResponseEntity.ok(created);
+    }
+
+    @GetMapping("/org/{orgId}/cluster/{clusterName}")
+    public ResponseEntity<Cluster> getCluster(@PathVariable Long orgId, @PathVariable String clusterName) {
+        Cluster cluster = clusterService.getClusterByName(orgId, clusterName);
+        if (cluster == null) {
+            return ResponseEntity.ok(null);
+        }
+        return ResponseEntity.ok().eTag(RowVersion.etag(cluster.version())).body(cluster);
+    }
+
+    @GetMapping("/org/{orgId}/cluster")
+    public ResponseEntity<List<Cluster>> getAllClusters(@PathVariable Long orgId,
+                                                        @RequestParam(required = false) Boolean active,
+                                                        @RequestParam(required = false) String prefix,
+                                                        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdAfter,
+                                                        @RequestParam(required = false) String sort,
+                                                        @RequestParam(required = false) String after,
+                                                        @RequestParam(defaultValue = "0") int limit,
+                                                        WebRequest webRequest) {
+        ClusterFilter filter = new ClusterFilter(active, prefix, createdAfter, sort, after, limit);
+        // A malformed sort or cursor is refused even when the client's copy is current.
+        try {
+            clusterService.validateClusterFilter(filter);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        String etag = RepresentationEtag.of(changeVersionService.etag(orgId, ChangeVersionService.Collection.CLUSTERS),
+                webRequest.getHeader(HttpHeaders.ACCEPT));
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        ClusterPage page = clusterService.getClusterPage(orgId, filter);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT);
+        if (page.nextCursor() != null) {
+            response.header(GroupController.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.clusters());
+    }
+
+    @PatchMapping("/org/{orgId}/cluster/{clusterName}")
+    public ResponseEntity<Cluster> updateCluster(
+            @PathVariable Long orgId,
+            @PathVariable String clusterName,
+            @RequestBody Cluster updatedCluster,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        Long expectedVersion;
+        try {
+            expectedVersion = RowVersion.fromIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Cluster updated;
+        try {
+            updated = clusterService.updateCluster(orgId, clusterName, updatedCluster, expectedVersion);
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        return ResponseEntity.ok().eTag(RowVersion.etag(updated.version())).body(updated);
+    }
+
+    @DeleteMapping("/org/{orgId}/cluster/{clusterName}")
+    public ResponseEntity<Void> deleteCluster(@PathVariable Long orgId, @PathVariable String clusterName) {
+        boolean deleted = clusterService.deleteCluster(orgId, clusterName);
+        if (deleted) {
+            return  ResponseEntity.noContent().build();
+        } else {
+            return ResponseEntity.notFound().build();
+        }
+    }
+}
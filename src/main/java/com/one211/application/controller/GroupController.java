@@ -1,61 +1,142 @@
-package com.one211.application.controller;
-
-import com.one211.application.model.GroupAssignmentRequest;
-import com.one211.application.model.Group;
-import com.one211.application.model.UserWithStatus;
-import com.one211.application.service.GroupService;
-import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
-
-@RestController
-@RequestMapping("/api")
-@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
-public class GroupController {
-    private final GroupService groupService;
-
-    public GroupController(GroupService groupService) {
-        this.groupService = groupService;
-    }
-
-    @PostMapping("/orgs/{orgId}/groups")
-    public ResponseEntity<Group> createGroup(@PathVariable Long orgId, @RequestBody Group group) {
-        if (orgId == null || group.name() == null || group.description() == null) {
-            return ResponseEntity.badRequest().body(null);
-        }
-        return ResponseEntity.ok(groupService.createGroup(orgId, group));
-    }
-
-    @DeleteMapping("/orgs/{orgId}/groups/{groupName}")
-    public ResponseEntity<Boolean> deleteGroup(@PathVariable Long orgId, @PathVariable String groupName) {
-        if (orgId == null || groupName == null) {
-            return ResponseEntity.badRequest().body(false);
-        }
-        return ResponseEntity.ok(groupService.deleteGroup(orgId, groupName));
-    }
-
-    @GetMapping("/orgs/{orgId}/groups")
-    public ResponseEntity<List<Group>> getOrgAllGroups(@PathVariable Long orgId) {
-        if (orgId == null) {
-            throw new IllegalArgumentException("Invalid org Id " + null);
-        }
-        return ResponseEntity.ok(groupService.getAllOrgGroups(orgId));
-    }
-
-    @PostMapping("/orgs/{orgId}/user/{userName}")
-    public ResponseEntity<Boolean> handleUserInGroup(@PathVariable Long orgId, @PathVariable String userName, @RequestBody GroupAssignmentRequest request) {
-        if (orgId == null || userName == null || request.name() == null || request.action() == null) {
-            return ResponseEntity.badRequest().body(false);
-        }
-        return ResponseEntity.ok(groupService.handleUserInGroup(orgId, userName, request));
-    }
-
-    @GetMapping("/orgs/{orgId}/groups/{groupName}")
-    public ResponseEntity<List<UserWithStatus>> getUsers(@PathVariable Long orgId, @PathVariable String groupName) {
-        if (orgId == null || groupName == null) {
-            return ResponseEntity.badRequest().body(null);
-        }
-        return ResponseEntity.ok(groupService.getGroupUsers(orgId, groupName));
-    }
-}
+package com.one211.application.controller;
+
+import com.one211.application.model.GroupAssignmentRequest;
+import com.one211.application.model.Group;
+import com.one211.application.model.GroupUserPage;
+import com.one211.application.model.UserWithStatus;
+import com.one211.application.security.JwtHelper;
+import com.one211.application.service.ChangeVersionService;
+import com.one211.application.service.GroupService;
+import com.one211.application.service.UserProjection;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+public class GroupController {
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private final GroupService groupService;
+    private final ChangeVersionService changeVersionService;
+    private final JwtHelper jwtHelper;
+
+    public GroupController(GroupService groupService, ChangeVersionService changeVersionService, JwtHelper jwtHelper) {
+        this.groupService = groupService;
+        this.changeVersionService = changeVersionService;
+        this.jwtHelper = jwtHelper;
+    }
+
+    @PostMapping("/orgs/{orgId}/groups")
+    public ResponseEntity<Group> createGroup(@PathVariable Long orgId, @RequestBody Group group) {
+        if (orgId == null || group.name() == null || group.description() == null) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        return ResponseEntity.ok(groupService.createGroup(orgId, group));
+    }
+
+    @DeleteMapping("/orgs/{orgId}/groups/{groupName}")
+    public ResponseEntity<Boolean> deleteGroup(@PathVariable Long orgId, @PathVariable String groupName) {
+        if (orgId == null || groupName == null) {
+            return ResponseEntity.badRequest().body(false);
+        }
+        return ResponseEntity.ok(groupService.deleteGroup(orgId, groupName));
+    }
+
+    @GetMapping("/orgs/{orgId}/groups")
+    public ResponseEntity<List<Group>> getOrgAllGroups(@PathVariable Long orgId, WebRequest webRequest) {
+        if (orgId == null) {
+            throw new IllegalArgumentException("Invalid org Id " + null);
+        }
+        String etag = RepresentationEtag.of(changeVersionService.etag(orgId, ChangeVersionService.Collection.GROUPS),
+                webRequest.getHeader(HttpHeaders.ACCEPT));
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).varyBy(HttpHeaders.ACCEPT).build();
+        }
+        return ResponseEntity.ok().eTag(etag).varyBy(HttpHeaders.ACCEPT).body(groupService.getAllOrgGroups(orgId));
+    }
+
+    @PostMapping("/orgs/{orgId}/user/{userName}")
+    public ResponseEntity<Boolean> handleUserInGroup(@PathVariable Long orgId, @PathVariable String userName, @RequestBody GroupAssignmentRequest request) {
+        if (orgId == null || userName == null || request.name() == null || request.action() == null) {
+            return ResponseEntity.badRequest().body(false);
+        }
+        return ResponseEntity.ok(groupService.handleUserInGroup(orgId, userName, request));
+    }
+
+    /**
+     * Nests ({@code "add"}) or un-nests ({@code "remove"}) the group named in the body under {@code groupName}.
+     * A nesting that would make a group its own ancestor is refused with 409.
+     */
+    @PostMapping("/orgs/{orgId}/groups/{groupName}/groups")
+    public ResponseEntity<Boolean> handleGroupInGroup(@PathVariable Long orgId, @PathVariable String groupName, @RequestBody GroupAssignmentRequest request,
+                                                      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (orgId == null || groupName == null || request.name() == null || request.action() == null) {
+            return ResponseEntity.badRequest().body(false);
+        }
+        if (!orgId.equals(jwtHelper.getOrgIdFromAuthorization(authorization))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(false);
+        }
+        try {
+            return ResponseEntity.ok(groupService.handleGroupInGroup(orgId, groupName, request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(false);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(false);
+        }
+    }
+
+    @GetMapping("/orgs/{orgId}/groups/{groupName}/members")
+    public ResponseEntity<List<String>> getTransitiveMembers(@PathVariable Long orgId, @PathVariable String groupName,
+                                                             @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!orgId.equals(jwtHelper.getOrgIdFromAuthorization(authorization))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(groupService.getTransitiveGroupUsers(orgId, groupName));
+    }
+
+    @GetMapping("/orgs/{orgId}/user/{userName}/groups")
+    public ResponseEntity<List<String>> getUserGroups(@PathVariable Long orgId, @PathVariable String userName,
+                                                      @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!orgId.equals(jwtHelper.getOrgIdFromAuthorization(authorization))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(groupService.getUserGroups(orgId, userName));
+    }
+
+    @GetMapping("/orgs/{orgId}/groups/{groupName}")
+    public ResponseEntity<List<UserWithStatus>> getUsers(@PathVariable Long orgId, @PathVariable String groupName,
+                                                         @RequestParam(required = false) String fields,
+                                                         @RequestParam(required = false) String filter,
+                                                         @RequestParam(required = false) String prefix,
+                                                         @RequestParam(required = false) String after,
+                                                         @RequestParam(defaultValue = "50") int limit) {
+        if (orgId == null || groupName == null) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        UserProjection projection;
+        GroupService.Membership membership;
+        try {
+            projection = UserProjection.parse(fields);
+            membership = GroupService.Membership.parse(filter);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(null);
+        }
+        GroupUserPage page = groupService.getGroupUserPage(orgId, groupName, projection, membership, prefix, after, limit);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.total() != null) {
+            response.header(TOTAL_COUNT_HEADER, page.total().toString());
+        }
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.users());
+    }
+}
@@ -0,0 +1,80 @@
+package com.one211.application.controller;
+
+import com.one211.application.model.OrgDeletionJob;
+import com.one211.application.model.Organization;
+import com.one211.application.service.OrganizationService;
+import com.one211.application.service.VersionConflictException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+public class OrganizationController {
+    private final OrganizationService organizationService;
+
+    public OrganizationController(OrganizationService organizationService) {
+        this.organizationService = organizationService;
+    }
+
+    @GetMapping("/org/{orgId}")
+    public ResponseEntity<Organization> getOrganization(@PathVariable Long orgId) {
+        Organization org = organizationService.getOrgById(orgId);
+        if (org == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().eTag(RowVersion.etag(org.version())).body(org);
+    }
+
+    @PatchMapping("/org/{orgId}")
+    public ResponseEntity<Organization> updateOrganization(@PathVariable Long orgId, @RequestBody Organization org,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion;
+        try {
+            expectedVersion = RowVersion.fromIfMatch(ifMatch);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+        Organization changes = new Organization(orgId, org.name(), org.description(), null, LocalDateTime.now());
+        Organization updated;
+        try {
+            updated = organizationService.update(changes, expectedVersion);
+        } catch (VersionConflictException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        if (updated == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok().eTag(RowVersion.etag(updated.version())).body(updated);
+    }
+
+    /**
+     * Accepted at once; the org's rows are removed in the background and the Location header points at the progress.
+     */
+    @DeleteMapping("/org/{orgId}")
+    public ResponseEntity<OrgDeletionJob> deleteOrganization(@PathVariable Long orgId) {
+        OrgDeletionJob job;
+        try {
+            job = organizationService.deleteOrg(orgId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .location(URI.create("/api/org/" + orgId + "/deletion"))
+                .body(job);
+    }
+
+    @GetMapping("/org/{orgId}/deletion")
+    public ResponseEntity<OrgDeletionJob> getDeletion(@PathVariable Long orgId) {
+        OrgDeletionJob job = organizationService.getDeletion(orgId);
+        if (job == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(job);
+    }
+}
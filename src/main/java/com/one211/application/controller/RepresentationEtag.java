@@ -0,0 +1,61 @@
+package com.one211.application.controller;
+
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collection ETags per encoding. The same list served as JSON, CBOR or Smile is three different byte sequences, so
+ * each gets its own strong validator, e.g. {@code "clusters-7-12"} and {@code "clusters-7-12-cbor"}; responses carrying
+ * one must also send {@code Vary: Accept}.
+ */
+final class RepresentationEtag {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    // In the order the message converters are registered, which is how a wildcard Accept is resolved.
+    private static final List<MediaType> ENCODINGS = List.of(MediaType.APPLICATION_JSON, MediaType.APPLICATION_CBOR, SMILE);
+
+    private RepresentationEtag() {
+    }
+
+    /**
+     * @param etag   the collection's ETag, quoted
+     * @param accept the request's {@code Accept} header, possibly null
+     */
+    static String of(String etag, String accept) {
+        MediaType encoding = negotiate(accept);
+        if (MediaType.APPLICATION_JSON.equals(encoding)) {
+            return etag;
+        }
+        String suffix = MediaType.APPLICATION_CBOR.equals(encoding) ? "cbor" : "smile";
+        return etag.substring(0, etag.length() - 1) + "-" + suffix + "\"";
+    }
+
+    private static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            return MediaType.APPLICATION_JSON;
+        }
+        MimeTypeUtils.sortBySpecificity(accepted);
+        for (MediaType type : accepted) {
+            if (type.getQualityValue() == 0) {
+                continue;
+            }
+            for (MediaType encoding : ENCODINGS) {
+                if (type.isCompatibleWith(encoding)) {
+                    return encoding;
+                }
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+}
@@ -0,0 +1,32 @@
+package com.one211.application.controller;
+
+/**
+ * Row versions as strong ETags, e.g. {@code "3"}.
+ */
+final class RowVersion {
+
+    private RowVersion() {
+    }
+
+    static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Version an {@code If-Match} header requires, or null when there is no precondition ({@code *} or absent).
+     */
+    static Long fromIfMatch(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || "*".equals(ifMatch.trim())) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.length() < 3 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            throw new IllegalArgumentException("If-Match must be a single strong ETag");
+        }
+        try {
+            return Long.parseLong(value.substring(1, value.length() - 1));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("If-Match does not name a row version: " + ifMatch, e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.one211.application.controller;
+
+import com.one211.application.model.Webhook;
+import com.one211.application.security.JwtHelper;
+import com.one211.application.service.WebhookService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "http://localhost:5173", allowCredentials = "true")
+public class WebhookController {
+
+    private final WebhookService webhookService;
+    private final JwtHelper jwtHelper;
+
+    public WebhookController(WebhookService webhookService, JwtHelper jwtHelper) {
+        this.webhookService = webhookService;
+        this.jwtHelper = jwtHelper;
+    }
+
+    @PostMapping("/orgs/{orgId}/webhooks")
+    public ResponseEntity<Webhook> register(@PathVariable Long orgId, @RequestBody Webhook webhook,
+                                            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!orgId.equals(jwtHelper.getOrgIdFromAuthorization(authorization))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        try {
+            return ResponseEntity.ok(webhookService.register(orgId, webhook).withoutSecret());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
+    @GetMapping("/orgs/{orgId}/webhooks")
+    public ResponseEntity<List<Webhook>> getWebhooks(@PathVariable Long orgId,
+                                                     @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!orgId.equals(jwtHelper.getOrgIdFromAuthorization(authorization))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(webhookService.getWebhooks(orgId).stream().map(Webhook::withoutSecret).toList());
+    }
+
+    @DeleteMapping("/orgs/{orgId}/webhooks/{webhookId}")
+    public ResponseEntity<Boolean> deleteWebhook(@PathVariable Long orgId, @PathVariable Long webhookId,
+                                                 @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        if (!orgId.equals(jwtHelper.getOrgIdFromAuthorization(authorization))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(webhookService.deleteWebhook(orgId, webhookId));
+    }
+}
@@ -0,0 +1,17 @@
+package com.one211.application.jdbc;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Column label for a {@link RowMapped} record component whose name does not match the column,
+ * e.g. {@code @Column("creation_time") LocalDateTime createdAt}.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface Column {
+
+    String value();
+}
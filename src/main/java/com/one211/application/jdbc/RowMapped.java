@@ -0,0 +1,19 @@
+package com.one211.application.jdbc;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a {@code <Record>RowMapper} next to the annotated record at compile time. The mapper looks up
+ * each component's column position once per result set and then reads every row by index, without
+ * reflection. Components map to the snake_case of their name unless they carry {@link Column}.
+ * <p>
+ * Boxed components are null for SQL NULL. A component whose type is itself {@code @RowMapped} is read
+ * from the same row. Mappers keep the resolved positions, so create one per query.
+ */
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface RowMapped {
+}
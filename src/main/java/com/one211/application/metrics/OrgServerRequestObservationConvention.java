@@ -0,0 +1,50 @@
+package com.one211.application.metrics;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Adds the controller method and a bounded org id to the {@code http.server.requests} tags.
+ */
+@Component
+public class OrgServerRequestObservationConvention extends DefaultServerRequestObservationConvention {
+
+    private static final String ORG_ID_VARIABLE = "orgId";
+
+    private final OrgTags orgTags;
+
+    public OrgServerRequestObservationConvention(OrgTags orgTags) {
+        this.orgTags = orgTags;
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        HttpServletRequest request = context.getCarrier();
+        return super.getLowCardinalityKeyValues(context).and(
+                KeyValue.of("org", orgTags.of(orgId(request))),
+                KeyValue.of("handler", handler(request)));
+    }
+
+    private static String orgId(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                && variables.get(ORG_ID_VARIABLE) instanceof String orgId) {
+            return orgId;
+        }
+        return null;
+    }
+
+    private static String handler(HttpServletRequest request) {
+        if (request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod method) {
+            return method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        }
+        return OrgTags.NONE;
+    }
+}
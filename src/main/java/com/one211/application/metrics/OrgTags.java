@@ -0,0 +1,49 @@
+package com.one211.application.metrics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Org id tag values with a fixed upper bound on cardinality. The first {@code metrics.org-tag-limit}
+ * orgs seen keep their own series; every later org is reported as {@value #OTHER}.
+ */
+@Component
+public class OrgTags {
+
+    public static final String NONE = "none";
+    public static final String OTHER = "other";
+
+    private final int limit;
+    private final Set<String> tracked = ConcurrentHashMap.newKeySet();
+
+    public OrgTags(@Value("${metrics.org-tag-limit:50}") int limit) {
+        this.limit = limit;
+    }
+
+    public String of(String orgId) {
+        if (orgId == null || orgId.isEmpty()) {
+            return NONE;
+        }
+        if (tracked.contains(orgId)) {
+            return orgId;
+        }
+        // Concurrent first sightings may overshoot the limit by a few orgs, which is harmless
+        if (!isNumeric(orgId) || tracked.size() >= limit) {
+            return OTHER;
+        }
+        tracked.add(orgId);
+        return orgId;
+    }
+
+    private static boolean isNumeric(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return value.length() <= 19;
+    }
+}
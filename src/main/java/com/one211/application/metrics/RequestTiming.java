@@ -0,0 +1,95 @@
+package com.one211.application.metrics;
+
+import java.util.Locale;
+
+/**
+ * Phase durations of one request, reported in the {@value #HEADER} response header.
+ * The context lives in a thread local that is only set for timed requests, so instrumented code pays
+ * a single thread local read when timing is off. Phases may overlap: {@code user} is a SQL lookup and
+ * is also counted in {@code db}.
+ */
+public final class RequestTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    public enum Phase {
+        JWT("jwt", "JWT parsing"),
+        USER("user", "loadUserByUsername"),
+        BCRYPT("bcrypt", "BCrypt"),
+        DB("db", "SQL"),
+        SERIALIZE("serialize", "Response serialization");
+
+        private final String metric;
+        private final String description;
+
+        Phase(String metric, String description) {
+            this.metric = metric;
+            this.description = description;
+        }
+    }
+
+    private static final ThreadLocal<RequestTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos;
+    private final long[] nanos = new long[Phase.values().length];
+    private final int[] counts = new int[Phase.values().length];
+
+    private RequestTiming(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Starts timing the current request from {@code startNanos}, a {@link System#nanoTime()} reading.
+     */
+    public static RequestTiming begin(long startNanos) {
+        RequestTiming timing = new RequestTiming(startNanos);
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static RequestTiming current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Adds to a phase of the current request; does nothing when the request is not timed.
+     */
+    public static void add(Phase phase, long elapsedNanos) {
+        RequestTiming timing = CURRENT.get();
+        if (timing != null) {
+            timing.record(phase, elapsedNanos);
+        }
+    }
+
+    public void record(Phase phase, long elapsedNanos) {
+        nanos[phase.ordinal()] += elapsedNanos;
+        counts[phase.ordinal()]++;
+    }
+
+    /**
+     * Header value with every phase seen so far and the total time up to now.
+     */
+    public String header() {
+        StringBuilder header = new StringBuilder();
+        for (Phase phase : Phase.values()) {
+            int count = counts[phase.ordinal()];
+            if (count > 0) {
+                header.append(phase.metric).append(";dur=").append(millis(nanos[phase.ordinal()]))
+                        .append(";desc=\"").append(phase.description);
+                if (count > 1) {
+                    header.append(" x").append(count);
+                }
+                header.append("\", ");
+            }
+        }
+        return header.append("total;dur=").append(millis(System.nanoTime() - startNanos)).toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.2f", nanos / 1_000_000.0);
+    }
+}
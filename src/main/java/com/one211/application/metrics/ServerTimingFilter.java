@@ -0,0 +1,43 @@
+package com.one211.application.metrics;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Times a sampled fraction of requests and clears the timing context of every timed request,
+ * including those that {@code JwtAuthenticationFilter} starts timing for admin callers.
+ * JSON bodies carry the header from {@link TimedJsonHttpMessageConverter}; other responses get it here
+ * if they are not yet committed.
+ */
+public class ServerTimingFilter extends OncePerRequestFilter {
+
+    private final double sampleRate;
+
+    public ServerTimingFilter(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            RequestTiming.begin(System.nanoTime());
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestTiming timing = RequestTiming.current();
+            if (timing != null) {
+                if (!response.isCommitted() && !response.containsHeader(RequestTiming.HEADER)) {
+                    response.setHeader(RequestTiming.HEADER, timing.header());
+                }
+                RequestTiming.end();
+            }
+        }
+    }
+}
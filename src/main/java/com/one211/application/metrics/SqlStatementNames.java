@@ -0,0 +1,86 @@
+package com.one211.application.metrics;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Names SQL statements after the constant that holds them, e.g. {@code ClusterService.GET_CLUSTER_QUERY},
+ * so {@code db.statement} timers get a stable, bounded tag instead of the SQL text.
+ * The application's beans are scanned once at startup. SQL built at runtime matches no constant, so the code
+ * building it names it with {@link #named}; anything else is reported as {@value OrgTags#OTHER}.
+ */
+@Component
+public class SqlStatementNames implements SmartInitializingSingleton {
+
+    private static final String APPLICATION_PACKAGE = "com.one211.application";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private final ApplicationContext context;
+    private volatile Map<String, String> names = Map.of();
+
+    public SqlStatementNames(ApplicationContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<String, String> found = new HashMap<>();
+        for (String beanName : context.getBeanDefinitionNames()) {
+            Class<?> type = context.getType(beanName);
+            if (type != null && ClassUtils.getUserClass(type).getName().startsWith(APPLICATION_PACKAGE)) {
+                collect(ClassUtils.getUserClass(type), found);
+            }
+        }
+        names = Map.copyOf(found);
+    }
+
+    public String nameOf(String sql) {
+        String current = CURRENT.get();
+        if (current != null) {
+            return current;
+        }
+        return sql == null ? OrgTags.OTHER : names.getOrDefault(sql, OrgTags.OTHER);
+    }
+
+    /**
+     * Runs {@code statement} with every statement it prepares on this thread named {@code name}.
+     */
+    public static <T> T named(String name, Supplier<T> statement) {
+        String previous = CURRENT.get();
+        CURRENT.set(name);
+        try {
+            return statement.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private static void collect(Class<?> type, Map<String, String> found) {
+        for (Field field : type.getDeclaredFields()) {
+            int modifiers = field.getModifiers();
+            if (field.getType() == String.class && Modifier.isStatic(modifiers) && Modifier.isFinal(modifiers)) {
+                try {
+                    field.setAccessible(true);
+                    if (field.get(null) instanceof String sql) {
+                        found.putIfAbsent(sql, type.getSimpleName() + "." + field.getName());
+                    }
+                } catch (ReflectiveOperationException | RuntimeException e) {
+                    // Not readable: statements using it are reported as "other"
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.one211.application.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records every statement execution as {@value #METRIC}, tagged with the statement's constant name and outcome,
+ * and adds it to the request's {@code db} Server-Timing phase.
+ * Connections and statements are wrapped in JDK proxies; everything but the execute calls goes straight
+ * to the pool's own objects. JdbcTemplate runs all of its calls through private methods, so the data
+ * source is the one place that sees each statement.
+ */
+public class TimedDataSource extends DelegatingDataSource {
+
+    public static final String METRIC = "db.statement";
+
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private final Supplier<MeterRegistry> registry;
+    private final SqlStatementNames names;
+    private final Map<String, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public TimedDataSource(DataSource target, Supplier<MeterRegistry> registry, SqlStatementNames names) {
+        super(target);
+        this.registry = registry;
+        this.names = names;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return wrap(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return wrap(super.getConnection(username, password));
+    }
+
+    private Connection wrap(Connection connection) {
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new ConnectionHandler(connection));
+    }
+
+    private Timer timer(String statement, boolean success) {
+        Timer[] pair = timers.computeIfAbsent(statement, name -> new Timer[]{
+                Timer.builder(METRIC).tag("statement", name).tag("outcome", "success").register(registry.get()),
+                Timer.builder(METRIC).tag("statement", name).tag("outcome", "error").register(registry.get())
+        });
+        return success ? pair[0] : pair[1];
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static Object identity(Object proxy, Method method, Object[] args) {
+        return switch (method.getName()) {
+            case "equals" -> proxy == args[0];
+            case "hashCode" -> System.identityHashCode(proxy);
+            default -> null;
+        };
+    }
+
+    private final class ConnectionHandler implements InvocationHandler {
+
+        private final Connection target;
+
+        private ConnectionHandler(Connection target) {
+            this.target = target;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            Object result = TimedDataSource.invoke(target, method, args);
+            return switch (method.getName()) {
+                case "prepareStatement", "prepareCall", "createStatement" -> {
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                    Class<?> type = result instanceof CallableStatement ? CallableStatement.class
+                            : result instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+                    yield Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type},
+                            new StatementHandler((Statement) result, sql == null ? null : names.nameOf(sql)));
+                }
+                default -> result;
+            };
+        }
+    }
+
+    private final class StatementHandler implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedName;
+
+        private StatementHandler(Statement target, String preparedName) {
+            this.target = target;
+            this.preparedName = preparedName;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object identity = identity(proxy, method, args);
+            if (identity != null) {
+                return identity;
+            }
+            if (!EXECUTE_METHODS.contains(method.getName())) {
+                return TimedDataSource.invoke(target, method, args);
+            }
+            String name = args != null && args.length > 0 && args[0] instanceof String sql ? names.nameOf(sql)
+                    : preparedName != null ? preparedName : OrgTags.OTHER;
+            long start = System.nanoTime();
+            boolean success = false;
+            try {
+                Object result = TimedDataSource.invoke(target, method, args);
+                success = true;
+                return result;
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                timer(name, success).record(elapsed, TimeUnit.NANOSECONDS);
+                RequestTiming.add(RequestTiming.Phase.DB, elapsed);
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+package com.one211.application.model;
+
+import java.time.LocalDateTime;
+
+public record AuditEvent(Long orgId, String actor, String action, String targetType, String targetName, String detail, LocalDateTime occurredAt) {}
@@ -0,0 +1,6 @@
+package com.one211.application.model;
+
+/**
+ * Counters of the audit pipeline. {@code lagMillis} is how long the writer has had unflushed events.
+ */
+public record AuditStats(long published, long written, long dropped, long failed, long pending, long lagMillis) {}
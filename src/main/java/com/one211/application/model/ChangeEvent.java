@@ -0,0 +1,5 @@
+package com.one211.application.model;
+
+import java.time.LocalDateTime;
+
+public record ChangeEvent(String id, Long orgId, String type, String action, String name, String detail, LocalDateTime occurredAt) {}
@@ -1,5 +1,14 @@
-package com.one211.application.model;
-
-import java.time.LocalDateTime;
-
-public record Cluster(Long id, Long orgId, String name, String description, Boolean status, LocalDateTime createdAt) {}
+package com.one211.application.model;
+
+import com.one211.application.jdbc.Column;
+import com.one211.application.jdbc.RowMapped;
+
+import java.time.LocalDateTime;
+
+@RowMapped
+public record Cluster(Long id, Long orgId, String name, String description, @Column("active") Boolean status,
+                      @Column("creation_time") LocalDateTime createdAt, Long version) {
+    public Cluster(Long id, Long orgId, String name, String description, Boolean status, LocalDateTime createdAt) {
+        this(id, orgId, name, description, status, createdAt, null);
+    }
+}
@@ -1,12 +1,12 @@
-package com.one211.application.model;
-
-public record ClusterAssignmentRequest(
-        String sourceType,
-        String sourceName,
-        String name,
-        String action
-) {
-    public ClusterAssignmentRequest(String sourceType, String sourceName) {
-        this(sourceType, sourceName, null, null);
-    }
+package com.one211.application.model;
+
+public record ClusterAssignmentRequest(
+        String sourceType,
+        String sourceName,
+        String name,
+        String action
+) {
+    public ClusterAssignmentRequest(String sourceType, String sourceName) {
+        this(sourceType, sourceName, null, null);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.one211.application.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * Server-side filters for listing an org's clusters. Null fields are not applied; {@code after} is the
+ * cursor returned with the previous page.
+ */
+public record ClusterFilter(Boolean active, String namePrefix, LocalDateTime createdAfter, String sort, String after, int limit) {}
@@ -0,0 +1,5 @@
+package com.one211.application.model;
+
+import java.util.List;
+
+public record ClusterPage(List<Cluster> clusters, String nextCursor) {}
@@ -1,3 +1,6 @@
-package com.one211.application.model;
-
-public record ClusterWithAction (Cluster cluster, String action) {}
+package com.one211.application.model;
+
+import com.one211.application.jdbc.RowMapped;
+
+@RowMapped
+public record ClusterWithAction (Cluster cluster, String action) {}
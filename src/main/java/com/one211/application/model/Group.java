@@ -1,9 +1,17 @@
-package com.one211.application.model;
-
-import java.time.LocalDateTime;
-
-public record Group(Long id, String name, String description, LocalDateTime createdAt) {
-    public static Group withId(Long id, Group original) {
-        return new Group(id, original.name(), original.description(), original.createdAt);
-    }
-}
\ No newline at end of file
+package com.one211.application.model;
+
+import com.one211.application.jdbc.Column;
+import com.one211.application.jdbc.RowMapped;
+
+import java.time.LocalDateTime;
+
+@RowMapped
+public record Group(Long id, String name, String description, @Column("creation_time") LocalDateTime createdAt, Long version) {
+    public Group(Long id, String name, String description, LocalDateTime createdAt) {
+        this(id, name, description, createdAt, null);
+    }
+
+    public static Group withId(Long id, Group original) {
+        return new Group(id, original.name(), original.description(), original.createdAt, 0L);
+    }
+}
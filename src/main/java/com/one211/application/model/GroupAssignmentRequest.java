@@ -1,3 +1,3 @@
-package com.one211.application.model;
-
-public record GroupAssignmentRequest(String name, String action){}
+package com.one211.application.model;
+
+public record GroupAssignmentRequest(String name, String action){}
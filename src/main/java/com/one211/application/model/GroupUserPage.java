@@ -0,0 +1,9 @@
+package com.one211.application.model;
+
+import java.util.List;
+
+/**
+ * One page of a group's user view. {@code total} is only counted for the first page and is null otherwise;
+ * {@code nextCursor} is null on the last page.
+ */
+public record GroupUserPage(List<UserWithStatus> users, Long total, String nextCursor) {}
@@ -1,5 +1,5 @@
-package com.one211.application.model;
-
-import java.util.Date;
-
-public record JwtPayload(Long orgId, String role, String subject, Date expiration) {}
+package com.one211.application.model;
+
+import java.util.Date;
+
+public record JwtPayload(Long orgId, String role, String subject, Date expiration) {}
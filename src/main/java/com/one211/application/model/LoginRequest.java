@@ -1,3 +1,3 @@
-package com.one211.application.model;
-
-public record LoginRequest(String email, String password) {}
+package com.one211.application.model;
+
+public record LoginRequest(String email, String password) {}
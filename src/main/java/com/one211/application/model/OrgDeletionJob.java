@@ -0,0 +1,16 @@
+package com.one211.application.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.one211.application.jdbc.RowMapped;
+
+import java.time.LocalDateTime;
+
+/**
+ * Progress of an organization's deletion. {@code status} is PENDING, RUNNING or DONE; {@code phase} is the
+ * table being emptied and {@code lastError} the most recent failure, which the next attempt retries.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@RowMapped
+public record OrgDeletionJob(Long orgId, String status, String phase, Long rowsDeleted, LocalDateTime requestedAt,
+                             LocalDateTime updatedAt, LocalDateTime completedAt, String lastError) {
+}
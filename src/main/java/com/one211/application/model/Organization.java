@@ -1,4 +1,10 @@
-package com.one211.application.model;
-import java.time.LocalDateTime;
-
-public record Organization (Long id, String name, String description, LocalDateTime createdAt, LocalDateTime updatedAt){}
+package com.one211.application.model;
+import com.one211.application.jdbc.RowMapped;
+import java.time.LocalDateTime;
+
+@RowMapped
+public record Organization (Long id, String name, String description, LocalDateTime createdAt, LocalDateTime updatedAt, Long version){
+    public Organization(Long id, String name, String description, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, description, createdAt, updatedAt, null);
+    }
+}
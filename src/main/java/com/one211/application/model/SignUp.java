@@ -1,5 +1,12 @@
-package com.one211.application.model;
-
-import java.time.LocalDateTime;
-
-public record SignUp(String name, String email, String password, String orgName, String orgDescription, LocalDateTime createdAt, LocalDateTime updatedAt) {}
+package com.one211.application.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record SignUp(String name, String email, String password, String orgName, String orgDescription, LocalDateTime createdAt, LocalDateTime updatedAt) {
+    public SignUp withoutPassword() {
+        return new SignUp(name, email, null, orgName, orgDescription, createdAt, updatedAt);
+    }
+}
@@ -1,4 +1,17 @@
-package com.one211.application.model;
-import java.time.LocalDateTime;
-
-public record User (Long id, String name, String email, String password, String role, String description, LocalDateTime createdAt, LocalDateTime updatedAt) {}
+package com.one211.application.model;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.one211.application.jdbc.RowMapped;
+
+import java.time.LocalDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@RowMapped
+public record User (Long id, String name, String email, String password, String role, String description, LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+    public User(Long id, String name, String email, String password, String role, String description, LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this(id, name, email, password, role, description, createdAt, updatedAt, null);
+    }
+
+    public User withoutPassword() {
+        return new User(id, name, email, null, role, description, createdAt, updatedAt, version);
+    }
+}
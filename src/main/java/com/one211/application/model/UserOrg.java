@@ -1,3 +1,13 @@
-package com.one211.application.model;
-
-public record UserOrg (String name, String email, String password, String role, Long orgId, String orgName) {}
+package com.one211.application.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.one211.application.jdbc.Column;
+import com.one211.application.jdbc.RowMapped;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@RowMapped
+public record UserOrg (@Column("user_name") String name, @Column("user_email") String email, String password, String role, Long orgId, String orgName) {
+    public UserOrg withoutPassword() {
+        return new UserOrg(name, email, null, role, orgId, orgName);
+    }
+}
@@ -1,3 +1,3 @@
-package com.one211.application.model;
-
-public record UserWithStatus (User user, String status) {}
+package com.one211.application.model;
+
+public record UserWithStatus (User user, String status) {}
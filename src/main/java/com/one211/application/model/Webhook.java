@@ -0,0 +1,20 @@
+package com.one211.application.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.one211.application.jdbc.Column;
+import com.one211.application.jdbc.RowMapped;
+
+import java.time.LocalDateTime;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@RowMapped
+public record Webhook(Long id, Long orgId, String url, String secret, Boolean active, Long lastDeliveredId,
+                      Integer failureCount, LocalDateTime nextAttemptAt, String lastError, @Column("creation_time") LocalDateTime createdAt) {
+    public Webhook(String url, String secret) {
+        this(null, null, url, secret, null, null, null, null, null, null);
+    }
+
+    public Webhook withoutSecret() {
+        return new Webhook(id, orgId, url, null, active, lastDeliveredId, failureCount, nextAttemptAt, lastError, createdAt);
+    }
+}
@@ -0,0 +1,42 @@
+package com.one211.application.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+/**
+ * Appends events to {@code outbox_event}. Joining the caller's transaction is mandatory, so an event exists
+ * exactly when the change it describes was committed; {@link WebhookDispatcher} delivers it later.
+ */
+@Component
+public class OutboxWriter {
+
+    public static final String CLUSTER_ASSIGNMENT = "cluster.assignment";
+    public static final String GROUP_MEMBERSHIP = "group.membership";
+    public static final String GROUP_NESTING = "group.nesting";
+
+    private static final String INSERT_OUTBOX_EVENT_QUERY =
+            "INSERT INTO outbox_event (org_id, event_type, payload) VALUES (?, ?, ?)";
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(JdbcTemplate jdbc, ObjectMapper objectMapper) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(Long orgId, String eventType, Map<String, ?> payload) {
+        try {
+            jdbc.update(INSERT_OUTBOX_EVENT_QUERY, orgId, eventType, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + eventType + " event", e);
+        }
+    }
+}
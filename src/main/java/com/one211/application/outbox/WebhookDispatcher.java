@@ -0,0 +1,277 @@
+package com.one211.application.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Delivers {@code outbox_event} rows to the org's webhooks in batches.
+ * Each endpoint has at most one batch in flight, so it sees its events in order; endpoints share a
+ * bounded delivery pool. Failed endpoints back off exponentially without holding up the others.
+ * Delivery is at least once: receivers should de-duplicate on the event id. Each post first passes
+ * {@link WebhookUrlGuard}; an endpoint that now resolves to an internal address fails and backs off like any other.
+ * <p>
+ * An instance claims a webhook by leasing it for {@code outbox.lease-ms}, renewed with every delivered batch, so
+ * instances sharing the database never post to the same endpoint at once.
+ * <p>
+ * Outbox ids are assigned at insert but become visible at commit, so an id cursor could step over a slower
+ * transaction's event. Events are instead read in (transaction id, id) order and only from transactions below the
+ * snapshot's xmin, all of which have finished; any event that becomes visible later sorts after the cursor.
+ */
+@Component
+public class WebhookDispatcher {
+
+    public static final String SIGNATURE_HEADER = "X-Webhook-Signature";
+    public static final String WEBHOOK_ID_HEADER = "X-Webhook-Id";
+
+    private static final Logger log = LoggerFactory.getLogger(WebhookDispatcher.class);
+
+    private static final String FINISHED = "e.txid < pg_snapshot_xmin(pg_current_snapshot())";
+    private static final String CLAIM_WEBHOOKS_QUERY =
+            "UPDATE webhook SET leased_until = now() + ? * INTERVAL '1 millisecond' WHERE id IN (" +
+                    "SELECT w.id FROM webhook w WHERE w.active AND w.next_attempt_at <= ? " +
+                    "AND (w.leased_until IS NULL OR w.leased_until < now()) " +
+                    "AND EXISTS (SELECT 1 FROM outbox_event e WHERE e.org_id = w.org_id " +
+                    "AND (e.txid, e.id) > (w.last_delivered_txid, w.last_delivered_id) AND " + FINISHED + ") " +
+                    "ORDER BY w.next_attempt_at LIMIT ? FOR UPDATE SKIP LOCKED) " +
+                    "RETURNING id, org_id, url, secret, last_delivered_txid, last_delivered_id, failure_count";
+    private static final String GET_OUTBOX_BATCH_QUERY =
+            "SELECT e.id, e.txid, e.event_type, e.payload, e.created_at FROM outbox_event e " +
+                    "WHERE e.org_id = ? AND (e.txid, e.id) > (?::xid8, ?) AND " + FINISHED + " ORDER BY e.txid, e.id LIMIT ?";
+    // Guarded by the cursor the batch was read from: if the lease was lost and another instance moved on, this matches nothing.
+    private static final String MARK_DELIVERED_QUERY =
+            "UPDATE webhook SET last_delivered_txid = ?::xid8, last_delivered_id = ?, failure_count = 0, last_error = NULL, " +
+                    "next_attempt_at = ?, leased_until = now() + ? * INTERVAL '1 millisecond' " +
+                    "WHERE id = ? AND last_delivered_txid = ?::xid8 AND last_delivered_id = ?";
+    private static final String RELEASE_QUERY =
+            "UPDATE webhook SET leased_until = NULL WHERE id = ? AND last_delivered_txid = ?::xid8 AND last_delivered_id = ?";
+    private static final String MARK_FAILED_QUERY =
+            "UPDATE webhook SET failure_count = failure_count + 1, last_error = ?, next_attempt_at = ?, leased_until = NULL " +
+                    "WHERE id = ? AND last_delivered_txid = ?::xid8 AND last_delivered_id = ?";
+    private static final String PURGE_OUTBOX_QUERY = "DELETE FROM outbox_event WHERE created_at < ?";
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    private final JdbcTemplate jdbc;
+    private final ObjectMapper objectMapper;
+    private final WebhookUrlGuard urlGuard;
+    private final HttpClient httpClient;
+    private final long pollIntervalMillis;
+    private final int batchSize;
+    private final int maxConcurrency;
+    private final long backoffInitialMillis;
+    private final long backoffMaxMillis;
+    private final long retentionHours;
+    private final long leaseMillis;
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService scheduler;
+    private ExecutorService deliveryPool;
+
+    public WebhookDispatcher(JdbcTemplate jdbc, ObjectMapper objectMapper, WebhookUrlGuard urlGuard,
+                             @Value("${outbox.poll-interval-ms:500}") long pollIntervalMillis,
+                             @Value("${outbox.batch-size:100}") int batchSize,
+                             @Value("${outbox.max-concurrency:8}") int maxConcurrency,
+                             @Value("${outbox.backoff-initial-ms:1000}") long backoffInitialMillis,
+                             @Value("${outbox.backoff-max-ms:300000}") long backoffMaxMillis,
+                             @Value("${outbox.retention-hours:72}") long retentionHours,
+                             @Value("${outbox.lease-ms:60000}") long leaseMillis) {
+        this.jdbc = jdbc;
+        this.objectMapper = objectMapper;
+        this.urlGuard = urlGuard;
+        // Redirects are not followed, so a receiver cannot bounce a delivery past the url guard.
+        this.httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).followRedirects(HttpClient.Redirect.NEVER).build();
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.batchSize = batchSize;
+        this.maxConcurrency = maxConcurrency;
+        this.backoffInitialMillis = backoffInitialMillis;
+        this.backoffMaxMillis = backoffMaxMillis;
+        this.retentionHours = retentionHours;
+        this.leaseMillis = leaseMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(daemonThreads("webhook-poller"));
+        deliveryPool = Executors.newFixedThreadPool(maxConcurrency, daemonThreads("webhook-delivery"));
+        scheduler.scheduleWithFixedDelay(this::pollSafely, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::purgeSafely, 1, 1, TimeUnit.HOURS);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        scheduler.shutdownNow();
+        deliveryPool.shutdown();
+        deliveryPool.awaitTermination(REQUEST_TIMEOUT.toSeconds(), TimeUnit.SECONDS);
+    }
+
+    /**
+     * Claims as many due endpoints as the delivery pool has free threads and hands them to it.
+     */
+    void poll() {
+        int capacity = maxConcurrency - inFlight.size();
+        if (capacity <= 0) {
+            return;
+        }
+        List<Target> due = jdbc.query(CLAIM_WEBHOOKS_QUERY, (rs, rowNum) -> new Target(
+                rs.getLong("id"), rs.getLong("org_id"), rs.getString("url"), rs.getString("secret"),
+                new Cursor(rs.getString("last_delivered_txid"), rs.getLong("last_delivered_id")), rs.getInt("failure_count")
+        ), leaseMillis, Timestamp.valueOf(LocalDateTime.now()), capacity);
+        for (Target target : due) {
+            if (inFlight.add(target.id())) {
+                deliveryPool.execute(() -> {
+                    try {
+                        deliver(target);
+                    } finally {
+                        inFlight.remove(target.id());
+                    }
+                });
+            }
+        }
+    }
+
+    private void deliver(Target target) {
+        Cursor cursor = target.cursor();
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                List<OutboxEvent> batch = jdbc.query(GET_OUTBOX_BATCH_QUERY, (rs, rowNum) -> new OutboxEvent(
+                        rs.getLong("id"), rs.getString("txid"), rs.getString("event_type"), rs.getString("payload"),
+                        rs.getTimestamp("created_at").toLocalDateTime()
+                ), target.orgId(), cursor.txid(), cursor.id(), batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                int status = post(target, body(target, batch));
+                if (status / 100 != 2) {
+                    markFailed(target, cursor, "HTTP " + status);
+                    return;
+                }
+                Cursor delivered = new Cursor(batch.getLast().txid(), batch.getLast().id());
+                if (jdbc.update(MARK_DELIVERED_QUERY, delivered.txid(), delivered.id(), Timestamp.valueOf(LocalDateTime.now()),
+                        leaseMillis, target.id(), cursor.txid(), cursor.id()) == 0) {
+                    log.warn("Webhook {} was deleted or taken over by another instance, stopping delivery", target.id());
+                    return;
+                }
+                cursor = delivered;
+                if (batch.size() < batchSize) {
+                    break;
+                }
+            }
+            jdbc.update(RELEASE_QUERY, target.id(), cursor.txid(), cursor.id());
+        } catch (IOException | RuntimeException e) {
+            markFailed(target, cursor, e.getClass().getSimpleName() + ": " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int post(Target target, byte[] body) throws IOException, InterruptedException {
+        URI url = URI.create(target.url());
+        urlGuard.check(url);
+        HttpRequest.Builder request = HttpRequest.newBuilder(url)
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .header(WEBHOOK_ID_HEADER, String.valueOf(target.id()))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body));
+        if (target.secret() != null && !target.secret().isEmpty()) {
+            request.header(SIGNATURE_HEADER, "sha256=" + sign(target.secret(), body));
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    private byte[] body(Target target, List<OutboxEvent> batch) throws IOException {
+        ObjectNode root = objectMapper.createObjectNode();
+        root.put("webhookId", target.id());
+        root.put("orgId", target.orgId());
+        ArrayNode events = root.putArray("events");
+        for (OutboxEvent event : batch) {
+            ObjectNode node = events.addObject();
+            node.put("id", event.id());
+            node.put("type", event.type());
+            node.put("occurredAt", event.createdAt().toString());
+            node.set("data", objectMapper.readTree(event.payload()));
+        }
+        return objectMapper.writeValueAsBytes(root);
+    }
+
+    private void markFailed(Target target, Cursor cursor, String error) {
+        long delay = Math.min(backoffMaxMillis, backoffInitialMillis << Math.min(target.failureCount(), 20));
+        delay += ThreadLocalRandom.current().nextLong(delay / 4 + 1);
+        log.warn("Webhook {} delivery failed ({}), retrying in {} ms", target.id(), error, delay);
+        jdbc.update(MARK_FAILED_QUERY, error, Timestamp.valueOf(LocalDateTime.now().plusNanos(delay * 1_000_000)),
+                target.id(), cursor.txid(), cursor.id());
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (RuntimeException e) {
+            log.warn("Webhook poll failed: {}", e.getMessage());
+        }
+    }
+
+    private void purgeSafely() {
+        try {
+            jdbc.update(PURGE_OUTBOX_QUERY, Timestamp.valueOf(LocalDateTime.now().minusHours(retentionHours)));
+        } catch (RuntimeException e) {
+            log.warn("Outbox purge failed: {}", e.getMessage());
+        }
+    }
+
+    private static String sign(String secret, byte[] body) {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+            return HexFormat.of().formatHex(mac.doFinal(body));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 unavailable", e);
+        }
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private record Target(Long id, Long orgId, String url, String secret, Cursor cursor, int failureCount) {}
+
+    /**
+     * Position in an org's outbox: the last delivered event's transaction id, kept as text, and id.
+     */
+    private record Cursor(String txid, long id) {}
+
+    private record OutboxEvent(long id, String txid, String type, String payload, LocalDateTime createdAt) {}
+}
@@ -0,0 +1,64 @@
+package com.one211.application.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.Inet6Address;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.UnknownHostException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps webhooks from reaching this service's own network: a url whose host resolves to a loopback, link-local,
+ * site-local, unique-local, wildcard or multicast address is refused. Checked when a webhook is registered and
+ * again before every delivery, since the host's DNS records may have changed in between.
+ * <p>
+ * Hosts listed in {@code outbox.allowed-hosts} are exempt, for receivers deliberately run inside the network.
+ */
+@Component
+public class WebhookUrlGuard {
+
+    private final Set<String> allowedHosts;
+
+    public WebhookUrlGuard(@Value("${outbox.allowed-hosts:}") List<String> allowedHosts) {
+        this.allowedHosts = allowedHosts.stream()
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * @throws IllegalArgumentException when the host does not resolve, or any of its addresses is internal
+     */
+    public void check(URI url) {
+        String host = url.getHost();
+        if (host == null) {
+            throw new IllegalArgumentException("Webhook url has no host: " + url);
+        }
+        if (allowedHosts.contains(host.toLowerCase(Locale.ROOT))) {
+            return;
+        }
+        InetAddress[] addresses;
+        try {
+            addresses = InetAddress.getAllByName(host);
+        } catch (UnknownHostException e) {
+            throw new IllegalArgumentException("Webhook host does not resolve: " + host, e);
+        }
+        for (InetAddress address : addresses) {
+            if (isInternal(address)) {
+                throw new IllegalArgumentException("Webhook host " + host + " resolves to internal address " + address.getHostAddress());
+            }
+        }
+    }
+
+    static boolean isInternal(InetAddress address) {
+        return address.isLoopbackAddress() || address.isLinkLocalAddress() || address.isSiteLocalAddress()
+                || address.isAnyLocalAddress() || address.isMulticastAddress()
+                // fc00::/7; isSiteLocalAddress only covers the deprecated fec0::/10
+                || address instanceof Inet6Address && (address.getAddress()[0] & 0xfe) == 0xfc;
+    }
+}
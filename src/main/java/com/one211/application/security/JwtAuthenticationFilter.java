@@ -1,89 +1,142 @@
-package com.one211.application.security;
-
-import io.jsonwebtoken.*;
-import jakarta.servlet.FilterChain;
-import jakarta.servlet.ServletException;
-import jakarta.servlet.http.HttpServletRequest;
-import jakarta.servlet.http.HttpServletResponse;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
-import org.springframework.stereotype.Component;
-import org.springframework.web.filter.OncePerRequestFilter;
-
-import java.io.IOException;
-import java.util.Arrays;
-
-@Component
-public class JwtAuthenticationFilter extends OncePerRequestFilter {
-    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
-
-    private final JwtHelper jwtHelper;
-    private final UserDetailsService userDetailsService;
-
-    public JwtAuthenticationFilter(JwtHelper jwtHelper, UserDetailsService userDetailsService) {
-        this.jwtHelper = jwtHelper;
-        this.userDetailsService = userDetailsService;
-    }
-
-    @Override
-    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
-        final String url = request.getRequestURI();
-        final String token = resolveToken(request);
-
-        if (url.startsWith("/api/org/")) {
-            String[] orgParts = url.split("/");
-            try {
-                int orgIndex = Arrays.asList(orgParts).indexOf("org");
-                if (orgIndex != -1 && orgParts.length > orgIndex + 1) {
-                    Long pathOrgId = Long.parseLong(orgParts[orgIndex + 1]);
-                    Long tokenOrgId = jwtHelper.getOrgId(token);
-
-                    if (!pathOrgId.equals(tokenOrgId)) {
-                        response.sendError(HttpServletResponse.SC_FORBIDDEN, "Org ID mismatch");
-                        return;
-                    }
-                }
-            } catch (NumberFormatException e) {
-                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid org ID in URL");
-                return;
-            }
-        }
-
-        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                String username = jwtHelper.getUsernameFromToken(token);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-                if (jwtHelper.validateToken(token, userDetails)) {
-                    var authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                }
-            } catch (ExpiredJwtException e) {
-                log.warn("JWT expired: {}", e.getMessage());
-            } catch (MalformedJwtException e) {
-                log.warn("JWT malformed: {}", e.getMessage());
-            } catch (JwtException | IllegalArgumentException e) {
-                log.warn("JWT processing failed: {}", e.getMessage());
-            } catch (Exception e) {
-                log.error("Unexpected error while processing JWT", e);
-            }
-        }
-
-        filterChain.doFilter(request, response);
-    }
-
-    private String resolveToken(HttpServletRequest request) {
-        String authHeader = request.getHeader("Authorization");
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            return authHeader.substring(7);
-        }
-
-        return null;
-    }
-}
+package com.one211.application.security;
+
+import com.one211.application.metrics.RequestTiming;
+import com.one211.application.tenant.TenantDirectory;
+import io.jsonwebtoken.*;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+@Component
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+    private static final Logger log = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
+    private final JwtHelper jwtHelper;
+    private final UserDetailsService userDetailsService;
+    private final TenantDirectory tenantDirectory;
+    private final boolean timeAdmins;
+
+    public JwtAuthenticationFilter(JwtHelper jwtHelper, UserDetailsService userDetailsService, TenantDirectory tenantDirectory) {
+        this(jwtHelper, userDetailsService, tenantDirectory, false);
+    }
+
+    /**
+     * @param tenantDirectory tokens of orgs it no longer holds are refused, so a deleted org's data cannot be read or
+     *                        written while its rows are being removed
+     * @param timeAdmins      whether requests from admins get a Server-Timing header, timed from this filter on
+     */
+    public JwtAuthenticationFilter(JwtHelper jwtHelper, UserDetailsService userDetailsService, TenantDirectory tenantDirectory,
+                                   boolean timeAdmins) {
+        this.jwtHelper = jwtHelper;
+        this.userDetailsService = userDetailsService;
+        this.tenantDirectory = tenantDirectory;
+        this.timeAdmins = timeAdmins;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        final String url = request.getRequestURI();
+        final String token = resolveToken(request);
+        RequestTiming timing = RequestTiming.current();
+        final boolean timed = timing != null || (timeAdmins && token != null);
+        final long start = timed ? System.nanoTime() : 0;
+        long userNanos = 0;
+        boolean orgDeleted = false;
+
+        if (url.startsWith("/api/org/")) {
+            String[] orgParts = url.split("/");
+            try {
+                int orgIndex = Arrays.asList(orgParts).indexOf("org");
+                if (orgIndex != -1 && orgParts.length > orgIndex + 1) {
+                    Long pathOrgId = Long.parseLong(orgParts[orgIndex + 1]);
+                    Long tokenOrgId = jwtHelper.getOrgId(token);
+
+                    if (!pathOrgId.equals(tokenOrgId)) {
+                        response.sendError(HttpServletResponse.SC_FORBIDDEN, "Org ID mismatch");
+                        return;
+                    }
+                }
+            } catch (NumberFormatException e) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid org ID in URL");
+                return;
+            }
+        }
+
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            try {
+                String username = jwtHelper.getUsernameFromToken(token);
+                long userStart = timed ? System.nanoTime() : 0;
+                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+                userNanos = timed ? System.nanoTime() - userStart : 0;
+
+                boolean valid = jwtHelper.validateToken(token, userDetails);
+                orgDeleted = valid && isDeletedOrg(jwtHelper.getOrgId(token), url);
+                if (valid && !orgDeleted) {
+                    var authToken = new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    if (timing == null && timed && isAdmin(userDetails)) {
+                        timing = RequestTiming.begin(start);
+                    }
+                }
+            } catch (ExpiredJwtException e) {
+                log.warn("JWT expired: {}", e.getMessage());
+            } catch (MalformedJwtException e) {
+                log.warn("JWT malformed: {}", e.getMessage());
+            } catch (JwtException | IllegalArgumentException e) {
+                log.warn("JWT processing failed: {}", e.getMessage());
+            } catch (Exception e) {
+                log.error("Unexpected error while processing JWT", e);
+            }
+        }
+
+        if (orgDeleted) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Organization has been deleted");
+            return;
+        }
+
+        if (timing != null && token != null) {
+            timing.record(RequestTiming.Phase.JWT, System.nanoTime() - start - userNanos);
+            if (userNanos > 0) {
+                timing.record(RequestTiming.Phase.USER, userNanos);
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Whether the token's org has been deleted. Its deletion status stays readable until the job is done. The
+     * tenant directory holds deleted orgs too, so this is answered from memory rather than per request from the
+     * database.
+     */
+    private boolean isDeletedOrg(Long orgId, String url) {
+        return orgId != null && tenantDirectory.getOrg(orgId) == null && !url.equals("/api/org/" + orgId + "/deletion");
+    }
+
+    private static boolean isAdmin(UserDetails userDetails) {
+        return userDetails.getAuthorities().stream().anyMatch(authority -> "ROLE_ADMIN".equals(authority.getAuthority()));
+    }
+
+    private String resolveToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        if (authHeader != null && authHeader.startsWith("Bearer ")) {
+            return authHeader.substring(7);
+        }
+
+        return null;
+    }
+}
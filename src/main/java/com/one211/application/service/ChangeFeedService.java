@@ -0,0 +1,314 @@
+package com.one211.application.service;
+
+import com.one211.application.model.ChangeEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Per-org stream of cluster, group, membership and assignment changes.
+ * All channel state is owned by one dispatcher thread, which only queues events: each subscriber has a bounded
+ * queue drained by a virtual thread of its own, so a client that stops reading stalls nobody else. One that falls
+ * {@code events.subscriber-buffer} events behind is sent a {@value #RESET_EVENT} and disconnected.
+ * Orgs without subscribers or events for {@code events.idle-ms} are forgotten, replay buffer included.
+ */
+@Service
+public class ChangeFeedService {
+
+    public static final String RESET_EVENT = "reset";
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final ScheduledExecutorService dispatcher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "change-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("change-feed-send-", 0).factory());
+    private final Map<Long, Channel> channels = new HashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int replaySize;
+    private final long timeoutMillis;
+    private final int subscriberBuffer;
+    private final long idleMillis;
+    private long sequence;
+
+    public ChangeFeedService(@Value("${events.replay-size:256}") int replaySize,
+                             @Value("${events.timeout-ms:1800000}") long timeoutMillis,
+                             @Value("${events.heartbeat-ms:25000}") long heartbeatMillis,
+                             @Value("${events.subscriber-buffer:1024}") int subscriberBuffer,
+                             @Value("${events.idle-ms:3600000}") long idleMillis) {
+        this.replaySize = replaySize;
+        this.timeoutMillis = timeoutMillis;
+        // A resuming client is sent the whole replay buffer at once.
+        this.subscriberBuffer = Math.max(subscriberBuffer, replaySize + 1);
+        this.idleMillis = idleMillis;
+        dispatcher.scheduleWithFixedDelay(this::heartbeat, heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        onDispatcher(() -> channels.values().forEach(channel -> channel.subscribers.forEach(Subscriber::close)));
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(5, TimeUnit.SECONDS);
+        senders.shutdown();
+        if (!senders.awaitTermination(5, TimeUnit.SECONDS)) {
+            senders.shutdownNow();
+        }
+    }
+
+    /**
+     * Must be called after the write it describes; inside a transaction the event is held back until commit.
+     */
+    public void publish(Long orgId, ChangeVersionService.Collection type, String action, String name, String detail) {
+        LocalDateTime now = LocalDateTime.now();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch(orgId, type, action, name, detail, now);
+                }
+            });
+        } else {
+            dispatch(orgId, type, action, name, detail, now);
+        }
+    }
+
+    private void dispatch(Long orgId, ChangeVersionService.Collection type, String action, String name, String detail, LocalDateTime now) {
+        onDispatcher(() -> {
+            ChangeEvent event = new ChangeEvent(epoch + "-" + (++sequence), orgId, type.name().toLowerCase(), action, name, detail, now);
+            Channel channel = channel(orgId);
+            if (channel.replay.size() == replaySize) {
+                channel.droppedThrough = parseSequence(channel.replay.removeFirst().id());
+            }
+            channel.replay.addLast(event);
+            channel.touchedAt = System.currentTimeMillis();
+            SseEmitter.SseEventBuilder message = message(event);
+            Iterator<Subscriber> iterator = channel.subscribers.iterator();
+            while (iterator.hasNext()) {
+                if (!iterator.next().offer(message)) {
+                    iterator.remove();
+                    subscriberCount.decrementAndGet();
+                }
+            }
+        });
+    }
+
+    /**
+     * Opens a stream for {@code orgId}. Events after {@code lastEventId} are replayed first; when they are
+     * no longer buffered a {@value #RESET_EVENT} event tells the client to reload its lists.
+     */
+    public SseEmitter subscribe(Long orgId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(emitter);
+        Runnable remove = () -> onDispatcher(() -> unsubscribe(orgId, subscriber));
+        emitter.onCompletion(remove);
+        emitter.onTimeout(remove);
+        emitter.onError(error -> remove.run());
+        onDispatcher(() -> {
+            Channel channel = channel(orgId);
+            if (replay(subscriber, channel, lastEventId)) {
+                channel.subscribers.add(subscriber);
+                subscriberCount.incrementAndGet();
+            }
+        });
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscriberCount.get();
+    }
+
+    private Channel channel(Long orgId) {
+        return channels.computeIfAbsent(orgId, id -> new Channel(sequence));
+    }
+
+    private boolean replay(Subscriber subscriber, Channel channel, String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return true;
+        }
+        long after = parseSequence(lastEventId);
+        if (after < channel.droppedThrough) {
+            return subscriber.offer(resetMessage());
+        }
+        for (ChangeEvent event : channel.replay) {
+            if (parseSequence(event.id()) > after && !subscriber.offer(message(event))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns -1 for ids from another process lifetime, whose sequence means nothing here.
+     */
+    private long parseSequence(String eventId) {
+        int dash = eventId.lastIndexOf('-');
+        if (dash < 0 || !eventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(eventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private void unsubscribe(Long orgId, Subscriber subscriber) {
+        Channel channel = channels.get(orgId);
+        if (channel != null && channel.subscribers.remove(subscriber)) {
+            subscriberCount.decrementAndGet();
+        }
+    }
+
+    private void heartbeat() {
+        SseEmitter.SseEventBuilder keepalive = SseEmitter.event().comment("keepalive");
+        long now = System.currentTimeMillis();
+        Iterator<Channel> channelIterator = channels.values().iterator();
+        while (channelIterator.hasNext()) {
+            Channel channel = channelIterator.next();
+            Iterator<Subscriber> iterator = channel.subscribers.iterator();
+            while (iterator.hasNext()) {
+                if (!iterator.next().offer(keepalive)) {
+                    iterator.remove();
+                    subscriberCount.decrementAndGet();
+                }
+            }
+            if (channel.subscribers.isEmpty() && now - channel.touchedAt >= idleMillis) {
+                channelIterator.remove();
+            }
+        }
+    }
+
+    /**
+     * Runs {@code task} on the dispatcher; after shutdown there is nothing left to update, so it is skipped.
+     */
+    private void onDispatcher(Runnable task) {
+        try {
+            dispatcher.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("Change feed is shut down, skipping update");
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder message(ChangeEvent event) {
+        return SseEmitter.event().id(event.id()).name(event.type()).data(event, MediaType.APPLICATION_JSON);
+    }
+
+    private static SseEmitter.SseEventBuilder resetMessage() {
+        return SseEmitter.event().name(RESET_EVENT).data("{}");
+    }
+
+    private static final class Channel {
+        private final ArrayDeque<ChangeEvent> replay = new ArrayDeque<>();
+        private final List<Subscriber> subscribers = new ArrayList<>();
+        // Events of this org up to this sequence may be gone: rotated out of the replay buffer, or evicted with an
+        // earlier channel. A client resuming from before it must reload.
+        private long droppedThrough;
+        private long touchedAt = System.currentTimeMillis();
+
+        Channel(long droppedThrough) {
+            this.droppedThrough = droppedThrough;
+        }
+    }
+
+    /**
+     * One stream's outgoing queue. Only this subscriber's sender ever blocks on its socket.
+     */
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final ArrayDeque<SseEmitter.SseEventBuilder> pending = new ArrayDeque<>();
+        private boolean sending;
+        private boolean closing;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        /**
+         * @return false once the subscriber is closing; it was too far behind or is gone
+         */
+        synchronized boolean offer(SseEmitter.SseEventBuilder message) {
+            if (closing) {
+                return false;
+            }
+            if (pending.size() >= subscriberBuffer) {
+                log.debug("Change feed subscriber fell {} events behind, resetting it", pending.size());
+                pending.clear();
+                pending.add(resetMessage());
+                closing = true;
+                startSending();
+                return false;
+            }
+            pending.add(message);
+            startSending();
+            return true;
+        }
+
+        synchronized void close() {
+            closing = true;
+            startSending();
+        }
+
+        private void startSending() {
+            if (!sending) {
+                sending = true;
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    sending = false;
+                }
+            }
+        }
+
+        private void drain() {
+            while (true) {
+                SseEmitter.SseEventBuilder next;
+                synchronized (this) {
+                    next = pending.poll();
+                    if (next == null) {
+                        sending = false;
+                        if (closing) {
+                            emitter.complete();
+                        }
+                        return;
+                    }
+                }
+                try {
+                    emitter.send(next);
+                } catch (IOException | IllegalStateException e) {
+                    log.debug("Dropping change feed subscriber: {}", e.getMessage());
+                    synchronized (this) {
+                        closing = true;
+                        pending.clear();
+                        sending = false;
+                    }
+                    emitter.completeWithError(e);
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.one211.application.service;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+@Service
+public class ChangeVersionService {
+
+    public enum Collection { CLUSTERS, GROUPS, MEMBERSHIPS, ASSIGNMENTS }
+
+    private static final String BUMP_VERSION_QUERY =
+            "INSERT INTO org_change_version (org_id, collection, version) VALUES (?, ?, 1) " +
+                    "ON CONFLICT (org_id, collection) DO UPDATE SET version = org_change_version.version + 1";
+    private static final String GET_VERSION_QUERY =
+            "SELECT version FROM org_change_version WHERE org_id = ? AND collection = ?";
+
+    private final JdbcTemplate jdbc;
+
+    public ChangeVersionService(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    /**
+     * Must be called after the write it describes, so a reader can never pair a new version with old data.
+     */
+    public void bump(Long orgId, Collection collection) {
+        jdbc.update(BUMP_VERSION_QUERY, orgId, collection.name());
+    }
+
+    public long currentVersion(Long orgId, Collection collection) {
+        List<Long> versions = jdbc.query(GET_VERSION_QUERY, (rs, rowNum) -> rs.getLong("version"), orgId, collection.name());
+        return versions.isEmpty() ? 0L : versions.getFirst();
+    }
+
+    /**
+     * Strong ETag for a collection; read it before the collection itself.
+     */
+    public String etag(Long orgId, Collection collection) {
+        return "\"" + collection.name().toLowerCase() + "-" + orgId + "-" + currentVersion(orgId, collection) + "\"";
+    }
+}
@@ -1,119 +1,270 @@
-package com.one211.application.service;
-
-import com.one211.application.model.Cluster;
-import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
-import org.springframework.jdbc.support.KeyHolder;
-import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.sql.*;
-import java.time.LocalDateTime;
-import java.util.List;
-
-@Service
-public class ClusterService {
-
-    private static final String GET_CLUSTER_QUERY = "SELECT * FROM cluster WHERE org_id = ? AND name = ?";
-    private static final String INSERT_CLUSTER_QUERY = "INSERT INTO cluster (org_id, name, description, active, creation_time) VALUES (?, ?, ?, ?, ?)";
-    private static final String UPDATE_CLUSTER_QUERY = "UPDATE cluster SET name = ?, description = ?, active = ? WHERE name = ? AND org_id = ?";
-    private static final String DELETE_CLUSTER_BY_NAME = "DELETE FROM cluster WHERE name = ? AND org_id = ?";
-    private static final String GET_ALL_CLUSTERS_QUERY = "SELECT * FROM cluster WHERE org_id = ?";
-    private final JdbcTemplate jdbc;
-
-    public ClusterService(JdbcTemplate jdbc) {
-        this.jdbc = jdbc;
-    }
-
-    public Cluster addCluster(Long orgId, Cluster cluster) {
-        LocalDateTime now = LocalDateTime.now();
-        Timestamp creationTimestamp = Timestamp.valueOf(now);
-        KeyHolder keyHolder = new GeneratedKeyHolder();
-
-        try {
-            jdbc.update(connection -> {
-                PreparedStatement ps = connection.prepareStatement(
-                        INSERT_CLUSTER_QUERY,
-                        Statement.RETURN_GENERATED_KEYS
-                );
-                ps.setLong(1, orgId);
-                ps.setString(2, cluster.name());
-                ps.setString(3, cluster.description());
-                ps.setBoolean(4, cluster.status());
-                ps.setTimestamp(5, creationTimestamp);
-                return ps;
-            }, keyHolder);
-        } catch (DataIntegrityViolationException e) {
-            throw new IllegalArgumentException(
-                    "Cluster with name '" + cluster.name() + "' already exists for this organization."
-            );
-        }
-
-        Long generatedId = extractGeneratedId(keyHolder);
-        return new Cluster(generatedId, orgId, cluster.name(), cluster.description(), cluster.status(), now);
-    }
-
-    private Long extractGeneratedId(KeyHolder keyHolder) {
-        if (keyHolder.getKeys() != null && keyHolder.getKeys().containsKey("id")) {
-            Object id = keyHolder.getKeys().get("id");
-            if (id instanceof Number number) {
-                return number.longValue();
-            }
-        }
-
-        Number key = keyHolder.getKey();
-        if (key != null) {
-            return key.longValue();
-        }
-        throw new IllegalStateException("Failed to retrieve generated cluster ID from database");
-    }
-
-    public Cluster getClusterByName(Long orgId, String name) {
-        try {
-            return jdbc.queryForObject(GET_CLUSTER_QUERY, new Object[]{orgId, name}, (rs, rowNum) -> mapRow(rs));
-        } catch (EmptyResultDataAccessException e) {
-            return null;
-        }
-    }
-
-    public List<Cluster> getAllClusters(Long orgId) {
-        return jdbc.query(GET_ALL_CLUSTERS_QUERY, new Object[]{orgId}, (rs, rowNum) -> mapRow(rs));
-    }
-
-    @Transactional
-    public Cluster updateCluster(Long orgId, String clusterName, Cluster updatedInput) {
-        Cluster existing = getClusterByName(orgId, clusterName);
-        if (existing == null) {
-            throw new IllegalArgumentException("Cluster does not exist");
-        }
-
-        Cluster updated = new Cluster(
-                updatedInput.id(), orgId,
-                updatedInput.name() != null ? updatedInput.name() : existing.name(),
-                updatedInput.description() != null ? updatedInput.description() : existing.description(),
-                updatedInput.status() != null ? updatedInput.status() : existing.status(),
-                existing.createdAt()
-        );
-
-        int rows = jdbc.update(UPDATE_CLUSTER_QUERY, updated.name(), updated.description(), updated.status(), clusterName, orgId);
-        return rows > 0 ? getClusterByName(updated.orgId(), updated.name()) : null;
-    }
-
-    public boolean deleteCluster(Long orgId, String clusterName) {
-        int result = jdbc.update(DELETE_CLUSTER_BY_NAME, clusterName, orgId);
-        return result != 0;
-    }
-
-    private Cluster mapRow(ResultSet rs) throws SQLException {
-        return new Cluster(
-                rs.getLong("id"),
-                rs.getLong("org_id"),
-                rs.getString("name"),
-                rs.getString("description"),
-                rs.getBoolean("active"),
-                rs.getTimestamp("creation_time").toLocalDateTime()
-        );
-    }
-}
+package com.one211.application.service;
+
+import com.one211.application.audit.AuditLog;
+import com.one211.application.metrics.SqlStatementNames;
+import com.one211.application.model.Cluster;
+import com.one211.application.model.ClusterFilter;
+import com.one211.application.model.ClusterPage;
+import com.one211.application.model.ClusterRowMapper;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+@Service
+public class ClusterService {
+
+    private static final String GET_CLUSTER_QUERY = "SELECT * FROM cluster WHERE org_id = ? AND name = ?";
+    private static final String INSERT_CLUSTER_QUERY = "INSERT INTO cluster (org_id, name, description, active, creation_time) VALUES (?, ?, ?, ?, ?)";
+    // Null fields keep their current value, so the update needs no prior read; a null expected version skips the check.
+    private static final String UPDATE_CLUSTER_QUERY =
+            "UPDATE cluster SET name = COALESCE(?, name), description = COALESCE(?, description), active = COALESCE(?, active), version = version + 1 " +
+                    "WHERE name = ? AND org_id = ? AND (?::bigint IS NULL OR version = ?) RETURNING *";
+    private static final String DELETE_CLUSTER_BY_NAME = "DELETE FROM cluster WHERE name = ? AND org_id = ?";
+    private static final String GET_ALL_CLUSTERS_QUERY = "SELECT * FROM cluster WHERE org_id = ?";
+    private static final String GET_CLUSTER_PAGE_QUERY = "SELECT * FROM cluster WHERE org_id = ? %sORDER BY %s LIMIT ?";
+    private static final int DEFAULT_CLUSTER_PAGE = 100;
+    private static final int MAX_CLUSTER_PAGE = 500;
+
+    public enum Sort {
+        NAME("name", "name", false),
+        NAME_DESC("-name", "name DESC", true),
+        CREATED_AT("createdAt", "creation_time, id", false),
+        CREATED_AT_DESC("-createdAt", "creation_time DESC, id DESC", true);
+
+        private final String param;
+        private final String orderBy;
+        private final boolean descending;
+
+        Sort(String param, String orderBy, boolean descending) {
+            this.param = param;
+            this.orderBy = orderBy;
+            this.descending = descending;
+        }
+
+        public static Sort parse(String value) {
+            if (value == null || value.isBlank()) {
+                return NAME;
+            }
+            for (Sort sort : values()) {
+                if (sort.param.equalsIgnoreCase(value)) {
+                    return sort;
+                }
+            }
+            throw new IllegalArgumentException(value + " is not a valid cluster sort");
+        }
+
+        private boolean byName() {
+            return this == NAME || this == NAME_DESC;
+        }
+    }
+
+    private final JdbcTemplate jdbc;
+    private final ChangeVersionService changeVersionService;
+    private final ChangeFeedService changeFeedService;
+    private final AuditLog auditLog;
+
+    public ClusterService(JdbcTemplate jdbc, ChangeVersionService changeVersionService,
+                          ChangeFeedService changeFeedService, AuditLog auditLog) {
+        this.jdbc = jdbc;
+        this.changeVersionService = changeVersionService;
+        this.changeFeedService = changeFeedService;
+        this.auditLog = auditLog;
+    }
+
+    @Transactional
+    public Cluster addCluster(Long orgId, Cluster cluster) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp creationTimestamp = Timestamp.valueOf(now);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        try {
+            jdbc.update(connection -> {
+                PreparedStatement ps = connection.prepareStatement(
+                        INSERT_CLUSTER_QUERY,
+                        Statement.RETURN_GENERATED_KEYS
+                );
+                ps.setLong(1, orgId);
+                ps.setString(2, cluster.name());
+                ps.setString(3, cluster.description());
+                ps.setBoolean(4, cluster.status());
+                ps.setTimestamp(5, creationTimestamp);
+                return ps;
+            }, keyHolder);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException(
+                    "Cluster with name '" + cluster.name() + "' already exists for this organization."
+            );
+        }
+
+        Long generatedId = extractGeneratedId(keyHolder);
+        changeVersionService.bump(orgId, ChangeVersionService.Collection.CLUSTERS);
+        changeFeedService.publish(orgId, ChangeVersionService.Collection.CLUSTERS, "create", cluster.name(), null);
+        auditLog.publish(orgId, "cluster.create", "CLUSTER", cluster.name(), null);
+        return new Cluster(generatedId, orgId, cluster.name(), cluster.description(), cluster.status(), now, 0L);
+    }
+
+    private Long extractGeneratedId(KeyHolder keyHolder) {
+        if (keyHolder.getKeys() != null && keyHolder.getKeys().containsKey("id")) {
+            Object id = keyHolder.getKeys().get("id");
+            if (id instanceof Number number) {
+                return number.longValue();
+            }
+        }
+
+        Number key = keyHolder.getKey();
+        if (key != null) {
+            return key.longValue();
+        }
+        throw new IllegalStateException("Failed to retrieve generated cluster ID from database");
+    }
+
+    public Cluster getClusterByName(Long orgId, String name) {
+        try {
+            return jdbc.queryForObject(GET_CLUSTER_QUERY, new Object[]{orgId, name}, new ClusterRowMapper());
+        } catch (EmptyResultDataAccessException e) {
+            return null;
+        }
+    }
+
+    public List<Cluster> getAllClusters(Long orgId) {
+        return jdbc.query(GET_ALL_CLUSTERS_QUERY, new Object[]{orgId}, new ClusterRowMapper());
+    }
+
+    /**
+     * Filtered, sorted slice of the org's clusters using keyset pagination on the sort key.
+     */
+    public ClusterPage getClusterPage(Long orgId, ClusterFilter filter) {
+        Sort sort = Sort.parse(filter.sort());
+        int limit = filter.limit() > 0 ? Math.min(filter.limit(), MAX_CLUSTER_PAGE) : DEFAULT_CLUSTER_PAGE;
+
+        StringBuilder conditions = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        args.add(orgId);
+        if (filter.active() != null) {
+            conditions.append("AND active = ? ");
+            args.add(filter.active());
+        }
+        if (filter.namePrefix() != null && !filter.namePrefix().isEmpty()) {
+            conditions.append("AND name LIKE ? ").append(LikePatterns.ESCAPE).append(" ");
+            args.add(LikePatterns.prefix(filter.namePrefix()));
+        }
+        if (filter.createdAfter() != null) {
+            conditions.append("AND creation_time > ? ");
+            args.add(Timestamp.valueOf(filter.createdAfter()));
+        }
+        if (filter.after() != null && !filter.after().isBlank()) {
+            appendCursorCondition(sort, filter.after(), conditions, args);
+        }
+        args.add(limit + 1);
+
+        String sql = GET_CLUSTER_PAGE_QUERY.formatted(conditions, sort.orderBy);
+        List<Cluster> clusters = SqlStatementNames.named("ClusterService.GET_CLUSTER_PAGE_QUERY",
+                () -> jdbc.query(sql, new ClusterRowMapper(), args.toArray()));
+        if (clusters.size() <= limit) {
+            return new ClusterPage(clusters, null);
+        }
+        clusters = clusters.subList(0, limit);
+        return new ClusterPage(clusters, encodeCursor(sort, clusters.getLast()));
+    }
+
+    /**
+     * Throws the IllegalArgumentException {@link #getClusterPage} would for an unknown sort or a malformed cursor,
+     * without reading the database.
+     */
+    public void validateClusterFilter(ClusterFilter filter) {
+        Sort sort = Sort.parse(filter.sort());
+        if (filter.after() != null && !filter.after().isBlank()) {
+            appendCursorCondition(sort, filter.after(), new StringBuilder(), new ArrayList<>());
+        }
+    }
+
+    private void appendCursorCondition(Sort sort, String cursor, StringBuilder conditions, List<Object> args) {
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor", e);
+        }
+        String prefix = sort.param + "|";
+        if (!decoded.startsWith(prefix)) {
+            throw new IllegalArgumentException("Cursor does not match sort " + sort.param);
+        }
+        String value = decoded.substring(prefix.length());
+        String comparison = sort.descending ? "<" : ">";
+        if (sort.byName()) {
+            conditions.append("AND name ").append(comparison).append(" ? ");
+            args.add(value);
+        } else {
+            int separator = value.lastIndexOf('|');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+            conditions.append("AND (creation_time, id) ").append(comparison).append(" (?, ?) ");
+            try {
+                args.add(Timestamp.valueOf(LocalDateTime.parse(value.substring(0, separator))));
+                args.add(Long.parseLong(value.substring(separator + 1)));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Invalid cursor", e);
+            }
+        }
+    }
+
+    private String encodeCursor(Sort sort, Cluster last) {
+        String value = sort.byName() ? last.name() : last.createdAt() + "|" + last.id();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((sort.param + "|" + value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Transactional
+    public Cluster updateCluster(Long orgId, String clusterName, Cluster updatedInput) {
+        return updateCluster(orgId, clusterName, updatedInput, null);
+    }
+
+    /**
+     * Applies the update only if the row is still at {@code expectedVersion}; null updates unconditionally.
+     */
+    @Transactional
+    public Cluster updateCluster(Long orgId, String clusterName, Cluster updatedInput, Long expectedVersion) {
+        Cluster updated = jdbc.query(UPDATE_CLUSTER_QUERY, new ClusterRowMapper(),
+                        updatedInput.name(), updatedInput.description(), updatedInput.status(), clusterName, orgId,
+                        expectedVersion, expectedVersion)
+                .stream().findFirst().orElse(null);
+        if (updated == null) {
+            if (expectedVersion != null && getClusterByName(orgId, clusterName) != null) {
+                throw new VersionConflictException("Cluster was modified concurrently");
+            }
+            throw new IllegalArgumentException("Cluster does not exist");
+        }
+        changeVersionService.bump(orgId, ChangeVersionService.Collection.CLUSTERS);
+        changeFeedService.publish(orgId, ChangeVersionService.Collection.CLUSTERS, "update", updated.name(),
+                clusterName.equals(updated.name()) ? null : clusterName);
+        auditLog.publish(orgId, "cluster.update", "CLUSTER", clusterName,
+                clusterName.equals(updated.name()) ? null : "renamed to " + updated.name());
+        return updated;
+    }
+
+    @Transactional
+    public boolean deleteCluster(Long orgId, String clusterName) {
+        int result = jdbc.update(DELETE_CLUSTER_BY_NAME, clusterName, orgId);
+        if (result == 0) {
+            return false;
+        }
+        // Assignments cascade with the cluster.
+        changeVersionService.bump(orgId, ChangeVersionService.Collection.CLUSTERS);
+        changeVersionService.bump(orgId, ChangeVersionService.Collection.ASSIGNMENTS);
+        changeFeedService.publish(orgId, ChangeVersionService.Collection.CLUSTERS, "delete", clusterName, null);
+        auditLog.publish(orgId, "cluster.delete", "CLUSTER", clusterName, null);
+        return true;
+    }
+}
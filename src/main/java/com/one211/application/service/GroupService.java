@@ -1,144 +1,386 @@
-package com.one211.application.service;
-
-import com.one211.application.model.Group;
-import com.one211.application.model.GroupAssignmentRequest;
-import com.one211.application.model.User;
-import com.one211.application.model.UserWithStatus;
-import org.springframework.dao.DataIntegrityViolationException;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
-import org.springframework.jdbc.support.KeyHolder;
-import org.springframework.stereotype.Service;
-
-import java.sql.*;
-import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Map;
-
-@Service
-public class GroupService {
-
-    private static final String INSERT_GROUP_QUERY = "INSERT INTO \"group\" (name, description, org_id, creation_time) VALUES (?, ?, ?, ?)";
-    private static final String DELETE_GROUP_QUERY = "DELETE FROM \"group\" WHERE org_id = ? AND name = ?";
-    private static final String INSERT_USER_GROUP_QUERY =
-            "INSERT INTO user_group (user_name, group_name, org_id) " +
-                    "SELECT u.email, g.name, g.org_id " +
-                    "FROM \"user\" u " +
-                    "JOIN user_org uo ON u.email = uo.user_name " +
-                    "JOIN \"group\" g ON g.name = ? AND g.org_id = ? " +
-                    "WHERE u.email = ? AND uo.org_id = g.org_id";
-    private static final String DELETE_USER_GROUP_QUERY = "DELETE FROM user_group WHERE user_name = ? AND group_name = ? AND org_id = ?";
-    private static final String GET_ALL_EXISTING_NONEXISTING_USER = "SELECT u.*, CASE WHEN EXISTS ( SELECT 1 FROM user_group ug WHERE ug.user_name = u.email AND ug.group_name = ? AND ug.org_id = ? ) THEN 'existing' ELSE 'nonexisting' END AS status FROM \"user\" u JOIN user_org uo ON u.email = uo.user_name WHERE uo.org_id = ?";
-    private static final String GET_ALL_ORG_GROUPS = "SELECT * FROM \"group\" WHERE org_id = ?";
-    private final JdbcTemplate jdbc;
-
-    public GroupService(JdbcTemplate jdbc) {
-        this.jdbc = jdbc;
-    }
-
-    public Group createGroup(Long orgId, Group group) {
-        KeyHolder keyHolder = new GeneratedKeyHolder();
-
-        try {
-            jdbc.update(con -> {
-                PreparedStatement ps = con.prepareStatement(INSERT_GROUP_QUERY, Statement.RETURN_GENERATED_KEYS);
-                ps.setString(1, group.name());
-                ps.setString(2, group.description());
-                ps.setLong(3, orgId);
-                ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
-                return ps;
-            }, keyHolder);
-        } catch (DataIntegrityViolationException e) {
-            throw new IllegalArgumentException(
-                    "Group with name '" + group.name() + "' may already exist in organization " + orgId, e);
-        }
-
-        Long generatedId = extractGeneratedId(keyHolder);
-        return Group.withId(generatedId, group);
-    }
-
-    public Boolean deleteGroup(Long orgId, String groupName) {
-        try {
-            return jdbc.update(DELETE_GROUP_QUERY, orgId, groupName) > 0;
-        } catch (Exception e) {
-            throw new RuntimeException("Error while deleting group", e);
-        }
-    }
-
-    public List<Group> getAllOrgGroups(Long orgId) {
-        return jdbc.query(GET_ALL_ORG_GROUPS, ps -> ps.setLong(1, orgId), this::mapRowForGroup);
-    }
-
-    public Boolean handleUserInGroup(Long orgId, String userEmail, GroupAssignmentRequest request) {
-        if (orgId == null || request.name() == null || userEmail == null) {
-            throw new IllegalArgumentException("orgId, groupName, and userEmail must not be null");
-        }
-
-        try {
-            if ("add".equalsIgnoreCase(request.action())) {
-                return jdbc.update(con -> {
-                    PreparedStatement ps = con.prepareStatement(INSERT_USER_GROUP_QUERY);
-                    ps.setString(1, request.name());   // g.name
-                    ps.setLong(2, orgId);              // g.org_id
-                    ps.setString(3, userEmail);        // u.email
-                    return ps;
-                }) > 0;
-            } else if ("remove".equalsIgnoreCase(request.action())) {
-                return jdbc.update(con -> {
-                    PreparedStatement ps = con.prepareStatement(DELETE_USER_GROUP_QUERY);
-                    ps.setString(1, userEmail);        // user_name
-                    ps.setString(2, request.name());   // group_name
-                    ps.setLong(3, orgId);
-                    return ps;
-                }) > 0;
-            } else {
-                throw new IllegalArgumentException(request.action() + " is not a valid action");
-            }
-        } catch (org.springframework.dao.DuplicateKeyException e) {
-            throw new IllegalStateException("User is already in the group", e);
-        }
-    }
-
-    public List<UserWithStatus> getGroupUsers(Long orgId, String groupName) {
-        return jdbc.query(GET_ALL_EXISTING_NONEXISTING_USER, ps -> {
-            ps.setString(1, groupName);
-            ps.setLong(2, orgId);
-            ps.setLong(3, orgId);
-        }, this::mapRow);
-    }
-
-    private Long extractGeneratedId(KeyHolder keyHolder) {
-        Map<String, Object> keys = keyHolder.getKeys();
-        if (keys != null && keys.containsKey("id")) {
-            return ((Number) keys.get("id")).longValue();
-        }
-        Number key = keyHolder.getKey();
-        if (key != null) {
-            return key.longValue();
-        }
-        throw new IllegalStateException("Failed to retrieve generated group id");
-    }
-
-    private UserWithStatus mapRow(ResultSet rs, int rowNum) throws SQLException {
-        User user = new User(
-                rs.getLong("id"),
-                rs.getString("name"),
-                rs.getString("email"),
-                rs.getString("password"),
-                rs.getString("role"),
-                rs.getString("description"),
-                rs.getTimestamp("created_at").toLocalDateTime(),
-                rs.getTimestamp("updated_at").toLocalDateTime()
-        );
-        return new UserWithStatus(user, rs.getString("status"));
-    }
-
-    private Group mapRowForGroup(ResultSet rs, int rowNum) throws SQLException {
-        return new Group(
-                rs.getLong("id"),
-                rs.getString("name"),
-                rs.getString("description"),
-                rs.getTimestamp("creation_time").toLocalDateTime()
-        );
-    }
-}
+package com.one211.application.service;
+
+import com.one211.application.audit.AuditLog;
+import com.one211.application.metrics.SqlStatementNames;
+import com.one211.application.model.Group;
+import com.one211.application.model.GroupAssignmentRequest;
+import com.one211.application.model.GroupRowMapper;
+import com.one211.application.model.GroupUserPage;
+import com.one211.application.model.UserWithStatus;
+import com.one211.application.outbox.OutboxWriter;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class GroupService {
+
+    public enum Membership {
+        ALL, MEMBERS, NON_MEMBERS;
+
+        public static Membership parse(String value) {
+            if (value == null || value.isBlank() || "all".equalsIgnoreCase(value)) {
+                return ALL;
+            }
+            if ("members".equalsIgnoreCase(value)) {
+                return MEMBERS;
+            }
+            if ("nonMembers".equalsIgnoreCase(value)) {
+                return NON_MEMBERS;
+            }
+            throw new IllegalArgumentException(value + " is not a valid membership filter");
+        }
+    }
+
+    private static final String INSERT_GROUP_QUERY = "INSERT INTO \"group\" (name, description, org_id, creation_time) VALUES (?, ?, ?, ?)";
+    private static final String DELETE_GROUP_QUERY = "DELETE FROM \"group\" WHERE org_id = ? AND name = ?";
+    private static final String INSERT_USER_GROUP_QUERY =
+            "INSERT INTO user_group (user_name, group_name, org_id) " +
+                    "SELECT u.email, g.name, g.org_id " +
+                    "FROM \"user\" u " +
+                    "JOIN user_org uo ON u.email = uo.user_name " +
+                    "JOIN \"group\" g ON g.name = ? AND g.org_id = ? " +
+                    "WHERE u.email = ? AND uo.org_id = g.org_id";
+    private static final String DELETE_USER_GROUP_QUERY = "DELETE FROM user_group WHERE user_name = ? AND group_name = ? AND org_id = ?";
+    private static final String GROUP_USERS_FROM = "FROM user_org uo JOIN \"user\" u ON u.email = uo.user_name ";
+    private static final String GROUP_USERS_ALL_JOIN = "LEFT JOIN user_group ug ON ug.user_name = uo.user_name AND ug.group_name = ? AND ug.org_id = ? ";
+    private static final String GROUP_USERS_WHERE = "WHERE uo.org_id = ? ";
+    private static final String GROUP_USERS_MEMBER_FILTER = "AND %s (SELECT 1 FROM user_group ug WHERE ug.user_name = uo.user_name AND ug.group_name = ? AND ug.org_id = ?) ";
+    private static final String GROUP_USERS_PREFIX_FILTER = "AND (LOWER(u.email) LIKE ? " + LikePatterns.ESCAPE + " OR LOWER(u.name) LIKE ? " + LikePatterns.ESCAPE + ") ";
+    private static final String GROUP_USERS_CURSOR_FILTER = "AND uo.user_name > ? ";
+    private static final String GROUP_USERS_PAGE = "SELECT %s, %s AS status, uo.user_name AS cursor_key %s%sORDER BY uo.user_name LIMIT ?";
+    private static final String GROUP_USERS_COUNT = "SELECT COUNT(*) %s";
+    private static final int MAX_GROUP_USERS_PAGE = 200;
+    private static final String GET_ALL_ORG_GROUPS = "SELECT * FROM \"group\" WHERE org_id = ?";
+    // Nested groups: writes to group_nesting and group_closure are serialized per org, so the cycle check and the
+    // path counts read a closure no other transaction is changing. Lock collisions between orgs only cost waiting.
+    private static final int NESTING_LOCK_CLASS = 0x47525053;
+    private static final String LOCK_NESTING_QUERY = "SELECT pg_advisory_xact_lock(?, ?)";
+    private static final String INSERT_SELF_CLOSURE_QUERY =
+            "INSERT INTO group_closure (org_id, ancestor_name, descendant_name, path_count) VALUES (?, ?, ?, 1)";
+    private static final String IS_DESCENDANT_QUERY =
+            "SELECT EXISTS (SELECT 1 FROM group_closure WHERE org_id = ? AND ancestor_name = ? AND descendant_name = ?)";
+    private static final String INSERT_NESTING_QUERY =
+            "INSERT INTO group_nesting (org_id, parent_name, child_name) VALUES (?, ?, ?) ON CONFLICT DO NOTHING";
+    private static final String DELETE_NESTING_QUERY = "DELETE FROM group_nesting WHERE org_id = ? AND parent_name = ? AND child_name = ?";
+    private static final String GET_GROUP_EDGES_QUERY =
+            "SELECT parent_name, child_name FROM group_nesting WHERE org_id = ? AND (parent_name = ? OR child_name = ?)";
+    // Paths through a new edge parent -> child: every ancestor of parent to every descendant of child.
+    private static final String EDGE_PATHS =
+            "SELECT a.ancestor_name, d.descendant_name, a.path_count * d.path_count AS path_count " +
+                    "FROM group_closure a JOIN group_closure d ON d.org_id = a.org_id AND d.ancestor_name = ? " +
+                    "WHERE a.org_id = ? AND a.descendant_name = ?";
+    private static final String ADD_EDGE_PATHS_QUERY =
+            "INSERT INTO group_closure (org_id, ancestor_name, descendant_name, path_count) " +
+                    "SELECT ?, p.ancestor_name, p.descendant_name, p.path_count FROM (" + EDGE_PATHS + ") p " +
+                    "ON CONFLICT (org_id, ancestor_name, descendant_name) DO UPDATE SET path_count = group_closure.path_count + EXCLUDED.path_count";
+    // No path to parent or from child runs through the edge itself (that would be a cycle), so the subquery reads the
+    // same counts before and after the update.
+    private static final String REMOVE_EDGE_PATHS_QUERY =
+            "UPDATE group_closure c SET path_count = c.path_count - p.path_count FROM (" + EDGE_PATHS + ") p " +
+                    "WHERE c.org_id = ? AND c.ancestor_name = p.ancestor_name AND c.descendant_name = p.descendant_name";
+    private static final String DELETE_UNREACHABLE_PATHS_QUERY =
+            "DELETE FROM group_closure c USING (" + EDGE_PATHS + ") p " +
+                    "WHERE c.org_id = ? AND c.ancestor_name = p.ancestor_name AND c.descendant_name = p.descendant_name AND c.path_count = 0";
+    private static final String GET_TRANSITIVE_GROUP_USERS_QUERY =
+            "SELECT DISTINCT ug.user_name FROM group_closure c " +
+                    "JOIN user_group ug ON ug.org_id = c.org_id AND ug.group_name = c.descendant_name " +
+                    "WHERE c.org_id = ? AND c.ancestor_name = ? ORDER BY ug.user_name";
+    private static final String GET_USER_GROUPS_QUERY =
+            "SELECT DISTINCT c.ancestor_name FROM user_group ug " +
+                    "JOIN group_closure c ON c.org_id = ug.org_id AND c.descendant_name = ug.group_name " +
+                    "WHERE ug.user_name = ? AND ug.org_id = ? ORDER BY c.ancestor_name";
+    private final JdbcTemplate jdbc;
+    private final ChangeVersionService changeVersionService;
+    private final ChangeFeedService changeFeedService;
+    private final OutboxWriter outboxWriter;
+    private final AuditLog auditLog;
+
+    public GroupService(JdbcTemplate jdbc, ChangeVersionService changeVersionService,
+                        ChangeFeedService changeFeedService, OutboxWriter outboxWriter, AuditLog auditLog) {
+        this.jdbc = jdbc;
+        this.changeVersionService = changeVersionService;
+        this.changeFeedService = changeFeedService;
+        this.outboxWriter = outboxWriter;
+        this.auditLog = auditLog;
+    }
+
+    @Transactional
+    public Group createGroup(Long orgId, Group group) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+
+        try {
+            jdbc.update(con -> {
+                PreparedStatement ps = con.prepareStatement(INSERT_GROUP_QUERY, Statement.RETURN_GENERATED_KEYS);
+                ps.setString(1, group.name());
+                ps.setString(2, group.description());
+                ps.setLong(3, orgId);
+                ps.setTimestamp(4, Timestamp.valueOf(LocalDateTime.now()));
+                return ps;
+            }, keyHolder);
+        } catch (DataIntegrityViolationException e) {
+            throw new IllegalArgumentException(
+                    "Group with name '" + group.name() + "' may already exist in organization " + orgId, e);
+        }
+
+        Long generatedId = extractGeneratedId(keyHolder);
+        jdbc.update(INSERT_SELF_CLOSURE_QUERY, orgId, group.name(), group.name());
+        changeVersionService.bump(orgId, ChangeVersionService.Collection.GROUPS);
+        changeFeedService.publish(orgId, ChangeVersionService.Collection.GROUPS, "create", group.name(), null);
+        auditLog.publish(orgId, "group.create", "GROUP", group.name(), null);
+        return Group.withId(generatedId, group);
+    }
+
+    /**
+     * Un-nests the group from its parents and children first: the foreign keys would drop its edges, but not the
+     * closure rows of the ancestors and descendants it connected.
+     */
+    @Transactional
+    public Boolean deleteGroup(Long orgId, String groupName) {
+        boolean deleted;
+        try {
+            lockNesting(orgId);
+            List<String[]> edges = jdbc.query(GET_GROUP_EDGES_QUERY,
+                    (rs, rowNum) -> new String[]{rs.getString(1), rs.getString(2)}, orgId, groupName, groupName);
+            for (String[] edge : edges) {
+                removeEdge(orgId, edge[0], edge[1]);
+            }
+            deleted = jdbc.update(DELETE_GROUP_QUERY, orgId, groupName) > 0;
+        } catch (Exception e) {
+            throw new RuntimeException("Error while deleting group", e);
+        }
+        if (deleted) {
+            // Memberships cascade with the group.
+            changeVersionService.bump(orgId, ChangeVersionService.Collection.GROUPS);
+            changeVersionService.bump(orgId, ChangeVersionService.Collection.MEMBERSHIPS);
+            changeFeedService.publish(orgId, ChangeVersionService.Collection.GROUPS, "delete", groupName, null);
+            auditLog.publish(orgId, "group.delete", "GROUP", groupName, null);
+        }
+        return deleted;
+    }
+
+    public List<Group> getAllOrgGroups(Long orgId) {
+        return jdbc.query(GET_ALL_ORG_GROUPS, ps -> ps.setLong(1, orgId), new GroupRowMapper());
+    }
+
+    @Transactional
+    public Boolean handleUserInGroup(Long orgId, String userEmail, GroupAssignmentRequest request) {
+        if (orgId == null || request.name() == null || userEmail == null) {
+            throw new IllegalArgumentException("orgId, groupName, and userEmail must not be null");
+        }
+
+        boolean changed;
+        try {
+            if ("add".equalsIgnoreCase(request.action())) {
+                changed = jdbc.update(con -> {
+                    PreparedStatement ps = con.prepareStatement(INSERT_USER_GROUP_QUERY);
+                    ps.setString(1, request.name());   // g.name
+                    ps.setLong(2, orgId);              // g.org_id
+                    ps.setString(3, userEmail);        // u.email
+                    return ps;
+                }) > 0;
+            } else if ("remove".equalsIgnoreCase(request.action())) {
+                changed = jdbc.update(con -> {
+                    PreparedStatement ps = con.prepareStatement(DELETE_USER_GROUP_QUERY);
+                    ps.setString(1, userEmail);        // user_name
+                    ps.setString(2, request.name());   // group_name
+                    ps.setLong(3, orgId);
+                    return ps;
+                }) > 0;
+            } else {
+                throw new IllegalArgumentException(request.action() + " is not a valid action");
+            }
+        } catch (org.springframework.dao.DuplicateKeyException e) {
+            throw new IllegalStateException("User is already in the group", e);
+        }
+        if (changed) {
+            outboxWriter.append(orgId, OutboxWriter.GROUP_MEMBERSHIP, Map.of(
+                    "action", request.action().toLowerCase(),
+                    "group", request.name(),
+                    "user", userEmail));
+            changeVersionService.bump(orgId, ChangeVersionService.Collection.MEMBERSHIPS);
+            changeFeedService.publish(orgId, ChangeVersionService.Collection.MEMBERSHIPS, request.action().toLowerCase(),
+                    request.name(), userEmail);
+            auditLog.publish(orgId, "group.member." + request.action().toLowerCase(), "USER", userEmail, request.name());
+        }
+        return changed;
+    }
+
+    /**
+     * Adds or removes {@code request.name()} as a subgroup of {@code parentName}; its members, and those of its own
+     * subgroups, become transitive members of the parent and its ancestors.
+     *
+     * @return false when the edge already existed (add) or did not exist (remove)
+     * @throws IllegalStateException when the edge would close a cycle
+     */
+    @Transactional
+    public Boolean handleGroupInGroup(Long orgId, String parentName, GroupAssignmentRequest request) {
+        String childName = request.name();
+        if (orgId == null || parentName == null || childName == null) {
+            throw new IllegalArgumentException("orgId, parent group and child group must not be null");
+        }
+
+        lockNesting(orgId);
+        boolean changed;
+        if ("add".equalsIgnoreCase(request.action())) {
+            if (parentName.equals(childName)
+                    || Boolean.TRUE.equals(jdbc.queryForObject(IS_DESCENDANT_QUERY, Boolean.class, orgId, childName, parentName))) {
+                throw new IllegalStateException("Nesting " + childName + " in " + parentName + " would create a cycle");
+            }
+            try {
+                changed = jdbc.update(INSERT_NESTING_QUERY, orgId, parentName, childName) > 0;
+            } catch (DataIntegrityViolationException e) {
+                throw new IllegalArgumentException("Group " + parentName + " or " + childName + " does not exist in organization " + orgId, e);
+            }
+            if (changed) {
+                jdbc.update(ADD_EDGE_PATHS_QUERY, orgId, childName, orgId, parentName);
+            }
+        } else if ("remove".equalsIgnoreCase(request.action())) {
+            changed = removeEdge(orgId, parentName, childName);
+        } else {
+            throw new IllegalArgumentException(request.action() + " is not a valid action");
+        }
+        if (changed) {
+            String action = "add".equalsIgnoreCase(request.action()) ? "nest" : "unnest";
+            outboxWriter.append(orgId, OutboxWriter.GROUP_NESTING, Map.of(
+                    "action", action,
+                    "group", parentName,
+                    "subgroup", childName));
+            changeVersionService.bump(orgId, ChangeVersionService.Collection.MEMBERSHIPS);
+            changeFeedService.publish(orgId, ChangeVersionService.Collection.MEMBERSHIPS, action, parentName, childName);
+            auditLog.publish(orgId, "group." + action, "GROUP", childName, parentName);
+        }
+        return changed;
+    }
+
+    /**
+     * Emails of the group's direct members and of every member of its subgroups, at any depth.
+     */
+    public List<String> getTransitiveGroupUsers(Long orgId, String groupName) {
+        return jdbc.queryForList(GET_TRANSITIVE_GROUP_USERS_QUERY, String.class, orgId, groupName);
+    }
+
+    /**
+     * Names of the groups the user belongs to directly and of every group that contains one of those.
+     */
+    public List<String> getUserGroups(Long orgId, String userEmail) {
+        return jdbc.queryForList(GET_USER_GROUPS_QUERY, String.class, userEmail, orgId);
+    }
+
+    private void lockNesting(Long orgId) {
+        jdbc.queryForList(LOCK_NESTING_QUERY, NESTING_LOCK_CLASS, Long.hashCode(orgId));
+    }
+
+    /**
+     * Deletes the edge and the paths that ran through it; pairs still connected by another path keep a lower count.
+     */
+    private boolean removeEdge(Long orgId, String parentName, String childName) {
+        if (jdbc.update(DELETE_NESTING_QUERY, orgId, parentName, childName) == 0) {
+            return false;
+        }
+        jdbc.update(REMOVE_EDGE_PATHS_QUERY, childName, orgId, parentName, orgId);
+        jdbc.update(DELETE_UNREACHABLE_PATHS_QUERY, childName, orgId, parentName, orgId);
+        return true;
+    }
+
+    public List<UserWithStatus> getGroupUsers(Long orgId, String groupName) {
+        return getGroupUsers(orgId, groupName, UserProjection.DEFAULT);
+    }
+
+    /**
+     * Every user of the org with their membership in the group, read page by page through {@link #getGroupUserPage}.
+     */
+    public List<UserWithStatus> getGroupUsers(Long orgId, String groupName, UserProjection projection) {
+        List<UserWithStatus> users = new ArrayList<>();
+        String after = null;
+        do {
+            GroupUserPage page = getGroupUserPage(orgId, groupName, projection, Membership.ALL, null, after, MAX_GROUP_USERS_PAGE);
+            users.addAll(page.users());
+            after = page.nextCursor();
+        } while (after != null);
+        return users;
+    }
+
+    /**
+     * Keyset-paginated view of the org's users and their membership in the group, ordered by email.
+     * Membership filters run as a semi-join or anti-join; {@code after} is the previous page's cursor.
+     */
+    public GroupUserPage getGroupUserPage(Long orgId, String groupName, UserProjection projection,
+                                          Membership membership, String prefix, String after, int limit) {
+        int effectiveLimit = Math.min(Math.max(limit, 1), MAX_GROUP_USERS_PAGE);
+
+        List<Object> filterArgs = new ArrayList<>();
+        StringBuilder filter = new StringBuilder(GROUP_USERS_FROM);
+        String status;
+        if (membership == Membership.ALL) {
+            filter.append(GROUP_USERS_ALL_JOIN);
+            filterArgs.add(groupName);
+            filterArgs.add(orgId);
+            status = "CASE WHEN ug.user_name IS NOT NULL THEN 'existing' ELSE 'nonexisting' END";
+        } else {
+            status = membership == Membership.MEMBERS ? "'existing'" : "'nonexisting'";
+        }
+        filter.append(GROUP_USERS_WHERE);
+        filterArgs.add(orgId);
+        if (membership != Membership.ALL) {
+            filter.append(GROUP_USERS_MEMBER_FILTER.formatted(membership == Membership.MEMBERS ? "EXISTS" : "NOT EXISTS"));
+            filterArgs.add(groupName);
+            filterArgs.add(orgId);
+        }
+        if (prefix != null && !prefix.isBlank()) {
+            String pattern = LikePatterns.prefix(prefix.trim().toLowerCase());
+            filter.append(GROUP_USERS_PREFIX_FILTER);
+            filterArgs.add(pattern);
+            filterArgs.add(pattern);
+        }
+
+        List<Object> pageArgs = new ArrayList<>(filterArgs);
+        String cursorFilter = "";
+        if (after != null && !after.isBlank()) {
+            cursorFilter = GROUP_USERS_CURSOR_FILTER;
+            pageArgs.add(after);
+        }
+        pageArgs.add(effectiveLimit + 1);
+
+        String sql = GROUP_USERS_PAGE.formatted(projection.selectList("u"), status, filter, cursorFilter);
+        List<String> cursors = new ArrayList<>();
+        List<UserWithStatus> users = SqlStatementNames.named("GroupService.GROUP_USERS_PAGE", () -> jdbc.query(sql, (rs, rowNum) -> {
+            cursors.add(rs.getString("cursor_key"));
+            return new UserWithStatus(projection.mapRow(rs), rs.getString("status"));
+        }, pageArgs.toArray()));
+
+        String nextCursor = null;
+        if (users.size() > effectiveLimit) {
+            users = users.subList(0, effectiveLimit);
+            nextCursor = cursors.get(effectiveLimit - 1);
+        }
+
+        Long total = null;
+        if (cursorFilter.isEmpty()) {
+            total = SqlStatementNames.named("GroupService.GROUP_USERS_COUNT",
+                    () -> jdbc.queryForObject(GROUP_USERS_COUNT.formatted(filter), Long.class, filterArgs.toArray()));
+        }
+        return new GroupUserPage(users, total, nextCursor);
+    }
+
+    private Long extractGeneratedId(KeyHolder keyHolder) {
+        Map<String, Object> keys = keyHolder.getKeys();
+        if (keys != null && keys.containsKey("id")) {
+            return ((Number) keys.get("id")).longValue();
+        }
+        Number key = keyHolder.getKey();
+        if (key != null) {
+            return key.longValue();
+        }
+        throw new IllegalStateException("Failed to retrieve generated group id");
+    }
+}
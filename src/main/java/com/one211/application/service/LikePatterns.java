@@ -0,0 +1,25 @@
+package com.one211.application.service;
+
+/**
+ * LIKE patterns from user input. Every query matching one declares {@link #ESCAPE} rather than relying on the
+ * server's default escape character.
+ */
+final class LikePatterns {
+
+    static final String ESCAPE = "ESCAPE '\\'";
+
+    private LikePatterns() {
+    }
+
+    static String prefix(String value) {
+        return escape(value) + "%";
+    }
+
+    static String contains(String value) {
+        return "%" + escape(value) + "%";
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
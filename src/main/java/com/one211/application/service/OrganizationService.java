@@ -1,107 +1,142 @@
-package com.one211.application.service;
-
-import com.one211.application.model.Organization;
-import com.one211.application.model.UserOrg;
-import org.springframework.dao.EmptyResultDataAccessException;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.jdbc.support.GeneratedKeyHolder;
-import org.springframework.jdbc.support.KeyHolder;
-import org.springframework.stereotype.Service;
-
-import java.sql.*;
-import java.time.LocalDateTime;
-import java.util.List;
-
-@Service
-public class OrganizationService {
-    private static final String INSERT_ORG_QUERY = "INSERT INTO organization (name, description, created_at, updated_at) VALUES (?, ?, ?, ?) RETURNING id";
-    private static final String GET_ORG_BY_ID_QUERY = "SELECT * FROM organization WHERE id = ?";
-    private static final String GET_ORG_BY_NAME_QUERY = "SELECT * FROM organization WHERE name = ?";
-    private static final String DELETE_ORG_QUERY = "DELETE FROM organization WHERE id = ?";
-    private static final String UPDATE_ORG_QUERY = "UPDATE organization SET name = ?, description = ?, updated_at = ? WHERE id = ?";
-
-    private final JdbcTemplate jdbc;
-
-    public OrganizationService(JdbcTemplate jdbc) {
-        this.jdbc = jdbc;
-    }
-
-    public Organization addOrg(Organization org) {
-        if (isBlank(org.name())) {
-            throw new IllegalArgumentException("Organization name cannot be null or empty");
-        }
-
-        KeyHolder keyHolder = new GeneratedKeyHolder();
-        LocalDateTime now = LocalDateTime.now();
-
-        jdbc.update(connection -> {
-            PreparedStatement ps = connection.prepareStatement(INSERT_ORG_QUERY, Statement.RETURN_GENERATED_KEYS);
-            ps.setString(1, org.name());
-            ps.setString(2, org.description());
-            ps.setTimestamp(3, Timestamp.valueOf(now));
-            ps.setTimestamp(4, Timestamp.valueOf(now));
-            return ps;
-        }, keyHolder);
-
-        Number key = keyHolder.getKey();
-        if (key == null) {
-            throw new IllegalStateException("Failed to retrieve generated ID for organization");
-        }
-
-        return new Organization(key.longValue(), org.name(), org.description(), now, now);
-    }
-
-    public Organization getOrgById(Long id) {
-        try {
-            return jdbc.queryForObject(GET_ORG_BY_ID_QUERY, this::mapRow, id);
-        } catch (EmptyResultDataAccessException e) {
-            return null;
-        }
-    }
-
-    public Organization getOrgByName(String name) {
-        try {
-            return jdbc.queryForObject(GET_ORG_BY_NAME_QUERY, this::mapRow, name);
-        } catch (EmptyResultDataAccessException e) {
-            return null;
-        }
-    }
-
-    public boolean deleteOrg(Long orgId) {
-        int rowsAffected = jdbc.update(DELETE_ORG_QUERY, orgId);
-        if (rowsAffected == 0) {
-            throw new IllegalArgumentException("Organization with ID " + orgId + " not found.");
-        }
-        return true;
-    }
-
-    public Organization update(Organization org) {
-        if (org.id() == null) {
-            throw new IllegalArgumentException("Organization ID is required for update");
-        }
-
-        int rows = jdbc.update(
-                UPDATE_ORG_QUERY,
-                org.name(),
-                org.description(),
-                Timestamp.valueOf(org.updatedAt()),
-                org.id()
-        );
-
-        return rows > 0 ? getOrgById(org.id()) : null;
-    }
-
-    private Organization mapRow(ResultSet rs, int rowNum) throws SQLException {
-        return new Organization(
-                rs.getLong("id"),
-                rs.getString("name"),
-                rs.getString("description"),
-                rs.getTimestamp("created_at").toLocalDateTime(),
-                rs.getTimestamp("updated_at").toLocalDateTime()
-        );
-    }
-
-    private boolean isBlank(String value) {
-        return value == null || value.trim().isEmpty();
-    }
-}
+package com.one211.application.service;
+
+import com.one211.application.audit.AuditLog;
+import com.one211.application.model.OrgDeletionJob;
+import com.one211.application.model.OrgDeletionJobRowMapper;
+import com.one211.application.model.Organization;
+import com.one211.application.model.OrganizationRowMapper;
+import com.one211.application.model.UserOrg;
+import com.one211.application.tenant.TenantDirectory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class OrganizationService {
+    private static final String INSERT_ORG_QUERY = "INSERT INTO organization (name, description, created_at, updated_at) VALUES (?, ?, ?, ?) RETURNING id";
+    private static final String TOMBSTONE_ORG_QUERY = "UPDATE organization SET deleted_at = ? WHERE id = ? AND deleted_at IS NULL";
+    private static final String DELETION_JOB_COLUMNS = "org_id, status, phase, rows_deleted, requested_at, updated_at, completed_at, last_error";
+    private static final String INSERT_DELETION_JOB_QUERY =
+            "INSERT INTO org_deletion_job (org_id, status, requested_at, updated_at) VALUES (?, 'PENDING', ?, ?) RETURNING " + DELETION_JOB_COLUMNS;
+    private static final String GET_DELETION_JOB_QUERY = "SELECT " + DELETION_JOB_COLUMNS + " FROM org_deletion_job WHERE org_id = ?";
+    // A null expected version skips the compare-and-set.
+    private static final String UPDATE_ORG_QUERY = "UPDATE organization SET name = COALESCE(?, name), description = COALESCE(?, description), updated_at = ?, version = version + 1 WHERE id = ? AND deleted_at IS NULL AND (?::bigint IS NULL OR version = ?) RETURNING *";
+
+    private final JdbcTemplate jdbc;
+    private final AuditLog auditLog;
+    private final TenantDirectory tenantDirectory;
+
+    public OrganizationService(JdbcTemplate jdbc, AuditLog auditLog, TenantDirectory tenantDirectory) {
+        this.jdbc = jdbc;
+        this.auditLog = auditLog;
+        this.tenantDirectory = tenantDirectory;
+    }
+
+    @Transactional
+    public Organization addOrg(Organization org) {
+        if (isBlank(org.name())) {
+            throw new IllegalArgumentException("Organization name cannot be null or empty");
+        }
+
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        LocalDateTime now = LocalDateTime.now();
+
+        jdbc.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(INSERT_ORG_QUERY, Statement.RETURN_GENERATED_KEYS);
+            ps.setString(1, org.name());
+            ps.setString(2, org.description());
+            ps.setTimestamp(3, Timestamp.valueOf(now));
+            ps.setTimestamp(4, Timestamp.valueOf(now));
+            return ps;
+        }, keyHolder);
+
+        Number key = keyHolder.getKey();
+        if (key == null) {
+            throw new IllegalStateException("Failed to retrieve generated ID for organization");
+        }
+
+        Organization created = new Organization(key.longValue(), org.name(), org.description(), now, now, 0L);
+        tenantDirectory.putOrg(created);
+        auditLog.publish(key.longValue(), "org.create", "ORGANIZATION", org.name(), null);
+        return created;
+    }
+
+    public Organization getOrgById(Long id) {
+        return id == null ? null : tenantDirectory.getOrg(id);
+    }
+
+    public Organization getOrgByName(String name) {
+        return tenantDirectory.getOrgByName(name);
+    }
+
+    /**
+     * Tombstones the org and queues the removal of its rows for {@code OrgDeletionWorker}. This instance stops
+     * serving the org on commit; other instances do once their tenant directory entry expires, after at most
+     * {@code tenant-directory.ttl-ms}. Deleting an org that is already being deleted returns the existing job.
+     */
+    @Transactional
+    public OrgDeletionJob deleteOrg(Long orgId) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        if (jdbc.update(TOMBSTONE_ORG_QUERY, now, orgId) == 0) {
+            OrgDeletionJob existing = getDeletion(orgId);
+            if (existing == null) {
+                throw new IllegalArgumentException("Organization with ID " + orgId + " not found.");
+            }
+            return existing;
+        }
+        OrgDeletionJob job = jdbc.queryForObject(INSERT_DELETION_JOB_QUERY, new OrgDeletionJobRowMapper(), orgId, now, now);
+        tenantDirectory.removeOrg(orgId);
+        auditLog.publish(orgId, "org.delete", "ORGANIZATION", String.valueOf(orgId), null);
+        return job;
+    }
+
+    public OrgDeletionJob getDeletion(Long orgId) {
+        return jdbc.query(GET_DELETION_JOB_QUERY, new OrgDeletionJobRowMapper(), orgId).stream().findFirst().orElse(null);
+    }
+
+    @Transactional
+    public Organization update(Organization org) {
+        return update(org, null);
+    }
+
+    /**
+     * Applies the update only if the row is still at {@code expectedVersion}; null updates unconditionally.
+     */
+    @Transactional
+    public Organization update(Organization org, Long expectedVersion) {
+        if (org.id() == null) {
+            throw new IllegalArgumentException("Organization ID is required for update");
+        }
+
+        Organization updated = jdbc.query(
+                UPDATE_ORG_QUERY,
+                new OrganizationRowMapper(),
+                org.name(),
+                org.description(),
+                Timestamp.valueOf(org.updatedAt()),
+                org.id(),
+                expectedVersion,
+                expectedVersion
+        ).stream().findFirst().orElse(null);
+
+        if (updated == null) {
+            if (expectedVersion != null && getOrgById(org.id()) != null) {
+                throw new VersionConflictException("Organization was modified concurrently");
+            }
+            return null;
+        }
+        tenantDirectory.putOrg(updated);
+        auditLog.publish(org.id(), "org.update", "ORGANIZATION", org.name(), null);
+        return updated;
+    }
+
+    private boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+}
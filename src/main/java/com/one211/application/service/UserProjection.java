@@ -0,0 +1,101 @@
+package com.one211.application.service;
+
+import com.one211.application.model.User;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The set of user columns a read should select. The password hash is not a field, so it can never be projected.
+ */
+public final class UserProjection {
+
+    public enum Field {
+        ID("id", "id"),
+        NAME("name", "name"),
+        EMAIL("email", "email"),
+        ROLE("role", "role"),
+        DESCRIPTION("description", "description"),
+        CREATED_AT("createdAt", "created_at"),
+        UPDATED_AT("updatedAt", "updated_at");
+
+        private final String jsonName;
+        private final String column;
+
+        Field(String jsonName, String column) {
+            this.jsonName = jsonName;
+            this.column = column;
+        }
+
+        static Field fromJsonName(String name) {
+            for (Field field : values()) {
+                if (field.jsonName.equalsIgnoreCase(name)) {
+                    return field;
+                }
+            }
+            throw new IllegalArgumentException("Unknown user field: " + name);
+        }
+    }
+
+    public static final UserProjection DEFAULT = new UserProjection(
+            EnumSet.of(Field.ID, Field.NAME, Field.EMAIL, Field.ROLE, Field.CREATED_AT, Field.UPDATED_AT));
+
+    private final Set<Field> fields;
+
+    private UserProjection(Set<Field> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses a {@code fields=} parameter such as {@code "id,email,createdAt"}; blank means {@link #DEFAULT}.
+     */
+    public static UserProjection parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return DEFAULT;
+        }
+        EnumSet<Field> selected = EnumSet.noneOf(Field.class);
+        for (String name : fields.split(",")) {
+            if (!name.isBlank()) {
+                selected.add(Field.fromJsonName(name.trim()));
+            }
+        }
+        return selected.isEmpty() ? DEFAULT : new UserProjection(selected);
+    }
+
+    /**
+     * Select list in {@link Field} order, e.g. {@code "u.id, u.email"} for alias {@code "u"}.
+     */
+    public String selectList(String alias) {
+        return fields.stream().map(field -> alias + "." + field.column).collect(Collectors.joining(", "));
+    }
+
+    /**
+     * Maps a row whose first columns are {@link #selectList}; unselected fields stay null.
+     */
+    public User mapRow(ResultSet rs) throws SQLException {
+        int index = 1;
+        Long id = null;
+        String name = null;
+        String email = null;
+        String role = null;
+        String description = null;
+        LocalDateTime createdAt = null;
+        LocalDateTime updatedAt = null;
+        for (Field field : fields) {
+            switch (field) {
+                case ID -> id = rs.getLong(index++);
+                case NAME -> name = rs.getString(index++);
+                case EMAIL -> email = rs.getString(index++);
+                case ROLE -> role = rs.getString(index++);
+                case DESCRIPTION -> description = rs.getString(index++);
+                case CREATED_AT -> createdAt = rs.getObject(index++, LocalDateTime.class);
+                case UPDATED_AT -> updatedAt = rs.getObject(index++, LocalDateTime.class);
+            }
+        }
+        return new User(id, name, email, null, role, description, createdAt, updatedAt);
+    }
+}
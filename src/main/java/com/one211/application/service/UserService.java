@@ -1,115 +1,184 @@
-package com.one211.application.service;
-
-import com.one211.application.model.User;
-import org.springframework.dao.DuplicateKeyException;
-import org.springframework.jdbc.core.JdbcTemplate;
-import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
-import java.sql.SQLException;
-import java.sql.Timestamp;
-import java.time.LocalDateTime;
-import java.util.List;
-
-@Service
-public class UserService {
-    private static final String INSERT_USER_QUERY = "INSERT INTO \"user\" (name, email, password, role, description, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING id, name, email, password, role, description, created_at, updated_at";
-    private static final String UPDATE_USER_QUERY = "UPDATE \"user\" SET name = ?, email = ?, password = ?, role = ?, description = ?, updated_at = ? WHERE email = ?";
-    private static final String DELETE_USER_QUERY = "DELETE FROM \"user\" WHERE email = ?";
-    private static final String GET_USER_BY_EMAIL_QUERY = "SELECT * FROM \"user\" WHERE LOWER(email) = LOWER(?)";
-    private static final String GET_USERS_BY_ORG_ID_QUERY = "SELECT u.* FROM user_org uo JOIN \"user\" u ON uo.user_name = u.email WHERE uo.org_id = ? LIMIT ? OFFSET ?";
-    private static final String INSERT_ORG_USER_QUERY = "INSERT INTO user_org (user_name, org_id, role, active, creation_time) VALUES (?, ?, ?, ?, ?)";
-
-    private final JdbcTemplate jdbc;
-    private final PasswordEncoder passwordEncoder;
-
-    public UserService(JdbcTemplate jdbc, PasswordEncoder passwordEncoder) {
-        this.jdbc = jdbc;
-        this.passwordEncoder = passwordEncoder;
-    }
-
-    @Transactional
-    public User addUser(User user, Long orgId) {
-        User newUser = insertUser(user);
-        linkUserToOrganization(newUser, orgId);
-        return newUser;
-    }
-
-    private User insertUser(User user) {
-        try {
-            LocalDateTime now = LocalDateTime.now();
-            return jdbc.queryForObject(INSERT_USER_QUERY, (rs, rowNum) -> new User(rs.getLong("id"), rs.getString("name"), rs.getString("email"), rs.getString("password"), rs.getString("role"), rs.getString("description"), rs.getTimestamp("created_at").toLocalDateTime(), rs.getTimestamp("updated_at").toLocalDateTime()), user.name(), user.email(), user.password(), user.role(), user.description(), Timestamp.valueOf(now), Timestamp.valueOf(now));
-        } catch (DuplicateKeyException e) {
-            throw new IllegalStateException("Email already exists: " + user.email(), e);
-        }
-    }
-
-    private void linkUserToOrganization(User user, Long orgId) {
-        LocalDateTime now = LocalDateTime.now();
-        jdbc.update(conn -> {
-            PreparedStatement ps = conn.prepareStatement(INSERT_ORG_USER_QUERY);
-            ps.setString(1, user.email());
-            ps.setLong(2, orgId);
-            ps.setString(3, user.role());
-            ps.setBoolean(4, true);
-            ps.setTimestamp(5, Timestamp.valueOf(now));
-            return ps;
-        });
-    }
-
-    public boolean removeUser(String email) {
-        return jdbc.update(DELETE_USER_QUERY, email) > 0;
-    }
-
-    public List<User> getUserByOrgId(Long orgId, int limit, int skip) {
-        int effectiveLimit = Math.min(Math.max(limit, 1), 100);
-        int effectiveSkip = Math.max(skip, 0);
-
-        return jdbc.query(GET_USERS_BY_ORG_ID_QUERY, new Object[]{orgId, effectiveLimit, effectiveSkip}, this::mapUserFromResultSet);
-    }
-
-    public User updateUser(String email, User user) {
-        User existing = getUserByEmail(email);
-        if (existing == null) {
-            throw new IllegalStateException("User not found for update");
-        }
-
-        String name = isBlank(user.name()) ? existing.name() : user.name().trim();
-        String newEmail = isBlank(user.email()) ? existing.email() : user.email().trim();
-        String description = user.description() != null ? user.description() : existing.description();
-
-        String password = user.password();
-        if (isBlank(password)) {
-            password = existing.password();
-        } else if (!passwordEncoder.matches(password, existing.password())) {
-            password = passwordEncoder.encode(password);
-        } else {
-            password = existing.password();
-        }
-
-        User updated = new User(existing.id(), name, email, password, existing.role(), description, existing.createdAt(), LocalDateTime.now());
-
-        int rows = jdbc.update(UPDATE_USER_QUERY, updated.name(), updated.email(), updated.password(), updated.role(), updated.description(), Timestamp.valueOf(updated.updatedAt()), existing.email());
-
-        return rows > 0 ? getUserByEmail(updated.email()) : null;
-    }
-
-    public User getUserByEmail(String email) {
-        if (isBlank(email)) {
-            throw new IllegalArgumentException("Email must not be empty");
-        }
-
-        return jdbc.query(GET_USER_BY_EMAIL_QUERY, new Object[]{email}, this::mapUserFromResultSet).stream().findFirst().orElse(null);
-    }
-
-    private User mapUserFromResultSet(ResultSet rs, int rowNum) throws SQLException {
-        return new User(rs.getLong("id"), rs.getString("name"), rs.getString("email"), rs.getString("password"), rs.getString("role"), rs.getString("description"), rs.getTimestamp("created_at").toLocalDateTime(), rs.getTimestamp("updated_at").toLocalDateTime());
-    }
-
-    private boolean isBlank(String str) {
-        return str == null || str.trim().isEmpty();
-    }
-}
+package com.one211.application.service;
+
+import com.one211.application.audit.AuditLog;
+import com.one211.application.metrics.SqlStatementNames;
+import com.one211.application.model.User;
+import com.one211.application.model.UserRowMapper;
+import com.one211.application.tenant.TenantDirectory;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Service
+public class UserService {
+    private static final String INSERT_USER_QUERY = "INSERT INTO \"user\" (name, email, password, role, description, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?) RETURNING id, name, email, password, role, description, created_at, updated_at, version";
+    // Blank name and null password or description keep their current value; email and role never change here.
+    // A null expected version skips the compare-and-set. The email matches ignoring case, like GET_USER_BY_EMAIL_QUERY, but
+    // only while it names a single account: accounts may differ only in case, and then none of them is updated.
+    private static final String UPDATE_USER_QUERY = "UPDATE \"user\" SET name = COALESCE(?, name), password = COALESCE(?, password), description = COALESCE(?, description), updated_at = ?, version = version + 1 WHERE LOWER(email) = LOWER(?) AND (SELECT COUNT(*) FROM \"user\" WHERE LOWER(email) = LOWER(?)) = 1 AND (?::bigint IS NULL OR version = ?) RETURNING id, name, email, password, role, description, created_at, updated_at, version";
+    private static final String COUNT_USERS_BY_EMAIL_QUERY = "SELECT COUNT(*) FROM \"user\" WHERE LOWER(email) = LOWER(?)";
+    private static final String DELETE_USER_QUERY = "DELETE FROM \"user\" WHERE email = ?";
+    private static final String GET_USER_ORG_IDS_QUERY = "SELECT org_id FROM user_org WHERE user_name = ?";
+    // Internal lookup for authentication and updates; the hash it carries must not be served.
+    private static final String GET_USER_BY_EMAIL_QUERY = "SELECT id, name, email, password, role, description, created_at, updated_at, version FROM \"user\" WHERE LOWER(email) = LOWER(?)";
+    private static final String GET_USERS_BY_ORG_ID_QUERY = "SELECT %s FROM user_org uo JOIN \"user\" u ON uo.user_name = u.email WHERE uo.org_id = ? LIMIT ? OFFSET ?";
+    private static final String SEARCH_USERS_QUERY =
+            "SELECT %s FROM user_org uo JOIN \"user\" u ON u.email = uo.user_name " +
+                    "WHERE uo.org_id = ? AND (LOWER(u.email) LIKE ? " + LikePatterns.ESCAPE + " OR LOWER(u.name) LIKE ? " + LikePatterns.ESCAPE + ") " +
+                    "ORDER BY (LOWER(u.email) LIKE ? " + LikePatterns.ESCAPE + " OR LOWER(u.name) LIKE ? " + LikePatterns.ESCAPE + ") DESC, " +
+                    "GREATEST(similarity(LOWER(u.name), ?), similarity(LOWER(u.email), ?)) DESC, u.email " +
+                    "LIMIT ?";
+    private static final String INSERT_ORG_USER_QUERY = "INSERT INTO user_org (user_name, org_id, role, active, creation_time) VALUES (?, ?, ?, ?, ?)";
+
+    private static final UserProjection SEARCH_PROJECTION = UserProjection.parse("id,name,email,role");
+    private static final int MAX_SEARCH_RESULTS = 25;
+    // Trigram indexes need at least three characters; shorter queries only match prefixes.
+    private static final int MIN_SUBSTRING_QUERY_LENGTH = 3;
+
+    private final JdbcTemplate jdbc;
+    private final PasswordEncoder passwordEncoder;
+    private final AuditLog auditLog;
+    private final TenantDirectory tenantDirectory;
+    private final ChangeVersionService changeVersionService;
+    private final TransactionTemplate transactionTemplate;
+
+    public UserService(JdbcTemplate jdbc, PasswordEncoder passwordEncoder, AuditLog auditLog, TenantDirectory tenantDirectory,
+                       ChangeVersionService changeVersionService, PlatformTransactionManager transactionManager) {
+        this.jdbc = jdbc;
+        this.passwordEncoder = passwordEncoder;
+        this.auditLog = auditLog;
+        this.tenantDirectory = tenantDirectory;
+        this.changeVersionService = changeVersionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Transactional
+    public User addUser(User user, Long orgId) {
+        User newUser = insertUser(user);
+        linkUserToOrganization(newUser, orgId);
+        changeVersionService.bump(orgId, ChangeVersionService.Collection.MEMBERSHIPS);
+        tenantDirectory.evictUser(newUser.email());
+        auditLog.publish(orgId, "user.create", "USER", newUser.email(), newUser.role());
+        return newUser;
+    }
+
+    private User insertUser(User user) {
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            return jdbc.queryForObject(INSERT_USER_QUERY, new UserRowMapper(), user.name(), user.email(), user.password(), user.role(), user.description(), Timestamp.valueOf(now), Timestamp.valueOf(now));
+        } catch (DuplicateKeyException e) {
+            throw new IllegalStateException("Email already exists: " + user.email(), e);
+        }
+    }
+
+    private void linkUserToOrganization(User user, Long orgId) {
+        LocalDateTime now = LocalDateTime.now();
+        jdbc.update(conn -> {
+            PreparedStatement ps = conn.prepareStatement(INSERT_ORG_USER_QUERY);
+            ps.setString(1, user.email());
+            ps.setLong(2, orgId);
+            ps.setString(3, user.role());
+            ps.setBoolean(4, true);
+            ps.setTimestamp(5, Timestamp.valueOf(now));
+            return ps;
+        });
+    }
+
+    @Transactional
+    public boolean removeUser(String email) {
+        // Read before the delete cascades the memberships away.
+        List<Long> orgIds = jdbc.queryForList(GET_USER_ORG_IDS_QUERY, Long.class, email);
+        boolean removed = jdbc.update(DELETE_USER_QUERY, email) > 0;
+        if (removed) {
+            for (Long orgId : orgIds) {
+                changeVersionService.bump(orgId, ChangeVersionService.Collection.MEMBERSHIPS);
+            }
+            tenantDirectory.evictUser(email);
+            auditLog.publish(null, "user.delete", "USER", email, null);
+        }
+        return removed;
+    }
+
+    public List<User> getUserByOrgId(Long orgId, int limit, int skip) {
+        return getUserByOrgId(orgId, limit, skip, UserProjection.DEFAULT);
+    }
+
+    public List<User> getUserByOrgId(Long orgId, int limit, int skip, UserProjection projection) {
+        int effectiveLimit = Math.min(Math.max(limit, 1), 100);
+        int effectiveSkip = Math.max(skip, 0);
+
+        String sql = GET_USERS_BY_ORG_ID_QUERY.formatted(projection.selectList("u"));
+        return SqlStatementNames.named("UserService.GET_USERS_BY_ORG_ID_QUERY",
+                () -> jdbc.query(sql, (rs, rowNum) -> projection.mapRow(rs), orgId, effectiveLimit, effectiveSkip));
+    }
+
+    /**
+     * Typeahead search over the org's users by name or email. Prefix matches rank first, then trigram similarity.
+     */
+    public List<User> searchUsers(Long orgId, String query, int limit) {
+        if (isBlank(query)) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        String lowered = query.trim().toLowerCase();
+        String prefixPattern = LikePatterns.prefix(lowered);
+        String matchPattern = lowered.length() < MIN_SUBSTRING_QUERY_LENGTH ? prefixPattern : LikePatterns.contains(lowered);
+        int effectiveLimit = Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS);
+
+        String sql = SEARCH_USERS_QUERY.formatted(SEARCH_PROJECTION.selectList("u"));
+        return SqlStatementNames.named("UserService.SEARCH_USERS_QUERY", () -> jdbc.query(sql, (rs, rowNum) -> SEARCH_PROJECTION.mapRow(rs),
+                orgId, matchPattern, matchPattern, prefixPattern, prefixPattern, lowered, lowered, effectiveLimit));
+    }
+
+    public User updateUser(String email, User user) {
+        return updateUser(email, user, null);
+    }
+
+    /**
+     * Applies the update only if the row is still at {@code expectedVersion}; null updates unconditionally.
+     */
+    public User updateUser(String email, User user, Long expectedVersion) {
+        String name = isBlank(user.name()) ? null : user.name().trim();
+        String password = isBlank(user.password()) ? null : passwordEncoder.encode(user.password());
+
+        // The hash is computed first, so the transaction holds a connection only for the update.
+        return transactionTemplate.execute(status -> {
+            User updated = jdbc.query(UPDATE_USER_QUERY, new UserRowMapper(),
+                    name, password, user.description(), Timestamp.valueOf(LocalDateTime.now()), email, email, expectedVersion, expectedVersion)
+                    .stream().findFirst().orElse(null);
+            if (updated == null) {
+                Integer matching = jdbc.queryForObject(COUNT_USERS_BY_EMAIL_QUERY, Integer.class, email);
+                if (matching != null && matching > 1) {
+                    throw new IllegalArgumentException("Email " + email + " matches more than one user");
+                }
+                if (expectedVersion != null && matching != null && matching == 1) {
+                    throw new VersionConflictException("User was modified concurrently");
+                }
+                throw new IllegalStateException("User not found for update");
+            }
+            tenantDirectory.evictUser(updated.email());
+            auditLog.publish(null, "user.update", "USER", updated.email(), password == null ? null : "password changed");
+            return updated;
+        });
+    }
+
+    public User getUserByEmail(String email) {
+        if (isBlank(email)) {
+            throw new IllegalArgumentException("Email must not be empty");
+        }
+
+        return jdbc.query(GET_USER_BY_EMAIL_QUERY, new Object[]{email}, new UserRowMapper()).stream().findFirst().orElse(null);
+    }
+
+    private boolean isBlank(String str) {
+        return str == null || str.trim().isEmpty();
+    }
+}
@@ -0,0 +1,11 @@
+package com.one211.application.service;
+
+/**
+ * A conditional update named a row version the row no longer has; controllers answer 412 Precondition Failed.
+ */
+public class VersionConflictException extends RuntimeException {
+
+    public VersionConflictException(String message) {
+        super(message);
+    }
+}
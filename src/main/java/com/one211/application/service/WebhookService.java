@@ -0,0 +1,69 @@
+package com.one211.application.service;
+
+import com.one211.application.model.Webhook;
+import com.one211.application.model.WebhookRowMapper;
+import com.one211.application.outbox.WebhookUrlGuard;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+
+@Service
+public class WebhookService {
+
+    private static final String WEBHOOK_COLUMNS =
+            "id, org_id, url, secret, active, last_delivered_id, failure_count, next_attempt_at, last_error, creation_time";
+    // New endpoints start at the current end of the org's outbox, so they only receive later events.
+    private static final String INSERT_WEBHOOK_QUERY =
+            "INSERT INTO webhook (org_id, url, secret, last_delivered_txid, last_delivered_id) " +
+                    "SELECT ?, ?, ?, COALESCE(e.txid, '0'), COALESCE(e.id, 0) FROM (SELECT 1) one " +
+                    "LEFT JOIN LATERAL (SELECT txid, id FROM outbox_event WHERE org_id = ? ORDER BY txid DESC, id DESC LIMIT 1) e ON TRUE " +
+                    "RETURNING " + WEBHOOK_COLUMNS;
+    private static final String GET_WEBHOOKS_BY_ORG_QUERY =
+            "SELECT " + WEBHOOK_COLUMNS + " FROM webhook WHERE org_id = ? ORDER BY id";
+    private static final String DELETE_WEBHOOK_QUERY = "DELETE FROM webhook WHERE org_id = ? AND id = ?";
+
+    private final JdbcTemplate jdbc;
+    private final WebhookUrlGuard urlGuard;
+
+    public WebhookService(JdbcTemplate jdbc, WebhookUrlGuard urlGuard) {
+        this.jdbc = jdbc;
+        this.urlGuard = urlGuard;
+    }
+
+    public Webhook register(Long orgId, Webhook webhook) {
+        String url = validateUrl(webhook.url());
+        try {
+            return jdbc.queryForObject(INSERT_WEBHOOK_QUERY, new WebhookRowMapper(), orgId, url, webhook.secret(), orgId);
+        } catch (DuplicateKeyException e) {
+            throw new IllegalStateException("Webhook already registered: " + url, e);
+        }
+    }
+
+    public List<Webhook> getWebhooks(Long orgId) {
+        return jdbc.query(GET_WEBHOOKS_BY_ORG_QUERY, new WebhookRowMapper(), orgId);
+    }
+
+    public boolean deleteWebhook(Long orgId, Long id) {
+        return jdbc.update(DELETE_WEBHOOK_QUERY, orgId, id) > 0;
+    }
+
+    private String validateUrl(String url) {
+        if (url == null || url.isBlank()) {
+            throw new IllegalArgumentException("Webhook url must not be empty");
+        }
+        try {
+            URI uri = new URI(url.trim());
+            if (!"http".equalsIgnoreCase(uri.getScheme()) && !"https".equalsIgnoreCase(uri.getScheme()) || uri.getHost() == null) {
+                throw new IllegalArgumentException("Webhook url must be an absolute http(s) url");
+            }
+            urlGuard.check(uri);
+            return uri.toString();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid webhook url: " + url, e);
+        }
+    }
+}
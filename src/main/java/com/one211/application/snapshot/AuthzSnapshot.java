@@ -0,0 +1,231 @@
+package com.one211.application.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read side of an org's authorization snapshot, answering access checks straight from the memory-mapped file:
+ * names are found by binary search over the file's bytes and access is a single bit read, so nothing is decoded
+ * up front and a check allocates only the UTF-8 bytes of the names it is given. Depends on the JDK alone, so
+ * node agents can copy this class without the rest of the application.
+ * <p>
+ * Layout, little-endian; every section starts on an 8-byte boundary:
+ * <pre>
+ *  0  int   magic "AZSN"          36  int  group count
+ *  4  int   format version (1)    40  int  cluster count
+ *  8  long  org id                44  int  reserved (0)
+ * 16  long  snapshot version      48  int  users offset         60  int  user clusters offset
+ * 24  long  created at, epoch ms  52  int  groups offset        64  int  user groups offset
+ * 32  int   user count            56  int  clusters offset      68  int  group clusters offset
+ * </pre>
+ * A dictionary holds {@code count + 1} int start positions followed by the UTF-8 bytes of its names, sorted by
+ * unsigned byte order; a name's index is its id. A matrix holds one row of {@code ceil(columns / 64)} longs per
+ * row id, bit {@code c % 64} of long {@code c / 64} set when the row reaches column {@code c}:
+ * <ul>
+ *     <li>user clusters: every cluster the user may access, directly or through any group;</li>
+ *     <li>user groups: every group the user belongs to, directly or through nesting;</li>
+ *     <li>group clusters: every cluster assigned to the group or to a group containing it.</li>
+ * </ul>
+ * The snapshot version grows with every change to the org's clusters, groups, memberships and assignments.
+ * Files are replaced by rename, so a mapping stays valid, and unchanged, after a newer snapshot is published.
+ */
+public final class AuthzSnapshot {
+
+    static final int MAGIC = 0x4E535A41;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_SIZE = 72;
+
+    private final ByteBuffer buffer;
+    private final Dictionary users;
+    private final Dictionary groups;
+    private final Dictionary clusters;
+    private final int userClusters;
+    private final int userGroups;
+    private final int groupClusters;
+
+    private AuthzSnapshot(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer.order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not an authorization snapshot");
+        }
+        if (buffer.getInt(4) != FORMAT_VERSION) {
+            throw new IOException("Unsupported authorization snapshot format " + buffer.getInt(4));
+        }
+        this.users = new Dictionary(buffer.getInt(48), buffer.getInt(32));
+        this.groups = new Dictionary(buffer.getInt(52), buffer.getInt(36));
+        this.clusters = new Dictionary(buffer.getInt(56), buffer.getInt(40));
+        this.userClusters = buffer.getInt(60);
+        this.userGroups = buffer.getInt(64);
+        this.groupClusters = buffer.getInt(68);
+    }
+
+    /**
+     * Maps the file read-only; the channel is closed again at once, as the mapping does not need it.
+     */
+    public static AuthzSnapshot map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new AuthzSnapshot(mapped);
+        }
+    }
+
+    /**
+     * Reads a snapshot held in memory, e.g. one received over the network.
+     */
+    public static AuthzSnapshot wrap(ByteBuffer buffer) throws IOException {
+        return new AuthzSnapshot(buffer.slice());
+    }
+
+    public long orgId() {
+        return buffer.getLong(8);
+    }
+
+    public long version() {
+        return buffer.getLong(16);
+    }
+
+    public long createdAtMillis() {
+        return buffer.getLong(24);
+    }
+
+    public int userCount() {
+        return users.count;
+    }
+
+    public int groupCount() {
+        return groups.count;
+    }
+
+    public int clusterCount() {
+        return clusters.count;
+    }
+
+    /**
+     * @return the user's id in this snapshot, or -1 when the user is not a member of the org
+     */
+    public int userId(String user) {
+        return users.find(user);
+    }
+
+    public int groupId(String group) {
+        return groups.find(group);
+    }
+
+    public int clusterId(String cluster) {
+        return clusters.find(cluster);
+    }
+
+    public boolean canAccess(String user, String cluster) {
+        return canAccess(userId(user), clusterId(cluster));
+    }
+
+    /**
+     * For callers that resolve ids once and check many times; false for an id of -1.
+     */
+    public boolean canAccess(int userId, int clusterId) {
+        return bit(userClusters, clusters.count, userId, users.count, clusterId);
+    }
+
+    public boolean isMember(String user, String group) {
+        return bit(userGroups, groups.count, userId(user), users.count, groupId(group));
+    }
+
+    public boolean groupCanAccess(String group, String cluster) {
+        return bit(groupClusters, clusters.count, groupId(group), groups.count, clusterId(cluster));
+    }
+
+    public String userName(int userId) {
+        return users.name(userId);
+    }
+
+    public String groupName(int groupId) {
+        return groups.name(groupId);
+    }
+
+    public String clusterName(int clusterId) {
+        return clusters.name(clusterId);
+    }
+
+    private boolean bit(int matrix, int columns, int row, int rows, int column) {
+        if (row < 0 || row >= rows || column < 0 || column >= columns) {
+            return false;
+        }
+        // The writer keeps files under 2 GB, so int positions cannot overflow.
+        int position = matrix + (row * words(columns) + (column >>> 6)) * Long.BYTES;
+        return (buffer.getLong(position) & (1L << column)) != 0;
+    }
+
+    static int words(int columns) {
+        return (columns + 63) >>> 6;
+    }
+
+    /**
+     * A sorted name table inside the buffer; see the class comment for its layout.
+     */
+    private final class Dictionary {
+
+        private final int offset;
+        private final int count;
+        private final int bytes;
+
+        Dictionary(int offset, int count) {
+            this.offset = offset;
+            this.count = count;
+            this.bytes = offset + (count + 1) * Integer.BYTES;
+        }
+
+        int find(String name) {
+            if (name == null) {
+                return -1;
+            }
+            byte[] key = name.getBytes(StandardCharsets.UTF_8);
+            int low = 0;
+            int high = count - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int order = compare(mid, key);
+                if (order < 0) {
+                    low = mid + 1;
+                } else if (order > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -1;
+        }
+
+        String name(int id) {
+            if (id < 0 || id >= count) {
+                throw new IndexOutOfBoundsException(id);
+            }
+            int start = start(id);
+            byte[] name = new byte[start(id + 1) - start];
+            buffer.get(bytes + start, name);
+            return new String(name, StandardCharsets.UTF_8);
+        }
+
+        private int compare(int id, byte[] key) {
+            int start = bytes + start(id);
+            int length = start(id + 1) - start(id);
+            int common = Math.min(length, key.length);
+            for (int i = 0; i < common; i++) {
+                int order = Byte.compareUnsigned(buffer.get(start + i), key[i]);
+                if (order != 0) {
+                    return order;
+                }
+            }
+            return Integer.compare(length, key.length);
+        }
+
+        private int start(int id) {
+            return buffer.getInt(offset + id * Integer.BYTES);
+        }
+    }
+}
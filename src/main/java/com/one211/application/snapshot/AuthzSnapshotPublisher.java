@@ -0,0 +1,182 @@
+package com.one211.application.snapshot;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes an {@link AuthzSnapshot} file per org into {@code authz-snapshot.dir}, for node agents that read access
+ * checks from the mapped file instead of calling the API. Disabled while the directory is not set.
+ * <p>
+ * An org's snapshot version is the sum of its change versions, which every write to its clusters, groups,
+ * memberships and assignments bumps; a round only rebuilds the orgs whose version moved. Each snapshot is read in
+ * one repeatable-read transaction, so its version and contents match. Files of deleted orgs are removed.
+ */
+@Component
+public class AuthzSnapshotPublisher {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthzSnapshotPublisher.class);
+
+    private static final String FILE_PREFIX = "org-";
+    private static final String FILE_SUFFIX = ".authz";
+
+    private static final String ORG_VERSIONS_QUERY =
+            "SELECT o.id, COALESCE(SUM(v.version), 0) FROM organization o " +
+                    "LEFT JOIN org_change_version v ON v.org_id = o.id WHERE o.deleted_at IS NULL GROUP BY o.id";
+    private static final String ORG_VERSION_QUERY = "SELECT COALESCE(SUM(version), 0) FROM org_change_version WHERE org_id = ?";
+    private static final String ORG_USERS_QUERY = "SELECT user_name FROM user_org WHERE org_id = ?";
+    private static final String ORG_GROUPS_QUERY = "SELECT name FROM \"group\" WHERE org_id = ?";
+    private static final String ORG_CLUSTERS_QUERY = "SELECT name FROM cluster WHERE org_id = ?";
+    private static final String ORG_MEMBERSHIPS_QUERY =
+            "SELECT ug.user_name, c.ancestor_name FROM user_group ug " +
+                    "JOIN group_closure c ON c.org_id = ug.org_id AND c.descendant_name = ug.group_name WHERE ug.org_id = ?";
+    private static final String ORG_USER_ASSIGNMENTS_QUERY =
+            "SELECT source_name, cluster_name FROM cluster_association WHERE org_id = ? AND source_type = 'USER'";
+    // A group inherits the clusters of every group containing it, as its members are members of those too.
+    private static final String ORG_GROUP_ASSIGNMENTS_QUERY =
+            "SELECT c.descendant_name, ca.cluster_name FROM group_closure c " +
+                    "JOIN cluster_association ca ON ca.org_id = c.org_id AND ca.source_type = 'GROUP' AND ca.source_name = c.ancestor_name " +
+                    "WHERE c.org_id = ?";
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate transactionTemplate;
+    private final String directory;
+    private final long intervalMillis;
+    private final Map<Long, Long> published = new ConcurrentHashMap<>();
+    private boolean scanned;
+    private ScheduledExecutorService scheduler;
+
+    public AuthzSnapshotPublisher(JdbcTemplate jdbc, PlatformTransactionManager transactionManager,
+                                  @Value("${authz-snapshot.dir:}") String directory,
+                                  @Value("${authz-snapshot.interval-ms:10000}") long intervalMillis) {
+        this.jdbc = jdbc;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate.setReadOnly(true);
+        this.directory = directory;
+        this.intervalMillis = intervalMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (directory.isBlank()) {
+            log.info("Authorization snapshots disabled; set authz-snapshot.dir to publish them");
+            return;
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "authz-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::publishSafely, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    /**
+     * Rewrites the snapshot of every org whose version changed since its file was written, and deletes the files
+     * of orgs that no longer exist. After a restart the versions are taken from the files already there.
+     */
+    void publish() throws IOException {
+        Path dir = Path.of(directory);
+        if (!scanned) {
+            Files.createDirectories(dir);
+            scan(dir);
+            scanned = true;
+        }
+        Map<Long, Long> versions = new HashMap<>();
+        jdbc.query(ORG_VERSIONS_QUERY, rs -> {
+            versions.put(rs.getLong(1), rs.getLong(2));
+        });
+        int written = 0;
+        for (Map.Entry<Long, Long> org : versions.entrySet()) {
+            if (org.getValue() > published.getOrDefault(org.getKey(), -1L)) {
+                published.put(org.getKey(), write(org.getKey(), file(dir, org.getKey())));
+                written++;
+            }
+        }
+        for (Long orgId : List.copyOf(published.keySet())) {
+            if (!versions.containsKey(orgId)) {
+                Files.deleteIfExists(file(dir, orgId));
+                published.remove(orgId);
+            }
+        }
+        if (written > 0) {
+            log.debug("Published {} authorization snapshots to {}", written, dir);
+        }
+    }
+
+    /**
+     * @return the version written
+     */
+    long write(long orgId, Path file) throws IOException {
+        AuthzSnapshotWriter writer = transactionTemplate.execute(status -> {
+            Long version = jdbc.queryForObject(ORG_VERSION_QUERY, Long.class, orgId);
+            AuthzSnapshotWriter snapshot = new AuthzSnapshotWriter(orgId, version == null ? 0 : version, System.currentTimeMillis(),
+                    jdbc.queryForList(ORG_USERS_QUERY, String.class, orgId),
+                    jdbc.queryForList(ORG_GROUPS_QUERY, String.class, orgId),
+                    jdbc.queryForList(ORG_CLUSTERS_QUERY, String.class, orgId));
+            jdbc.query(ORG_MEMBERSHIPS_QUERY, rs -> {
+                snapshot.member(rs.getString(1), rs.getString(2));
+            }, orgId);
+            jdbc.query(ORG_USER_ASSIGNMENTS_QUERY, rs -> {
+                snapshot.userAssignment(rs.getString(1), rs.getString(2));
+            }, orgId);
+            jdbc.query(ORG_GROUP_ASSIGNMENTS_QUERY, rs -> {
+                snapshot.groupAssignment(rs.getString(1), rs.getString(2));
+            }, orgId);
+            return snapshot;
+        });
+        writer.writeTo(file);
+        return writer.version();
+    }
+
+    public static Path file(Path dir, long orgId) {
+        return dir.resolve(FILE_PREFIX + orgId + FILE_SUFFIX);
+    }
+
+    private void scan(Path dir) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                try {
+                    AuthzSnapshot snapshot = AuthzSnapshot.map(file);
+                    published.put(snapshot.orgId(), snapshot.version());
+                } catch (IOException e) {
+                    log.warn("Ignoring unreadable authorization snapshot {}: {}", file, e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void publishSafely() {
+        try {
+            publish();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Authorization snapshot publishing failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.one211.application.snapshot;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds an {@link AuthzSnapshot} file from an org's names and relations. Memberships must already be
+ * transitive and group assignments already inherited from containing groups, as a query over
+ * {@code group_closure} returns them; user access is derived here by OR-ing the rows of the user's groups.
+ * Relations naming an unknown user, group or cluster are ignored.
+ */
+public final class AuthzSnapshotWriter {
+
+    private final long orgId;
+    private final long version;
+    private final long createdAtMillis;
+    private final Names users;
+    private final Names groups;
+    private final Names clusters;
+    private final long[] userClusters;
+    private final long[] userGroups;
+    private final long[] groupClusters;
+
+    public AuthzSnapshotWriter(long orgId, long version, long createdAtMillis,
+                               Collection<String> users, Collection<String> groups, Collection<String> clusters) {
+        this.orgId = orgId;
+        this.version = version;
+        this.createdAtMillis = createdAtMillis;
+        this.users = new Names(users);
+        this.groups = new Names(groups);
+        this.clusters = new Names(clusters);
+        this.userClusters = new long[this.users.size() * AuthzSnapshot.words(this.clusters.size())];
+        this.userGroups = new long[this.users.size() * AuthzSnapshot.words(this.groups.size())];
+        this.groupClusters = new long[this.groups.size() * AuthzSnapshot.words(this.clusters.size())];
+    }
+
+    public long version() {
+        return version;
+    }
+
+    public AuthzSnapshotWriter member(String user, String group) {
+        set(userGroups, groups.size(), users.id(user), groups.id(group));
+        return this;
+    }
+
+    public AuthzSnapshotWriter userAssignment(String user, String cluster) {
+        set(userClusters, clusters.size(), users.id(user), clusters.id(cluster));
+        return this;
+    }
+
+    public AuthzSnapshotWriter groupAssignment(String group, String cluster) {
+        set(groupClusters, clusters.size(), groups.id(group), clusters.id(cluster));
+        return this;
+    }
+
+    public byte[] toBytes() {
+        int usersOffset = AuthzSnapshot.HEADER_SIZE;
+        int groupsOffset = usersOffset + users.sectionSize();
+        int clustersOffset = groupsOffset + groups.sectionSize();
+        int userClustersOffset = clustersOffset + clusters.sectionSize();
+        long userGroupsOffset = userClustersOffset + (long) userClusters.length * Long.BYTES;
+        long groupClustersOffset = userGroupsOffset + (long) userGroups.length * Long.BYTES;
+        long size = groupClustersOffset + (long) groupClusters.length * Long.BYTES;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Authorization snapshot for org " + orgId + " exceeds 2 GB");
+        }
+
+        ByteBuffer out = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        out.putInt(AuthzSnapshot.MAGIC).putInt(AuthzSnapshot.FORMAT_VERSION)
+                .putLong(orgId).putLong(version).putLong(createdAtMillis)
+                .putInt(users.size()).putInt(groups.size()).putInt(clusters.size()).putInt(0)
+                .putInt(usersOffset).putInt(groupsOffset).putInt(clustersOffset)
+                .putInt(userClustersOffset).putInt((int) userGroupsOffset).putInt((int) groupClustersOffset);
+        users.writeTo(out);
+        groups.writeTo(out);
+        clusters.writeTo(out);
+
+        // Effective access: direct assignments plus every cluster reachable through one of the user's groups.
+        int clusterWords = AuthzSnapshot.words(clusters.size());
+        int groupWords = AuthzSnapshot.words(groups.size());
+        long[] row = new long[clusterWords];
+        for (int user = 0; user < users.size(); user++) {
+            System.arraycopy(userClusters, user * clusterWords, row, 0, clusterWords);
+            for (int word = 0; word < groupWords; word++) {
+                for (long bits = userGroups[user * groupWords + word]; bits != 0; bits &= bits - 1) {
+                    int group = word * 64 + Long.numberOfTrailingZeros(bits);
+                    for (int i = 0; i < clusterWords; i++) {
+                        row[i] |= groupClusters[group * clusterWords + i];
+                    }
+                }
+            }
+            for (long bits : row) {
+                out.putLong(bits);
+            }
+        }
+        for (long bits : userGroups) {
+            out.putLong(bits);
+        }
+        for (long bits : groupClusters) {
+            out.putLong(bits);
+        }
+        return out.array();
+    }
+
+    /**
+     * Writes to a temporary file beside {@code file}, forces it to disk and renames it over {@code file}, so a
+     * reader sees either the previous snapshot or the whole new one.
+     */
+    public void writeTo(Path file) throws IOException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer bytes = ByteBuffer.wrap(toBytes());
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static void set(long[] matrix, int columns, int row, int column) {
+        if (row >= 0 && column >= 0) {
+            matrix[row * AuthzSnapshot.words(columns) + (column >>> 6)] |= 1L << column;
+        }
+    }
+
+    /**
+     * A dictionary: distinct names sorted by their UTF-8 bytes, unsigned, as {@link AuthzSnapshot} searches them.
+     */
+    private static final class Names {
+
+        private final byte[][] sorted;
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        Names(Collection<String> names) {
+            List<String> distinct = new ArrayList<>(new HashSet<>(names));
+            byte[][] encoded = new byte[distinct.size()][];
+            Integer[] order = new Integer[distinct.size()];
+            for (int i = 0; i < encoded.length; i++) {
+                encoded[i] = distinct.get(i).getBytes(StandardCharsets.UTF_8);
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Arrays.compareUnsigned(encoded[a], encoded[b]));
+            sorted = new byte[encoded.length][];
+            for (int id = 0; id < order.length; id++) {
+                sorted[id] = encoded[order[id]];
+                ids.put(distinct.get(order[id]), id);
+            }
+        }
+
+        int size() {
+            return sorted.length;
+        }
+
+        int id(String name) {
+            Integer id = ids.get(name);
+            return id == null ? -1 : id;
+        }
+
+        int sectionSize() {
+            int bytes = 0;
+            for (byte[] name : sorted) {
+                bytes += name.length;
+            }
+            return align((sorted.length + 1) * Integer.BYTES + bytes);
+        }
+
+        void writeTo(ByteBuffer out) {
+            int start = out.position();
+            int position = 0;
+            for (byte[] name : sorted) {
+                out.putInt(position);
+                position += name.length;
+            }
+            out.putInt(position);
+            for (byte[] name : sorted) {
+                out.put(name);
+            }
+            out.position(start + sectionSize());
+        }
+
+        private static int align(int size) {
+            return (size + 7) & ~7;
+        }
+    }
+}
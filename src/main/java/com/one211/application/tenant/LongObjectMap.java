@@ -0,0 +1,182 @@
+package com.one211.application.tenant;
+
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to non-null values, without boxing a key or
+ * allocating an entry per mapping. Reads are optimistic and take no lock unless they overlap a write;
+ * writes are serialized.
+ */
+final class LongObjectMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    /**
+     * Keys and values of one capacity, replaced as a unit so a reader never pairs arrays of different lengths.
+     * A slot is empty when its value is null.
+     */
+    private record Table(long[] keys, Object[] values) {
+        Table(int capacity) {
+            this(new long[capacity], new Object[capacity]);
+        }
+    }
+
+    private final StampedLock lock = new StampedLock();
+    private Table table;
+    private int size;
+
+    LongObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    LongObjectMap(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    V get(long key) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp != 0) {
+            V value = find(table, key);
+            if (lock.validate(stamp)) {
+                return value;
+            }
+        }
+        stamp = lock.readLock();
+        try {
+            return find(table, key);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Returns the previous value, or null.
+     */
+    V put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("Null values are not supported");
+        }
+        long stamp = lock.writeLock();
+        try {
+            if ((size + 1) * 2 > table.keys.length) {
+                table = rehash(table, table.keys.length * 2);
+            }
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = keys.length - 1;
+            for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+                if (values[i] == null) {
+                    keys[i] = key;
+                    values[i] = value;
+                    size++;
+                    return null;
+                }
+                if (keys[i] == key) {
+                    @SuppressWarnings("unchecked")
+                    V previous = (V) values[i];
+                    values[i] = value;
+                    return previous;
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Returns the removed value, or null. Later entries of the probe run are shifted back, so no tombstones build up.
+     */
+    V remove(long key) {
+        long stamp = lock.writeLock();
+        try {
+            long[] keys = table.keys;
+            Object[] values = table.values;
+            int mask = keys.length - 1;
+            int i = slot(key, mask);
+            while (values[i] != null && keys[i] != key) {
+                i = (i + 1) & mask;
+            }
+            if (values[i] == null) {
+                return null;
+            }
+            @SuppressWarnings("unchecked")
+            V removed = (V) values[i];
+            int gap = i;
+            for (int j = (gap + 1) & mask; values[j] != null; j = (j + 1) & mask) {
+                int home = slot(keys[j], mask);
+                // Move j into the gap unless its home slot lies cyclically in (gap, j].
+                if (((j - home) & mask) >= ((j - gap) & mask)) {
+                    keys[gap] = keys[j];
+                    values[gap] = values[j];
+                    gap = j;
+                }
+            }
+            values[gap] = null;
+            size--;
+            return removed;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    int size() {
+        long stamp = lock.readLock();
+        try {
+            return size;
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * May see a torn table when racing a writer; callers validate a stamp before trusting the result.
+     * Loads stay at or below one half, so the probe always reaches an empty slot.
+     */
+    @SuppressWarnings("unchecked")
+    private static <V> V find(Table table, long key) {
+        long[] keys = table.keys;
+        Object[] values = table.values;
+        int mask = keys.length - 1;
+        for (int i = slot(key, mask); ; i = (i + 1) & mask) {
+            Object value = values[i];
+            if (value == null) {
+                return null;
+            }
+            if (keys[i] == key) {
+                return (V) value;
+            }
+        }
+    }
+
+    private static Table rehash(Table old, int capacity) {
+        Table resized = new Table(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < old.keys.length; i++) {
+            if (old.values[i] != null) {
+                int j = slot(old.keys[i], mask);
+                while (resized.values[j] != null) {
+                    j = (j + 1) & mask;
+                }
+                resized.keys[j] = old.keys[i];
+                resized.values[j] = old.values[i];
+            }
+        }
+        return resized;
+    }
+
+    /**
+     * Ids are sequential, so the key is mixed before masking to spread neighbours across the table.
+     */
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+}
@@ -0,0 +1,202 @@
+package com.one211.application.tenant;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Removes the rows of tombstoned organizations, queued by {@code OrganizationService.deleteOrg}.
+ * Each table is emptied in chunks of {@code org-deletion.chunk-size} rows, one short transaction per chunk with a
+ * pause in between, so no single statement holds locks or writes WAL for the whole org. The chunk and the job's
+ * progress commit together: a restart resumes at the recorded table and the row count stays exact.
+ * <p>
+ * Dependent tables go first, so the final {@code DELETE FROM organization} has nothing left to cascade to.
+ * <p>
+ * An instance claims a job by leasing it for {@code org-deletion.lease-ms}, renewed with every chunk, so instances
+ * sharing the database never delete the same org at once. A failed job keeps its lease until it lapses, which is
+ * when it is retried.
+ * <p>
+ * Claiming a job also marks its org deleted in this instance's {@link TenantDirectory}, so requests for it are
+ * refused from memory here even before the directory's next reload.
+ */
+@Component
+public class OrgDeletionWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(OrgDeletionWorker.class);
+
+    private static final String CLAIM_JOB_QUERY =
+            "UPDATE org_deletion_job SET leased_by = ?, leased_until = now() + ? * INTERVAL '1 millisecond' WHERE org_id = (" +
+                    "SELECT org_id FROM org_deletion_job WHERE status <> 'DONE' AND (leased_until IS NULL OR leased_until < now()) " +
+                    "ORDER BY requested_at LIMIT 1 FOR UPDATE SKIP LOCKED) " +
+                    "RETURNING org_id, phase";
+    // Partitioned tables have no single-column key; the org_id predicate keeps both scans on one partition.
+    private static final String DELETE_USER_GROUP_CHUNK_QUERY = chunk("user_group");
+    private static final String DELETE_GROUP_CLOSURE_CHUNK_QUERY = chunk("group_closure");
+    private static final String DELETE_GROUP_NESTING_CHUNK_QUERY = chunk("group_nesting");
+    private static final String DELETE_CLUSTER_ASSOCIATION_CHUNK_QUERY = chunk("cluster_association");
+    private static final String DELETE_GROUP_CHUNK_QUERY = chunk("\"group\"");
+    private static final String DELETE_CLUSTER_CHUNK_QUERY = chunk("cluster");
+    private static final String DELETE_USER_ORG_CHUNK_QUERY = chunk("user_org");
+    private static final String DELETE_WEBHOOK_CHUNK_QUERY = chunk("webhook");
+    private static final String DELETE_OUTBOX_EVENT_CHUNK_QUERY = chunk("outbox_event");
+    private static final String DELETE_CHANGE_VERSIONS_QUERY = "DELETE FROM org_change_version WHERE org_id = ?";
+    private static final String DELETE_ORG_QUERY = "DELETE FROM organization WHERE id = ? AND deleted_at IS NOT NULL";
+    // Guarded by the lease: if it lapsed and another instance took the job over, these match nothing.
+    private static final String UPDATE_PROGRESS_QUERY =
+            "UPDATE org_deletion_job SET status = 'RUNNING', phase = ?, rows_deleted = rows_deleted + ?, updated_at = ?, last_error = NULL, " +
+                    "leased_until = now() + ? * INTERVAL '1 millisecond' WHERE org_id = ? AND leased_by = ?";
+    private static final String MARK_DONE_QUERY =
+            "UPDATE org_deletion_job SET status = 'DONE', phase = NULL, rows_deleted = rows_deleted + ?, updated_at = ?, completed_at = ?, last_error = NULL, " +
+                    "leased_by = NULL, leased_until = NULL WHERE org_id = ? AND leased_by = ?";
+    private static final String MARK_FAILED_QUERY = "UPDATE org_deletion_job SET last_error = ?, updated_at = ? WHERE org_id = ? AND leased_by = ?";
+
+    /**
+     * In deletion order: children before the rows their foreign keys point at.
+     */
+    private static final List<Phase> PHASES = List.of(
+            new Phase("user_group", DELETE_USER_GROUP_CHUNK_QUERY),
+            new Phase("group_closure", DELETE_GROUP_CLOSURE_CHUNK_QUERY),
+            new Phase("group_nesting", DELETE_GROUP_NESTING_CHUNK_QUERY),
+            new Phase("cluster_association", DELETE_CLUSTER_ASSOCIATION_CHUNK_QUERY),
+            new Phase("group", DELETE_GROUP_CHUNK_QUERY),
+            new Phase("cluster", DELETE_CLUSTER_CHUNK_QUERY),
+            new Phase("user_org", DELETE_USER_ORG_CHUNK_QUERY),
+            new Phase("webhook", DELETE_WEBHOOK_CHUNK_QUERY),
+            new Phase("outbox_event", DELETE_OUTBOX_EVENT_CHUNK_QUERY)
+    );
+
+    private final JdbcTemplate jdbc;
+    private final TenantDirectory tenantDirectory;
+    private final TransactionTemplate transactionTemplate;
+    private final long pollIntervalMillis;
+    private final int chunkSize;
+    private final long pauseMillis;
+    private final long leaseMillis;
+    private final UUID instanceId = UUID.randomUUID();
+    private ScheduledExecutorService scheduler;
+
+    public OrgDeletionWorker(JdbcTemplate jdbc, TenantDirectory tenantDirectory, PlatformTransactionManager transactionManager,
+                             @Value("${org-deletion.poll-interval-ms:5000}") long pollIntervalMillis,
+                             @Value("${org-deletion.chunk-size:1000}") int chunkSize,
+                             @Value("${org-deletion.pause-ms:100}") long pauseMillis,
+                             @Value("${org-deletion.lease-ms:60000}") long leaseMillis) {
+        this.jdbc = jdbc;
+        this.tenantDirectory = tenantDirectory;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.pollIntervalMillis = pollIntervalMillis;
+        this.chunkSize = chunkSize;
+        this.pauseMillis = pauseMillis;
+        this.leaseMillis = leaseMillis;
+    }
+
+    @PostConstruct
+    public void start() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "org-deletion");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::pollSafely, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * Claims unfinished jobs one at a time, oldest first, and runs each to completion. A job that fails keeps its
+     * progress and is retried once its lease lapses.
+     */
+    void poll() throws InterruptedException {
+        PendingJob job;
+        while ((job = claim()) != null) {
+            tenantDirectory.removeOrg(job.orgId());
+            try {
+                delete(job);
+            } catch (RuntimeException e) {
+                log.warn("Deleting org {} failed: {}", job.orgId(), e.getMessage());
+                jdbc.update(MARK_FAILED_QUERY, e.getClass().getSimpleName() + ": " + e.getMessage(),
+                        Timestamp.valueOf(LocalDateTime.now()), job.orgId(), instanceId);
+            }
+        }
+    }
+
+    private PendingJob claim() {
+        return jdbc.query(CLAIM_JOB_QUERY, (rs, rowNum) -> new PendingJob(rs.getLong(1), rs.getString(2)), instanceId, leaseMillis)
+                .stream().findFirst().orElse(null);
+    }
+
+    private void delete(PendingJob job) throws InterruptedException {
+        long start = System.nanoTime();
+        long total = 0;
+        for (int i = phaseIndex(job.phase()); i < PHASES.size(); i++) {
+            Phase phase = PHASES.get(i);
+            int deleted;
+            do {
+                deleted = transactionTemplate.execute(status -> {
+                    int rows = jdbc.update(phase.sql(), job.orgId(), job.orgId(), chunkSize);
+                    if (jdbc.update(UPDATE_PROGRESS_QUERY, phase.table(), rows, Timestamp.valueOf(LocalDateTime.now()), leaseMillis,
+                            job.orgId(), instanceId) == 0) {
+                        throw new IllegalStateException("Lease on the deletion of org " + job.orgId() + " was lost");
+                    }
+                    return rows;
+                });
+                total += deleted;
+                if (deleted == chunkSize && pauseMillis > 0) {
+                    Thread.sleep(pauseMillis);
+                }
+            } while (deleted == chunkSize);
+        }
+        total += transactionTemplate.execute(status -> {
+            int rows = jdbc.update(DELETE_CHANGE_VERSIONS_QUERY, job.orgId()) + jdbc.update(DELETE_ORG_QUERY, job.orgId());
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            if (jdbc.update(MARK_DONE_QUERY, rows, now, now, job.orgId(), instanceId) == 0) {
+                throw new IllegalStateException("Lease on the deletion of org " + job.orgId() + " was lost");
+            }
+            return rows;
+        });
+        log.info("Deleted org {}: {} rows in {} ms", job.orgId(), total, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static int phaseIndex(String table) {
+        for (int i = 0; i < PHASES.size(); i++) {
+            if (PHASES.get(i).table().equals(table)) {
+                return i;
+            }
+        }
+        return 0;
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Org deletion poll failed: {}", e.getMessage());
+        }
+    }
+
+    private static String chunk(String table) {
+        return "DELETE FROM " + table + " WHERE org_id = ? AND ctid = ANY(ARRAY(SELECT ctid FROM " + table + " WHERE org_id = ? LIMIT ?))";
+    }
+
+    private record Phase(String table, String sql) {}
+
+    private record PendingJob(long orgId, String phase) {}
+}
@@ -0,0 +1,415 @@
+package com.one211.application.tenant;
+
+import com.one211.application.model.Organization;
+import com.one211.application.model.OrganizationRowMapper;
+import com.one211.application.model.UserOrg;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory copy of organizations, users and their org memberships, which login and request authentication
+ * read instead of the database.
+ * <p>
+ * Every organization, deleted ones included, is loaded before the web server starts and reloaded every
+ * {@code tenant-directory.ttl-ms}; only an id it has never seen is looked up in the database, and the answer is kept
+ * until the next reload. Users are read with their memberships on first lookup, unknown emails included, and read
+ * again once their entry is older than {@code tenant-directory.ttl-ms}; beyond {@code tenant-directory.max-users}
+ * the least recently used are dropped.
+ * <p>
+ * The services that write those tables update or evict entries after their transaction commits; writes made
+ * elsewhere (another instance, a manual fix in psql) are seen within the TTL. Every local change bumps a generation,
+ * and a database read that started before it is not kept, so it cannot bring back what the write replaced.
+ */
+@Component
+public class TenantDirectory implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(TenantDirectory.class);
+
+    private static final String LOAD_ORGS_QUERY =
+            "SELECT id, name, description, created_at, updated_at, version, deleted_at IS NOT NULL AS deleted FROM organization";
+    private static final String GET_ORG_QUERY = LOAD_ORGS_QUERY + " WHERE id = ?";
+    private static final String GET_ORG_BY_NAME_QUERY = LOAD_ORGS_QUERY + " WHERE name = ? AND deleted_at IS NULL";
+    // Every account the email names ignoring case, with its memberships; see pick() for which one is meant.
+    private static final String GET_USERS_QUERY =
+            "SELECT u.name, u.email, u.password, u.role, uo.org_id, uo.role FROM \"user\" u " +
+                    "LEFT JOIN user_org uo ON uo.user_name = u.email WHERE LOWER(u.email) = LOWER(?)";
+
+    // Held for deleted orgs and for ids no org has, so neither sends a request to the database.
+    private static final OrgEntry NO_ORG = new OrgEntry(null);
+
+    private final JdbcTemplate jdbc;
+    private final long ttlMillis;
+    private final long ttlNanos;
+    // Access-ordered, so the least recently used email goes first; guarded by itself, as is userGeneration.
+    private final Map<String, Users> users;
+    private long userGeneration;
+    // Guards orgGeneration and every write to orgs and orgIdsByName.
+    private final Object orgLock = new Object();
+    private long orgGeneration;
+    private volatile LongObjectMap<OrgEntry> orgs = new LongObjectMap<>();
+    private volatile Map<String, Long> orgIdsByName = new ConcurrentHashMap<>();
+    private ScheduledExecutorService scheduler;
+    private volatile boolean running;
+
+    public TenantDirectory(JdbcTemplate jdbc,
+                           @Value("${tenant-directory.ttl-ms:30000}") long ttlMillis,
+                           @Value("${tenant-directory.max-users:100000}") int maxUsers) {
+        this.jdbc = jdbc;
+        this.ttlMillis = ttlMillis;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.users = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Users> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    /**
+     * Started in an earlier phase than the web server, so no request finds the organizations missing. Lifecycle beans
+     * also start after {@code spring.context.exit=onRefresh}, which keeps the CDS training run off the database.
+     */
+    @Override
+    public void start() {
+        load();
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tenant-directory");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::reloadOrgsSafely, ttlMillis, ttlMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    /**
+     * Replaces the organizations with a fresh read and forgets every user, who are read again on their next lookup.
+     */
+    public void load() {
+        long start = System.nanoTime();
+        synchronized (users) {
+            userGeneration++;
+            users.clear();
+        }
+        int loaded = reloadOrgs();
+        log.info("Tenant directory loaded {} orgs in {} ms", loaded, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * The org, or null when it is deleted or does not exist.
+     */
+    public Organization getOrg(long orgId) {
+        OrgEntry entry = orgs.get(orgId);
+        if (entry != null) {
+            return entry.org();
+        }
+        long generation = orgGeneration();
+        OrgEntry loaded = jdbc.query(GET_ORG_QUERY, (rs, rowNum) -> rs.getBoolean("deleted") ? NO_ORG : new OrgEntry(new OrganizationRowMapper().mapRow(rs, rowNum)), orgId)
+                .stream().findFirst().orElse(NO_ORG);
+        synchronized (orgLock) {
+            if (generation == orgGeneration) {
+                store(orgId, loaded);
+            }
+        }
+        return loaded.org();
+    }
+
+    public Organization getOrgByName(String name) {
+        if (name == null) {
+            return null;
+        }
+        Long orgId = orgIdsByName.get(name);
+        Organization org = orgId == null ? null : getOrg(orgId);
+        if (org != null && org.name().equals(name)) {
+            return org;
+        }
+        long generation = orgGeneration();
+        org = jdbc.query(GET_ORG_BY_NAME_QUERY, new OrganizationRowMapper(), name).stream().findFirst().orElse(null);
+        if (org != null) {
+            synchronized (orgLock) {
+                if (generation == orgGeneration) {
+                    store(org.id(), new OrgEntry(org));
+                }
+            }
+        }
+        return org;
+    }
+
+    /**
+     * The user with their global role, org fields null, or null when the email is unknown.
+     */
+    public UserOrg getUser(String email) {
+        Member member = member(email);
+        return member == null ? null : new UserOrg(member.name(), member.email(), member.password(), member.role(), null, null);
+    }
+
+    /**
+     * The user with their role in {@code orgId}, or null unless they are a member of that org.
+     */
+    public UserOrg getMembership(String email, long orgId) {
+        Member member = member(email);
+        String role = member == null ? null : member.roleIn(orgId);
+        Organization org = role == null ? null : getOrg(orgId);
+        return org == null ? null : new UserOrg(member.name(), member.email(), member.password(), role, orgId, org.name());
+    }
+
+    /**
+     * Every org the user belongs to, with role left null.
+     */
+    public List<UserOrg> getMemberships(String email) {
+        Member member = member(email);
+        if (member == null) {
+            return List.of();
+        }
+        List<UserOrg> memberships = new ArrayList<>(member.orgIds().length);
+        for (long orgId : member.orgIds()) {
+            Organization org = getOrg(orgId);
+            if (org != null) {
+                memberships.add(new UserOrg(member.name(), member.email(), member.password(), null, orgId, org.name()));
+            }
+        }
+        return memberships;
+    }
+
+    public void putOrg(Organization org) {
+        afterCommit(() -> {
+            synchronized (orgLock) {
+                orgGeneration++;
+                store(org.id(), new OrgEntry(org));
+            }
+        });
+    }
+
+    /**
+     * Remembers the org as deleted, so its requests are refused without asking the database.
+     */
+    public void removeOrg(long orgId) {
+        afterCommit(() -> {
+            synchronized (orgLock) {
+                orgGeneration++;
+                store(orgId, NO_ORG);
+            }
+        });
+    }
+
+    /**
+     * Forgets every account {@code email} names in any case; they are read again on their next lookup. Called for
+     * each write to a user or to their memberships.
+     */
+    public void evictUser(String email) {
+        afterCommit(() -> {
+            synchronized (users) {
+                userGeneration++;
+                users.remove(key(email));
+            }
+        });
+    }
+
+    private Member member(String email) {
+        if (email == null) {
+            return null;
+        }
+        String trimmed = email.trim();
+        String key = key(trimmed);
+        Users cached;
+        long generation;
+        synchronized (users) {
+            cached = users.get(key);
+            generation = userGeneration;
+        }
+        if (cached == null || System.nanoTime() - cached.loadedAt() >= ttlNanos) {
+            cached = loadUsers(trimmed);
+            synchronized (users) {
+                if (generation == userGeneration) {
+                    users.put(key, cached);
+                }
+            }
+        }
+        return pick(cached.byEmail(), trimmed);
+    }
+
+    private Users loadUsers(String email) {
+        Map<String, Member> found = new LinkedHashMap<>();
+        long loadedAt = System.nanoTime();
+        jdbc.query(GET_USERS_QUERY, rs -> {
+            String stored = rs.getString(2);
+            Member member = found.get(stored);
+            if (member == null) {
+                member = new Member(rs.getString(1), stored, rs.getString(3), rs.getString(4), new long[0], new String[0]);
+            }
+            long orgId = rs.getLong(5);
+            if (!rs.wasNull()) {
+                member = member.withOrg(orgId, rs.getString(6));
+            }
+            found.put(stored, member);
+        }, email);
+        return new Users(Map.copyOf(found), loadedAt);
+    }
+
+    /**
+     * The account {@code email} names: the one stored exactly so, otherwise the only one differing in case. An
+     * email matching several accounts only in case names none of them.
+     */
+    private static Member pick(Map<String, Member> found, String email) {
+        Member exact = found.get(email);
+        if (exact != null) {
+            return exact;
+        }
+        return found.size() == 1 ? found.values().iterator().next() : null;
+    }
+
+    /**
+     * Reads every organization and swaps them in, unless a local write landed during the read; the next reload
+     * then picks that up from the database.
+     *
+     * @return the number of orgs read
+     */
+    private int reloadOrgs() {
+        long generation = orgGeneration();
+        LongObjectMap<OrgEntry> loaded = new LongObjectMap<>(orgs.size());
+        Map<String, Long> loadedNames = new ConcurrentHashMap<>();
+        OrganizationRowMapper mapper = new OrganizationRowMapper();
+        jdbc.query(LOAD_ORGS_QUERY, rs -> {
+            if (rs.getBoolean("deleted")) {
+                loaded.put(rs.getLong("id"), NO_ORG);
+            } else {
+                Organization org = mapper.mapRow(rs, loaded.size());
+                loaded.put(org.id(), new OrgEntry(org));
+                loadedNames.put(org.name(), org.id());
+            }
+        });
+        synchronized (orgLock) {
+            if (generation == orgGeneration) {
+                orgs = loaded;
+                orgIdsByName = loadedNames;
+            } else {
+                log.debug("An organization changed during the tenant directory reload, keeping the current copy");
+            }
+        }
+        return loaded.size();
+    }
+
+    private void reloadOrgsSafely() {
+        try {
+            reloadOrgs();
+        } catch (RuntimeException e) {
+            log.warn("Tenant directory reload failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Callers hold orgLock.
+     */
+    private void store(long orgId, OrgEntry entry) {
+        OrgEntry previous = orgs.put(orgId, entry);
+        if (previous != null && previous.org() != null && (entry.org() == null || !previous.org().name().equals(entry.org().name()))) {
+            orgIdsByName.remove(previous.org().name(), orgId);
+        }
+        if (entry.org() != null) {
+            orgIdsByName.put(entry.org().name(), orgId);
+        }
+    }
+
+    private long orgGeneration() {
+        synchronized (orgLock) {
+            return orgGeneration;
+        }
+    }
+
+    /**
+     * Case variants of an email share one entry.
+     */
+    private static String key(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Applies {@code change} once the current transaction commits, or now when there is none.
+     */
+    private static void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    /**
+     * @param org null when the org is deleted or does not exist
+     */
+    private record OrgEntry(Organization org) {}
+
+    /**
+     * Every account one email names ignoring case, keyed by the email as stored; empty when there is none.
+     */
+    private record Users(Map<String, Member> byEmail, long loadedAt) {}
+
+    /**
+     * Immutable; a change replaces the whole entry. Org ids are sorted, parallel to their roles.
+     */
+    private record Member(String name, String email, String password, String role, long[] orgIds, String[] orgRoles) {
+
+        String roleIn(long orgId) {
+            int index = Arrays.binarySearch(orgIds, orgId);
+            return index < 0 ? null : orgRoles[index];
+        }
+
+        Member withOrg(long orgId, String orgRole) {
+            int index = Arrays.binarySearch(orgIds, orgId);
+            if (index >= 0) {
+                String[] roles = orgRoles.clone();
+                roles[index] = orgRole;
+                return new Member(name, email, password, role, orgIds, roles);
+            }
+            int insert = -index - 1;
+            long[] ids = new long[orgIds.length + 1];
+            String[] roles = new String[orgIds.length + 1];
+            System.arraycopy(orgIds, 0, ids, 0, insert);
+            System.arraycopy(orgRoles, 0, roles, 0, insert);
+            ids[insert] = orgId;
+            roles[insert] = orgRole;
+            System.arraycopy(orgIds, insert, ids, insert + 1, orgIds.length - insert);
+            System.arraycopy(orgRoles, insert, roles, insert + 1, orgIds.length - insert);
+            return new Member(name, email, password, role, ids, roles);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- Databases created by the old schema.sql have cluster, cluster_association, "group" and user_group as plain tables,
+-- on which V1's PARTITION OF statements fail. Their rows are copied to <table>_unpartitioned and the tables dropped,
+-- dependents first, so V1 creates them partitioned; V1_1 copies the rows back. A new database has none of them.
+DO $$
+DECLARE
+    t TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['user_group', 'cluster_association', 'group', 'cluster'] LOOP
+        IF to_regclass(quote_ident(t)) IS NOT NULL
+                AND NOT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(quote_ident(t))) THEN
+            EXECUTE format('CREATE TABLE %I AS TABLE %I', t || '_unpartitioned', t);
+            EXECUTE format('DROP TABLE %I', t);
+        END IF;
+    END LOOP;
+END $$;
@@ -0,0 +1,23 @@
+-- Copies the rows V0_1 set aside into the partitioned tables V1 created, parents before the tables referencing them.
+-- Columns are matched by name, so an old org_id INT becomes BIGINT and columns V1 added take their defaults.
+DO $$
+DECLARE
+    t TEXT;
+    column_list TEXT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY['cluster', 'group', 'cluster_association', 'user_group'] LOOP
+        IF to_regclass(quote_ident(t || '_unpartitioned')) IS NOT NULL THEN
+            SELECT string_agg(quote_ident(src.column_name), ', ' ORDER BY src.ordinal_position) INTO column_list
+            FROM information_schema.columns src
+            JOIN information_schema.columns dst
+                ON dst.table_schema = src.table_schema AND dst.table_name = t AND dst.column_name = src.column_name
+            WHERE src.table_schema = current_schema() AND src.table_name = t || '_unpartitioned';
+            EXECUTE format('INSERT INTO %I (%s) SELECT %s FROM %I', t, column_list, column_list, t || '_unpartitioned');
+            EXECUTE format('DROP TABLE %I', t || '_unpartitioned');
+        END IF;
+    END LOOP;
+END $$;
+
+-- Copied ids were not drawn from the new sequences.
+SELECT setval(pg_get_serial_sequence('cluster', 'id'), COALESCE(MAX(id), 0) + 1, false) FROM cluster;
+SELECT setval(pg_get_serial_sequence('"group"', 'id'), COALESCE(MAX(id), 0) + 1, false) FROM "group";
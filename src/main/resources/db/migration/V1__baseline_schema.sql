@@ -0,0 +1,195 @@
+-- USER TABLE
+CREATE TABLE IF NOT EXISTS "user" (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255),
+    email VARCHAR(255) UNIQUE,
+    password VARCHAR(255),
+    role VARCHAR(50),
+    description TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- ORGANIZATION TABLE
+CREATE TABLE IF NOT EXISTS organization (
+    id BIGSERIAL PRIMARY KEY,
+    name VARCHAR(255) UNIQUE,
+    description TEXT,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+-- USER_ORG TABLE
+CREATE TABLE IF NOT EXISTS user_org (
+    user_name VARCHAR(255) NOT NULL,
+    org_id BIGINT NOT NULL,
+    role VARCHAR(50) NOT NULL,
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    creation_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_user FOREIGN KEY (user_name) REFERENCES "user"(email) ON DELETE CASCADE,
+    CONSTRAINT fk_org FOREIGN KEY (org_id) REFERENCES organization(id) ON DELETE CASCADE
+);
+
+-- CLUSTER TABLE (hash partitioned by org_id like cluster_association, "group" and user_group: every query names one org, so it reads one partition)
+CREATE TABLE IF NOT EXISTS cluster (
+    id BIGSERIAL,
+    org_id BIGINT NOT NULL,
+    name VARCHAR(100) NOT NULL,
+    description TEXT,
+    active BOOLEAN DEFAULT TRUE,
+    creation_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT pk_cluster PRIMARY KEY (org_id, id),
+    CONSTRAINT unique_org_cluster_name UNIQUE (org_id, name)
+) PARTITION BY HASH (org_id);
+
+CREATE TABLE IF NOT EXISTS cluster_p0 PARTITION OF cluster FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE IF NOT EXISTS cluster_p1 PARTITION OF cluster FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE IF NOT EXISTS cluster_p2 PARTITION OF cluster FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE IF NOT EXISTS cluster_p3 PARTITION OF cluster FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE IF NOT EXISTS cluster_p4 PARTITION OF cluster FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE IF NOT EXISTS cluster_p5 PARTITION OF cluster FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE IF NOT EXISTS cluster_p6 PARTITION OF cluster FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE IF NOT EXISTS cluster_p7 PARTITION OF cluster FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+-- CLUSTER ASSOCIATION TABLE
+CREATE TABLE IF NOT EXISTS cluster_association (
+    source_name VARCHAR NOT NULL,
+    source_type VARCHAR NOT NULL CHECK (source_type IN ('USER', 'GROUP')),
+    cluster_name VARCHAR(100) NOT NULL,
+    org_id BIGINT NOT NULL,
+    creation_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_org FOREIGN KEY (org_id) REFERENCES organization(id) ON DELETE CASCADE,
+    CONSTRAINT fk_cluster FOREIGN KEY (org_id, cluster_name) REFERENCES cluster(org_id, name) ON DELETE CASCADE,
+    CONSTRAINT uq_source_cluster UNIQUE (source_name, source_type, cluster_name, org_id)
+) PARTITION BY HASH (org_id);
+
+CREATE TABLE IF NOT EXISTS cluster_association_p0 PARTITION OF cluster_association FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE IF NOT EXISTS cluster_association_p1 PARTITION OF cluster_association FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE IF NOT EXISTS cluster_association_p2 PARTITION OF cluster_association FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE IF NOT EXISTS cluster_association_p3 PARTITION OF cluster_association FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE IF NOT EXISTS cluster_association_p4 PARTITION OF cluster_association FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE IF NOT EXISTS cluster_association_p5 PARTITION OF cluster_association FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE IF NOT EXISTS cluster_association_p6 PARTITION OF cluster_association FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE IF NOT EXISTS cluster_association_p7 PARTITION OF cluster_association FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+-- GROUP TABLE
+CREATE TABLE IF NOT EXISTS "group" (
+    id BIGSERIAL,
+    name VARCHAR(255) NOT NULL,
+    description TEXT NOT NULL,
+    org_id BIGINT NOT NULL,
+    creation_time TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+
+    CONSTRAINT pk_group PRIMARY KEY (org_id, id),
+    CONSTRAINT fk_org FOREIGN KEY (org_id) REFERENCES organization(id) ON DELETE CASCADE,
+    CONSTRAINT unique_group_name_per_org UNIQUE (name, org_id)
+) PARTITION BY HASH (org_id);
+
+CREATE TABLE IF NOT EXISTS group_p0 PARTITION OF "group" FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE IF NOT EXISTS group_p1 PARTITION OF "group" FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE IF NOT EXISTS group_p2 PARTITION OF "group" FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE IF NOT EXISTS group_p3 PARTITION OF "group" FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE IF NOT EXISTS group_p4 PARTITION OF "group" FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE IF NOT EXISTS group_p5 PARTITION OF "group" FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE IF NOT EXISTS group_p6 PARTITION OF "group" FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE IF NOT EXISTS group_p7 PARTITION OF "group" FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+-- USER_GROUP TABLE
+CREATE TABLE IF NOT EXISTS user_group (
+    user_name VARCHAR(255) NOT NULL,
+    group_name VARCHAR(255) NOT NULL,
+    org_id BIGINT NOT NULL,
+    creation_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_user_group PRIMARY KEY (user_name, org_id, group_name),
+    CONSTRAINT fk_user FOREIGN KEY (user_name) REFERENCES "user"(email) ON DELETE CASCADE,
+    CONSTRAINT fk_group FOREIGN KEY (org_id, group_name) REFERENCES "group"(org_id, name) ON DELETE CASCADE
+) PARTITION BY HASH (org_id);
+
+CREATE TABLE IF NOT EXISTS user_group_p0 PARTITION OF user_group FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE IF NOT EXISTS user_group_p1 PARTITION OF user_group FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE IF NOT EXISTS user_group_p2 PARTITION OF user_group FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE IF NOT EXISTS user_group_p3 PARTITION OF user_group FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE IF NOT EXISTS user_group_p4 PARTITION OF user_group FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE IF NOT EXISTS user_group_p5 PARTITION OF user_group FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE IF NOT EXISTS user_group_p6 PARTITION OF user_group FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE IF NOT EXISTS user_group_p7 PARTITION OF user_group FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+-- ORG CHANGE VERSION TABLE
+CREATE TABLE IF NOT EXISTS org_change_version (
+    org_id BIGINT NOT NULL,
+    collection VARCHAR(32) NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_org_change_version PRIMARY KEY (org_id, collection)
+);
+
+-- MEMBERSHIP VIEW INDEXES
+CREATE INDEX IF NOT EXISTS idx_user_org_org_user ON user_org (org_id, user_name);
+CREATE INDEX IF NOT EXISTS idx_user_group_org_group ON user_group (org_id, group_name, user_name);
+CREATE INDEX IF NOT EXISTS idx_user_lower_email ON "user" (LOWER(email) text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_user_lower_name ON "user" (LOWER(name) text_pattern_ops);
+
+-- USER SEARCH INDEXES
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+CREATE INDEX IF NOT EXISTS idx_user_name_trgm ON "user" USING gin (LOWER(name) gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_user_email_trgm ON "user" USING gin (LOWER(email) gin_trgm_ops);
+
+-- CLUSTER LISTING INDEXES
+CREATE INDEX IF NOT EXISTS idx_cluster_org_active_name ON cluster (org_id, active, name);
+CREATE INDEX IF NOT EXISTS idx_cluster_org_name_pattern ON cluster (org_id, name text_pattern_ops);
+CREATE INDEX IF NOT EXISTS idx_cluster_org_created ON cluster (org_id, creation_time, id);
+
+-- AUDIT EVENT TABLE (append-only, monthly partitions are created by the audit writer)
+CREATE TABLE IF NOT EXISTS audit_event (
+    id BIGINT GENERATED ALWAYS AS IDENTITY,
+    org_id BIGINT,
+    actor VARCHAR(255),
+    action VARCHAR(64) NOT NULL,
+    target_type VARCHAR(32) NOT NULL,
+    target_name VARCHAR(255),
+    detail TEXT,
+    occurred_at TIMESTAMP NOT NULL
+) PARTITION BY RANGE (occurred_at);
+
+CREATE TABLE IF NOT EXISTS audit_event_default PARTITION OF audit_event DEFAULT;
+CREATE INDEX IF NOT EXISTS idx_audit_event_org_time ON audit_event (org_id, occurred_at);
+
+-- OUTBOX EVENT TABLE (written in the same transaction as the change it describes)
+CREATE TABLE IF NOT EXISTS outbox_event (
+    id BIGSERIAL PRIMARY KEY,
+    org_id BIGINT NOT NULL,
+    event_type VARCHAR(64) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_outbox_event_org_id ON outbox_event (org_id, id);
+CREATE INDEX IF NOT EXISTS idx_outbox_event_created_at ON outbox_event (created_at);
+
+-- WEBHOOK TABLE (last_delivered_id is the per-endpoint cursor into outbox_event)
+CREATE TABLE IF NOT EXISTS webhook (
+    id BIGSERIAL PRIMARY KEY,
+    org_id BIGINT NOT NULL,
+    url VARCHAR(2048) NOT NULL,
+    secret VARCHAR(255),
+    active BOOLEAN NOT NULL DEFAULT TRUE,
+    last_delivered_id BIGINT NOT NULL DEFAULT 0,
+    failure_count INT NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error TEXT,
+    creation_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_webhook_org FOREIGN KEY (org_id) REFERENCES organization(id) ON DELETE CASCADE,
+    CONSTRAINT unique_webhook_url_per_org UNIQUE (org_id, url)
+);
+
+CREATE INDEX IF NOT EXISTS idx_webhook_due ON webhook (next_attempt_at) WHERE active;
+
+-- ROW VERSIONS (optimistic concurrency, served as ETags)
+ALTER TABLE cluster ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE "user" ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE organization ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE "group" ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,2 @@
+-- Login looks up a user's orgs by user_name, and deleting a user cascades on it; idx_user_org_org_user leads with org_id
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_user_org_user ON user_org (user_name);
@@ -0,0 +1,16 @@
+-- Deleting an org tombstones it and queues a job; OrgDeletionWorker then removes its rows a chunk at a time.
+-- The job has no foreign key, so its status can still be read once the organization row is gone.
+ALTER TABLE organization ADD COLUMN IF NOT EXISTS deleted_at TIMESTAMP;
+
+CREATE TABLE IF NOT EXISTS org_deletion_job (
+    org_id BIGINT PRIMARY KEY,
+    status VARCHAR(16) NOT NULL,
+    phase VARCHAR(32),
+    rows_deleted BIGINT NOT NULL DEFAULT 0,
+    requested_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP,
+    last_error TEXT
+);
+
+CREATE INDEX IF NOT EXISTS idx_org_deletion_job_pending ON org_deletion_job (requested_at) WHERE status <> 'DONE';
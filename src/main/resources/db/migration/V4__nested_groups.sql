@@ -0,0 +1,51 @@
+-- NESTED GROUPS: group_nesting holds the direct parent -> child edges, group_closure every ancestor -> descendant pair
+-- they imply, including each group with itself. path_count is the number of distinct paths, so removing one edge of a
+-- diamond keeps the pairs the other path still connects. Both are maintained by GroupService under a per-org lock.
+CREATE TABLE IF NOT EXISTS group_nesting (
+    org_id BIGINT NOT NULL,
+    parent_name VARCHAR(255) NOT NULL,
+    child_name VARCHAR(255) NOT NULL,
+    creation_time TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_group_nesting PRIMARY KEY (org_id, parent_name, child_name),
+    CONSTRAINT fk_nesting_parent FOREIGN KEY (org_id, parent_name) REFERENCES "group"(org_id, name) ON DELETE CASCADE,
+    CONSTRAINT fk_nesting_child FOREIGN KEY (org_id, child_name) REFERENCES "group"(org_id, name) ON DELETE CASCADE
+) PARTITION BY HASH (org_id);
+
+CREATE TABLE IF NOT EXISTS group_nesting_p0 PARTITION OF group_nesting FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE IF NOT EXISTS group_nesting_p1 PARTITION OF group_nesting FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE IF NOT EXISTS group_nesting_p2 PARTITION OF group_nesting FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE IF NOT EXISTS group_nesting_p3 PARTITION OF group_nesting FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE IF NOT EXISTS group_nesting_p4 PARTITION OF group_nesting FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE IF NOT EXISTS group_nesting_p5 PARTITION OF group_nesting FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE IF NOT EXISTS group_nesting_p6 PARTITION OF group_nesting FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE IF NOT EXISTS group_nesting_p7 PARTITION OF group_nesting FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+CREATE TABLE IF NOT EXISTS group_closure (
+    org_id BIGINT NOT NULL,
+    ancestor_name VARCHAR(255) NOT NULL,
+    descendant_name VARCHAR(255) NOT NULL,
+    path_count BIGINT NOT NULL,
+
+    CONSTRAINT pk_group_closure PRIMARY KEY (org_id, ancestor_name, descendant_name),
+    CONSTRAINT fk_closure_ancestor FOREIGN KEY (org_id, ancestor_name) REFERENCES "group"(org_id, name) ON DELETE CASCADE,
+    CONSTRAINT fk_closure_descendant FOREIGN KEY (org_id, descendant_name) REFERENCES "group"(org_id, name) ON DELETE CASCADE
+) PARTITION BY HASH (org_id);
+
+CREATE TABLE IF NOT EXISTS group_closure_p0 PARTITION OF group_closure FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE IF NOT EXISTS group_closure_p1 PARTITION OF group_closure FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE IF NOT EXISTS group_closure_p2 PARTITION OF group_closure FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE IF NOT EXISTS group_closure_p3 PARTITION OF group_closure FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE IF NOT EXISTS group_closure_p4 PARTITION OF group_closure FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE IF NOT EXISTS group_closure_p5 PARTITION OF group_closure FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE IF NOT EXISTS group_closure_p6 PARTITION OF group_closure FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE IF NOT EXISTS group_closure_p7 PARTITION OF group_closure FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+-- Parents of a group, and every group containing a user (user_group -> closure by descendant)
+CREATE INDEX IF NOT EXISTS idx_group_nesting_org_child ON group_nesting (org_id, child_name);
+CREATE INDEX IF NOT EXISTS idx_group_closure_org_descendant ON group_closure (org_id, descendant_name, ancestor_name);
+
+-- Existing groups are unnested: each is its own only ancestor
+INSERT INTO group_closure (org_id, ancestor_name, descendant_name, path_count)
+SELECT org_id, name, name, 1 FROM "group"
+ON CONFLICT DO NOTHING;
@@ -0,0 +1,4 @@
+-- Group membership pages are keyed on user_name within an org, which is only a total order while each user belongs to an org once
+DELETE FROM user_org a USING user_org b WHERE a.org_id = b.org_id AND a.user_name = b.user_name AND a.ctid > b.ctid;
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS uq_user_org_org_user ON user_org (org_id, user_name);
+DROP INDEX CONCURRENTLY IF EXISTS idx_user_org_org_user;
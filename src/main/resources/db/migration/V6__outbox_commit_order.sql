@@ -0,0 +1,14 @@
+-- Outbox ids are drawn at insert but become visible at commit, so an id cursor can step over an event whose
+-- transaction commits late. Each event records its transaction id instead: every transaction below the reader's
+-- snapshot xmin has finished, so events are read in (txid, id) order up to that bound without gaps.
+-- Events already here, and the cursors of existing webhooks, all take this migration's transaction id.
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS txid xid8 NOT NULL DEFAULT pg_current_xact_id();
+
+CREATE INDEX IF NOT EXISTS idx_outbox_event_org_txid ON outbox_event (org_id, txid, id);
+DROP INDEX IF EXISTS idx_outbox_event_org_id;
+
+-- A webhook is leased by the instance delivering it, so two instances never post the same batch concurrently.
+ALTER TABLE webhook ADD COLUMN IF NOT EXISTS last_delivered_txid xid8 NOT NULL DEFAULT '0';
+ALTER TABLE webhook ADD COLUMN IF NOT EXISTS leased_until TIMESTAMP;
+
+UPDATE webhook SET last_delivered_txid = pg_current_xact_id() WHERE last_delivered_txid = '0';
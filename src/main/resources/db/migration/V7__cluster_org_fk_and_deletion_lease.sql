@@ -0,0 +1,10 @@
+-- cluster was the one org-scoped table without a foreign key to organization. Clusters left behind by orgs that are
+-- already gone are removed first, or the constraint could not be added. Partitioned tables cannot take a NOT VALID
+-- foreign key before PostgreSQL 18, so the existing rows are checked here.
+DELETE FROM cluster c WHERE NOT EXISTS (SELECT 1 FROM organization o WHERE o.id = c.org_id);
+
+ALTER TABLE cluster ADD CONSTRAINT fk_org FOREIGN KEY (org_id) REFERENCES organization(id) ON DELETE CASCADE;
+
+-- A deletion job is leased by the instance running it, so two instances never work on the same org at once.
+ALTER TABLE org_deletion_job ADD COLUMN IF NOT EXISTS leased_by UUID;
+ALTER TABLE org_deletion_job ADD COLUMN IF NOT EXISTS leased_until TIMESTAMP;
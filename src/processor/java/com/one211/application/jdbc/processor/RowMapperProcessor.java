@@ -0,0 +1,252 @@
+package com.one211.application.jdbc.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.RecordComponentElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Writes a {@code RowMapper} for every {@code @RowMapped} record. See {@code com.one211.application.jdbc.RowMapped}
+ * for the mapping rules. The annotations are referenced by name, so this class compiles without the main sources.
+ */
+public class RowMapperProcessor extends AbstractProcessor {
+
+    static final String ROW_MAPPED = "com.one211.application.jdbc.RowMapped";
+    static final String COLUMN = "com.one211.application.jdbc.Column";
+
+    /**
+     * How a component type is read; {@code helper} is the null-restoring wrapper for boxed primitives.
+     */
+    private record Read(String expression, String helper) {}
+
+    private static final Map<String, Read> READS = Map.ofEntries(
+            Map.entry("java.lang.String", new Read("rs.getString(%s)", null)),
+            Map.entry("long", new Read("rs.getLong(%s)", null)),
+            Map.entry("int", new Read("rs.getInt(%s)", null)),
+            Map.entry("boolean", new Read("rs.getBoolean(%s)", null)),
+            Map.entry("double", new Read("rs.getDouble(%s)", null)),
+            Map.entry("java.lang.Long", new Read("longOrNull(rs.getLong(%s), rs)", "longOrNull")),
+            Map.entry("java.lang.Integer", new Read("intOrNull(rs.getInt(%s), rs)", "intOrNull")),
+            Map.entry("java.lang.Boolean", new Read("booleanOrNull(rs.getBoolean(%s), rs)", "booleanOrNull")),
+            Map.entry("java.lang.Double", new Read("doubleOrNull(rs.getDouble(%s), rs)", "doubleOrNull")),
+            Map.entry("java.math.BigDecimal", new Read("rs.getBigDecimal(%s)", null)),
+            Map.entry("java.time.LocalDateTime", new Read("rs.getObject(%s, java.time.LocalDateTime.class)", null)),
+            Map.entry("java.time.LocalDate", new Read("rs.getObject(%s, java.time.LocalDate.class)", null))
+    );
+
+    private static final Map<String, String> HELPERS = Map.of(
+            "longOrNull", """
+                        private static Long longOrNull(long value, ResultSet rs) throws SQLException {
+                            return value == 0 && rs.wasNull() ? null : value;
+                        }
+                    """,
+            "intOrNull", """
+                        private static Integer intOrNull(int value, ResultSet rs) throws SQLException {
+                            return value == 0 && rs.wasNull() ? null : value;
+                        }
+                    """,
+            "booleanOrNull", """
+                        private static Boolean booleanOrNull(boolean value, ResultSet rs) throws SQLException {
+                            return !value && rs.wasNull() ? null : value;
+                        }
+                    """,
+            "doubleOrNull", """
+                        private static Double doubleOrNull(double value, ResultSet rs) throws SQLException {
+                            return value == 0 && rs.wasNull() ? null : value;
+                        }
+                    """
+    );
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(ROW_MAPPED);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.RECORD) {
+                    error(element, "@RowMapped is only supported on records");
+                } else if (!((TypeElement) element).getTypeParameters().isEmpty()) {
+                    error(element, "@RowMapped records must not be generic");
+                } else if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                    error(element, "@RowMapped records must not be private");
+                } else {
+                    generate((TypeElement) element);
+                }
+            }
+        }
+        return true;
+    }
+
+    private void generate(TypeElement record) {
+        String packageName = packageOf(record).getQualifiedName().toString();
+        String mapperName = mapperName(record);
+        String recordName = relativeName(record);
+
+        StringBuilder fields = new StringBuilder();
+        StringBuilder resolve = new StringBuilder();
+        List<String> arguments = new ArrayList<>();
+        Set<String> helpers = new LinkedHashSet<>();
+        for (RecordComponentElement component : record.getRecordComponents()) {
+            String name = component.getSimpleName().toString();
+            TypeMirror type = component.asType();
+            if (isRowMapped(type)) {
+                TypeElement nested = (TypeElement) ((DeclaredType) type).asElement();
+                String nestedPackage = packageOf(nested).getQualifiedName().toString();
+                String nestedMapper = nestedPackage.equals(packageName) || nestedPackage.isEmpty()
+                        ? mapperName(nested) : nestedPackage + "." + mapperName(nested);
+                fields.append("    private final ").append(nestedMapper).append(' ').append(name)
+                        .append("Mapper = new ").append(nestedMapper).append("();\n");
+                arguments.add(name + "Mapper.mapRow(rs, rowNum)");
+                continue;
+            }
+            Read read = READS.get(typeName(type));
+            if (read == null) {
+                error(component, "Unsupported @RowMapped component type " + type);
+                return;
+            }
+            String column = columnOf(component);
+            fields.append("    private int ").append(name).append("Column;\n");
+            resolve.append("            ").append(name).append("Column = rs.findColumn(\"").append(column).append("\");\n");
+            arguments.add(read.expression().formatted(name + "Column"));
+            if (read.helper() != null) {
+                helpers.add(read.helper());
+            }
+        }
+
+        StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import java.sql.ResultSet;\n")
+                .append("import java.sql.SQLException;\n")
+                .append("import javax.annotation.processing.Generated;\n")
+                .append("import org.springframework.jdbc.core.RowMapper;\n\n")
+                .append("/**\n")
+                .append(" * Maps rows to {@link ").append(recordName).append("}. Column positions are resolved on the\n")
+                .append(" * first row of each result set; not thread-safe, use one instance per query.\n")
+                .append(" */\n")
+                .append("@Generated(\"").append(RowMapperProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(mapperName).append(" implements RowMapper<").append(recordName).append("> {\n\n")
+                .append("    private ResultSet resolved;\n")
+                .append(fields)
+                .append("\n    @Override\n")
+                .append("    public ").append(recordName).append(" mapRow(ResultSet rs, int rowNum) throws SQLException {\n");
+        if (!resolve.isEmpty()) {
+            source.append("        if (rs != resolved) {\n")
+                    .append(resolve)
+                    .append("            resolved = rs;\n")
+                    .append("        }\n");
+        }
+        source.append("        return new ").append(recordName).append("(\n                ")
+                .append(String.join(",\n                ", arguments))
+                .append("\n        );\n")
+                .append("    }\n");
+        for (String helper : helpers) {
+            source.append('\n').append(HELPERS.get(helper));
+        }
+        source.append("}\n");
+
+        String qualifiedName = packageName.isEmpty() ? mapperName : packageName + "." + mapperName;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedName, record).openWriter()) {
+            writer.write(source.toString());
+        } catch (IOException e) {
+            error(record, "Could not write " + qualifiedName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * {@code Cluster} gets {@code ClusterRowMapper}; a member record {@code Outer.Row} gets {@code Outer_RowRowMapper}.
+     */
+    private String mapperName(TypeElement record) {
+        return relativeName(record).replace('.', '_') + "RowMapper";
+    }
+
+    private String relativeName(TypeElement type) {
+        String packageName = packageOf(type).getQualifiedName().toString();
+        String qualifiedName = type.getQualifiedName().toString();
+        return packageName.isEmpty() ? qualifiedName : qualifiedName.substring(packageName.length() + 1);
+    }
+
+    private String columnOf(RecordComponentElement component) {
+        for (AnnotationMirror mirror : component.getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(COLUMN)) {
+                for (Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry : mirror.getElementValues().entrySet()) {
+                    if (entry.getKey().getSimpleName().contentEquals("value")) {
+                        return (String) entry.getValue().getValue();
+                    }
+                }
+            }
+        }
+        return snakeCase(component.getSimpleName().toString());
+    }
+
+    static String snakeCase(String name) {
+        StringBuilder column = new StringBuilder(name.length() + 4);
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isUpperCase(c)) {
+                if (i > 0) {
+                    column.append('_');
+                }
+                column.append(Character.toLowerCase(c));
+            } else {
+                column.append(c);
+            }
+        }
+        return column.toString();
+    }
+
+    private boolean isRowMapped(TypeMirror type) {
+        if (type.getKind() != TypeKind.DECLARED) {
+            return false;
+        }
+        for (AnnotationMirror mirror : ((DeclaredType) type).asElement().getAnnotationMirrors()) {
+            if (((TypeElement) mirror.getAnnotationType().asElement()).getQualifiedName().contentEquals(ROW_MAPPED)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private String typeName(TypeMirror type) {
+        if (type.getKind() == TypeKind.DECLARED) {
+            return ((TypeElement) ((DeclaredType) type).asElement()).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    private PackageElement packageOf(Element element) {
+        return processingEnv.getElementUtils().getPackageOf(element);
+    }
+
+    private void error(Element element, String message) {
+        processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+}
@@ -0,0 +1,158 @@
+package com.one211.application;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.one211.application.model.LoginRequest;
+import com.one211.application.model.SignUp;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.condition.EnabledOnOs;
+import org.junit.jupiter.api.condition.OS;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the native executable and the executable jar against the same Postgres, drives sign-up and
+ * login through each, and compares time to first response and resident memory.
+ * Only runs when the binary is given:
+ * {@code mvn -Pnative native:compile && mvn test -Dtest=NativeImageTest -Dnative.binary=target/application}.
+ */
+@Testcontainers
+@EnabledOnOs(OS.LINUX)
+@EnabledIfSystemProperty(named = "native.binary", matches = ".+")
+public class NativeImageTest {
+
+    private static final Duration STARTUP_TIMEOUT = Duration.ofMinutes(2);
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @Test
+    public void nativeImageStartsFasterAndUsesLessMemoryTest() throws Exception {
+        Path binary = Path.of(System.getProperty("native.binary"));
+        Path jar = Path.of(System.getProperty("jvm.jar", "target/application-1.0-SNAPSHOT-exec.jar"));
+        assertTrue(Files.isExecutable(binary), "Native binary not found: " + binary);
+        assertTrue(Files.isRegularFile(jar), "Executable jar not found: " + jar);
+        String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+        // The JVM build goes first and applies the schema
+        Measurement jvm = measure("jvm", List.of(java, "-jar", jar.toString()));
+        Measurement nativeImage = measure("native", List.of(binary.toString()));
+
+        System.out.printf("%-8s %12s %12s%n", "build", "startup ms", "RSS MB");
+        for (Measurement measurement : List.of(jvm, nativeImage)) {
+            System.out.printf("%-8s %12d %12d%n", measurement.build(), measurement.startup().toMillis(), measurement.rssKb() / 1024);
+        }
+        assertTrue(nativeImage.startup().compareTo(jvm.startup()) < 0, "Native startup should beat the JVM");
+        assertTrue(nativeImage.rssKb() < jvm.rssKb(), "Native RSS should be below the JVM's");
+    }
+
+    private Measurement measure(String build, List<String> command) throws Exception {
+        int port = freePort();
+        String baseUrl = "http://localhost:" + port;
+        List<String> commandLine = new ArrayList<>(command);
+        commandLine.addAll(List.of(
+                "--server.port=" + port,
+                "--management.server.port=0",
+                "--spring.datasource.url=" + postgres.getJdbcUrl(),
+                "--spring.datasource.username=" + postgres.getUsername(),
+                "--spring.datasource.password=" + postgres.getPassword()));
+        Path log = Files.createTempFile("one211-" + build, ".log");
+        long launchedAt = System.nanoTime();
+        Process process = new ProcessBuilder(commandLine).redirectErrorStream(true).redirectOutput(log.toFile()).start();
+        try {
+            awaitFirstResponse(process, baseUrl, log);
+            Duration startup = Duration.ofNanos(System.nanoTime() - launchedAt);
+            signUpAndLogin(baseUrl, build);
+            return new Measurement(build, startup, rssKb(process.pid()));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private void awaitFirstResponse(Process process, String baseUrl, Path log) throws InterruptedException {
+        HttpRequest probe = HttpRequest.newBuilder(URI.create(baseUrl + "/api/login")).timeout(Duration.ofSeconds(2)).GET().build();
+        long deadline = System.nanoTime() + STARTUP_TIMEOUT.toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("Exited with code " + process.exitValue() + " during startup, see " + log);
+            }
+            try {
+                client.send(probe, HttpResponse.BodyHandlers.discarding());
+                return;
+            } catch (IOException e) {
+                Thread.sleep(10);
+            }
+        }
+        throw new IllegalStateException("Did not start within " + STARTUP_TIMEOUT + ", see " + log);
+    }
+
+    /**
+     * Exercises JSON binding of the records, BCrypt, JWT signing and SQL, which are where missing
+     * native hints would show up.
+     */
+    private void signUpAndLogin(String baseUrl, String build) throws Exception {
+        String email = build + "@native.test";
+        SignUp signUp = new SignUp("Gagan Taneja", email, "tanejaGagan", build + "-org", "Big Data Com.", LocalDateTime.now(), LocalDateTime.now());
+        assertEquals(200, post(baseUrl + "/api/signup", signUp).statusCode());
+
+        HttpResponse<String> orgs = post(baseUrl + "/api/login", new LoginRequest(email, "tanejaGagan"));
+        assertEquals(200, orgs.statusCode());
+        long orgId = objectMapper.readTree(orgs.body()).get(0).get("orgId").asLong();
+
+        HttpResponse<String> login = post(baseUrl + "/api/login/org/" + orgId, new LoginRequest(email, "tanejaGagan"));
+        assertEquals(200, login.statusCode());
+        JsonNode token = objectMapper.readTree(login.body()).get("token");
+        assertTrue(token.asText().startsWith("Bearer "));
+    }
+
+    private HttpResponse<String> post(String url, Object body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long rssKb(long pid) throws IOException {
+        for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        throw new IllegalStateException("No VmRSS for process " + pid);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+    private record Measurement(String build, Duration startup, long rssKb) {}
+}
@@ -0,0 +1,117 @@
+package com.one211.application;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.MigrationInfo;
+import org.flywaydb.core.api.MigrationState;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@Testcontainers
+public class SchemaMigrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private Flyway flyway;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${spring.flyway.baseline-version}")
+    private String baselineVersion;
+
+    @Test
+    public void upToDateSchemaRunsNoMigrationsTest() {
+        MigrationInfo[] applied = flyway.info().applied();
+        assertTrue(applied.length >= 2);
+        for (MigrationInfo migration : applied) {
+            assertEquals(MigrationState.SUCCESS, migration.getState(), migration.getScript());
+        }
+
+        assertEquals(0, flyway.migrate().migrationsExecuted);
+        assertEquals(applied.length, flyway.info().applied().length);
+    }
+
+    @Test
+    public void preFlywayDatabaseRunsEveryMigrationTest() {
+        jdbcTemplate.execute("CREATE DATABASE pre_flyway");
+        DriverManagerDataSource preFlyway = new DriverManagerDataSource(
+                postgres.getJdbcUrl().replace("/" + postgres.getDatabaseName(), "/pre_flyway"), postgres.getUsername(), postgres.getPassword());
+        new ResourceDatabasePopulator(new ClassPathResource("db/pre-flyway-schema.sql")).execute(preFlyway);
+        JdbcTemplate preFlywayJdbc = new JdbcTemplate(preFlyway);
+        preFlywayJdbc.update("INSERT INTO organization (id, name) VALUES (1, 'LegacyOrg')");
+        preFlywayJdbc.update("INSERT INTO \"user\" (name, email) VALUES ('Legacy', 'legacy@example.com')");
+        preFlywayJdbc.update("INSERT INTO user_org (user_name, org_id, role) VALUES ('legacy@example.com', 1, 'ADMIN'), ('legacy@example.com', 1, 'ADMIN')");
+        preFlywayJdbc.update("INSERT INTO cluster (id, org_id, name) VALUES (5, 1, 'legacy-cluster')");
+        preFlywayJdbc.update("INSERT INTO \"group\" (id, name, description, org_id) VALUES (3, 'legacy-group', 'Legacy', 1)");
+        preFlywayJdbc.update("INSERT INTO cluster_association (source_name, source_type, cluster_name, org_id) VALUES ('legacy-group', 'GROUP', 'legacy-cluster', 1)");
+        preFlywayJdbc.update("INSERT INTO user_group (user_name, group_name, org_id) VALUES ('legacy@example.com', 'legacy-group', 1)");
+
+        Flyway legacy = Flyway.configure()
+                .dataSource(preFlyway)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion(baselineVersion)
+                .load();
+        MigrateResult result = legacy.migrate();
+
+        assertTrue(result.success);
+        assertEquals(flyway.info().applied().length, result.migrationsExecuted);
+        assertEquals("0.1", legacy.info().applied()[1].getVersion().getVersion());
+        assertEquals("1", legacy.info().applied()[2].getVersion().getVersion());
+        assertEquals(1, preFlywayJdbc.queryForObject("SELECT COUNT(*) FROM user_org WHERE org_id = 1", Integer.class));
+
+        assertEquals(4, preFlywayJdbc.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table WHERE partrelid IN ('cluster'::regclass, 'cluster_association'::regclass, '\"group\"'::regclass, 'user_group'::regclass)",
+                Integer.class));
+        assertEquals("bigint", preFlywayJdbc.queryForObject(
+                "SELECT data_type FROM information_schema.columns WHERE table_name = 'cluster' AND column_name = 'org_id'", String.class));
+        assertEquals(5L, preFlywayJdbc.queryForObject("SELECT id FROM cluster WHERE org_id = 1 AND name = 'legacy-cluster'", Long.class));
+        assertEquals(1, preFlywayJdbc.queryForObject("SELECT COUNT(*) FROM cluster_association WHERE org_id = 1", Integer.class));
+        assertEquals(1, preFlywayJdbc.queryForObject("SELECT COUNT(*) FROM user_group WHERE org_id = 1", Integer.class));
+        assertEquals(6L, preFlywayJdbc.queryForObject("INSERT INTO cluster (org_id, name) VALUES (1, 'new-cluster') RETURNING id", Long.class));
+        assertEquals(4L, preFlywayJdbc.queryForObject("INSERT INTO \"group\" (name, description, org_id) VALUES ('new-group', 'New', 1) RETURNING id", Long.class));
+    }
+
+    @Test
+    public void concurrentIndexBuildLeavesValidIndexTest() {
+        Boolean valid = jdbcTemplate.queryForObject(
+                "SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = 'idx_user_org_user'",
+                Boolean.class);
+
+        assertEquals(Boolean.TRUE, valid);
+    }
+
+    @Test
+    public void userOrgMembershipIsUniqueTest() {
+        Boolean unique = jdbcTemplate.queryForObject(
+                "SELECT i.indisunique AND i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid WHERE c.relname = 'uq_user_org_org_user'",
+                Boolean.class);
+
+        assertEquals(Boolean.TRUE, unique);
+    }
+}
@@ -0,0 +1,125 @@
+package com.one211.application.audit;
+
+import com.one211.application.model.AuditStats;
+import com.one211.application.model.ClusterAssignmentRequest;
+import com.one211.application.model.Cluster;
+import com.one211.application.model.SignUp;
+import com.one211.application.service.ClusterAssignmentService;
+import com.one211.application.service.ClusterService;
+import com.one211.application.service.OrganizationService;
+import com.one211.application.service.SignUpService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+public class AuditLogTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("audit.flush-interval-ms", () -> "20");
+    }
+
+    @Autowired
+    private SignUpService signUpService;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private ClusterService clusterService;
+
+    @Autowired
+    private ClusterAssignmentService clusterAssignmentService;
+
+    @Autowired
+    private AuditLog auditLog;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    public void assignmentIsAuditedTest() throws Exception {
+        Long orgId = signUp("audit1@gmail.com", "AuditOrg1");
+        clusterService.addCluster(orgId, new Cluster(null, orgId, "AuditCluster", "Test Description", true, LocalDateTime.now()));
+        assertTrue(clusterAssignmentService.updateAssignment(orgId,
+                new ClusterAssignmentRequest("USER", "audit1@gmail.com", "AuditCluster", "assign")));
+        assertTrue(clusterService.deleteCluster(orgId, "AuditCluster"));
+
+        List<String> actions = awaitActions(orgId, 4);
+        assertEquals(List.of("org.signup", "cluster.create", "cluster.assign", "cluster.delete"), actions);
+
+        AuditStats stats = auditLog.stats();
+        assertEquals(0, stats.dropped());
+        assertEquals(0, stats.failed());
+        assertTrue(stats.written() >= 4);
+    }
+
+    @Test
+    public void eventsLandInMonthlyPartitionTest() throws Exception {
+        Long orgId = signUp("audit2@gmail.com", "AuditOrg2");
+        awaitActions(orgId, 1);
+
+        String partition = jdbc.queryForObject(
+                "SELECT tableoid::regclass::text FROM audit_event WHERE org_id = ? LIMIT 1", String.class, orgId);
+        assertTrue(partition.startsWith("audit_event_y"), partition);
+    }
+
+    @Test
+    public void rolledBackOperationIsNotAuditedTest() throws Exception {
+        Long orgId = signUp("audit3@gmail.com", "AuditOrg3");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            auditLog.publish(orgId, "test.rolled-back", "ORGANIZATION", "AuditOrg3", null);
+            status.setRollbackOnly();
+        });
+        auditLog.publish(orgId, "test.committed", "ORGANIZATION", "AuditOrg3", null);
+
+        assertEquals(List.of("org.signup", "test.committed"), awaitActions(orgId, 2));
+    }
+
+    private List<String> awaitActions(Long orgId, int expected) throws InterruptedException {
+        List<String> actions = List.of();
+        for (int i = 0; i < 100 && actions.size() < expected; i++) {
+            Thread.sleep(50);
+            actions = jdbc.queryForList("SELECT action FROM audit_event WHERE org_id = ? ORDER BY id", String.class, orgId);
+        }
+        return actions;
+    }
+
+    private Long signUp(String email, String orgName) {
+        var user = new SignUp(
+                "Gagan Taneja",
+                email,
+                "tanejaGagan",
+                orgName,
+                "Big Data Com.",
+                LocalDateTime.now(),
+                LocalDateTime.now()
+        );
+        signUpService.signUpUser(user);
+        return organizationService.getOrgByName(user.orgName()).id();
+    }
+}
@@ -0,0 +1,151 @@
+package com.one211.application.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.one211.application.model.Cluster;
+import com.one211.application.model.LoginRequest;
+import com.one211.application.model.SignUp;
+import com.one211.application.service.ClusterService;
+import com.one211.application.service.OrganizationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class ChangeFeedControllerTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClusterService clusterService;
+
+    @Test
+    public void streamsClusterChangesTest() throws Exception {
+        Long orgId = signUp("feed1@gmail.com", "FeedOrg1");
+        String token = loginTestUser("feed1@gmail.com", orgId);
+
+        MvcResult stream = openStream(orgId, token, null);
+        clusterService.addCluster(orgId, createTestCluster("Feed Cluster 1", orgId));
+
+        String body = awaitContent(stream, "Feed Cluster 1");
+        assertTrue(body.contains("event:clusters"), body);
+        assertTrue(body.contains("\"action\":\"create\""), body);
+    }
+
+    @Test
+    public void resumeFromLastEventIdTest() throws Exception {
+        Long orgId = signUp("feed2@gmail.com", "FeedOrg2");
+        String token = loginTestUser("feed2@gmail.com", orgId);
+
+        MvcResult first = openStream(orgId, token, null);
+        clusterService.addCluster(orgId, createTestCluster("Feed Cluster A", orgId));
+        clusterService.addCluster(orgId, createTestCluster("Feed Cluster B", orgId));
+        String body = awaitContent(first, "Feed Cluster B");
+        String firstId = body.lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+
+        MvcResult resumed = openStream(orgId, token, firstId);
+        String replayed = awaitContent(resumed, "Feed Cluster B");
+        assertFalse(replayed.contains("Feed Cluster A"), replayed);
+    }
+
+    @Test
+    public void unknownLastEventIdSendsResetTest() throws Exception {
+        Long orgId = signUp("feed3@gmail.com", "FeedOrg3");
+        String token = loginTestUser("feed3@gmail.com", orgId);
+
+        MvcResult stream = openStream(orgId, token, "stale-42");
+        assertTrue(awaitContent(stream, "event:reset").contains("event:reset"));
+    }
+
+    @Test
+    public void otherOrgIsForbiddenTest() throws Exception {
+        Long orgId = signUp("feed4@gmail.com", "FeedOrg4");
+        Long otherOrgId = signUp("feed5@gmail.com", "FeedOrg5");
+        String token = loginTestUser("feed4@gmail.com", orgId);
+
+        mockMvc.perform(get("/api/orgs/{orgId}/events", otherOrgId)
+                        .header("Authorization", token)
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isForbidden());
+    }
+
+    private MvcResult openStream(Long orgId, String token, String lastEventId) throws Exception {
+        var builder = get("/api/orgs/{orgId}/events", orgId)
+                .header("Authorization", token)
+                .accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            builder.header(ChangeFeedController.LAST_EVENT_ID_HEADER, lastEventId);
+        }
+        return mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    private String awaitContent(MvcResult stream, String expected) throws Exception {
+        String body = "";
+        for (int i = 0; i < 100 && !body.contains(expected); i++) {
+            Thread.sleep(20);
+            body = stream.getResponse().getContentAsString();
+        }
+        return body;
+    }
+
+    private Long signUp(String email, String orgName) throws Exception {
+        SignUp signupRequest = new SignUp("Gagan Taneja", email, "tanejaGagan", orgName, "Big Data Com.", LocalDateTime.now(), LocalDateTime.now());
+        mockMvc.perform(post("/api/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signupRequest)))
+                .andExpect(status().isOk());
+        return organizationService.getOrgByName(orgName).id();
+    }
+
+    private String loginTestUser(String email, Long orgId) throws Exception {
+        LoginRequest loginRequest = new LoginRequest(email, "tanejaGagan");
+        String json = mockMvc.perform(post("/api/login/org/{orgId}", orgId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(json).get("token").asText();
+    }
+
+    private Cluster createTestCluster(String name, Long orgId) {
+        return new Cluster(null, orgId, name, "Test Description", true, LocalDateTime.now());
+    }
+}
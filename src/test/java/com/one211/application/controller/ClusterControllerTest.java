@@ -1,224 +1,382 @@
-package com.one211.application.controller;
-
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.one211.application.model.Cluster;
-import com.one211.application.model.LoginRequest;
-import com.one211.application.model.SignUp;
-import com.one211.application.service.ClusterService;
-import com.one211.application.service.OrganizationService;
-import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.http.MediaType;
-import org.springframework.test.context.DynamicPropertyRegistry;
-import org.springframework.test.context.DynamicPropertySource;
-import org.springframework.test.context.jdbc.Sql;
-import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.test.web.servlet.MvcResult;
-import org.testcontainers.containers.PostgreSQLContainer;
-import org.testcontainers.junit.jupiter.Container;
-import org.testcontainers.junit.jupiter.Testcontainers;
-
-import java.time.LocalDateTime;
-import java.util.List;
-
-import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
-
-@SpringBootTest
-@AutoConfigureMockMvc
-@Testcontainers
-@Sql(scripts = {"/schema.sql"})
-public class ClusterControllerTest {
-
-    @Container
-    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
-
-    @DynamicPropertySource
-    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
-        registry.add("spring.datasource.url", postgres::getJdbcUrl);
-        registry.add("spring.datasource.username", postgres::getUsername);
-        registry.add("spring.datasource.password", postgres::getPassword);
-    }
-
-    @Autowired
-    private MockMvc mockMvc;
-
-    @Autowired
-    private OrganizationService organizationService;
-
-    @Autowired
-    private ObjectMapper objectMapper;
-
-    @Autowired
-    private ClusterService clusterService;
-
-
-    @Test
-    public void createClusterTest() throws Exception {
-        List<?> orgEmail = signUp("praveen9981@gmail.com", "TestOrg4");
-        String token = loginTestUser("praveen9981@gmail.com", (Long) orgEmail.getFirst());
-        Long orgId = (Long) orgEmail.getFirst();
-
-        Cluster cluster = createTestCluster("Test Cluster 1", orgId);
-        mockMvc.perform(post("/api/org/{orgId}/cluster", orgId)
-                        .header("Authorization", token)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(cluster)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.name").value("Test Cluster 1"))
-                .andExpect(jsonPath("$.description").value("For Test Description"))
-                .andExpect(jsonPath("$.orgId").value(orgId));
-    }
-
-    @Test
-    public void createClusterWithWrongOrgIdTest() throws Exception {
-        List<?> orgEmail = signUp("praveen9@gmail.com", "TestOrg3");
-        String token = loginTestUser("praveen9@gmail.com", (Long) orgEmail.getFirst());
-        Long orgId = (Long) orgEmail.getFirst();
-        Cluster cluster = createTestCluster("Test Cluster 10", orgId);
-
-        mockMvc.perform(post("/api/org/{orgId}/cluster", orgId + 1)
-                        .header("Authorization", token)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(cluster)))
-                .andExpect(status().isForbidden());
-    }
-
-    @Test
-    public void getClusterTest() throws Exception {
-        List<?> orgEmail = signUp("praveen99@gmail.com", "TestOrg2");
-        String token = loginTestUser("praveen99@gmail.com", (Long) orgEmail.getFirst());
-        Long orgId = (Long) orgEmail.getFirst();
-
-        Cluster cluster = createTestCluster("Test Cluster 2", orgId);
-        Cluster savedCluster = clusterService.addCluster(orgId, cluster);
-        String clusterName = savedCluster.name();
-
-        mockMvc.perform(get("/api/org/{orgId}/cluster/{clusterName}", orgId, clusterName)
-                        .header("Authorization", token)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(cluster)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.name").value("Test Cluster 2"))
-                .andExpect(jsonPath("$.description").value("For Test Description"))
-                .andExpect(jsonPath("$.orgId").value(orgId))
-                .andExpect(jsonPath("$.status").value(true));
-    }
-
-    @Test
-    public void getClusterWithWrongOrgIdTest() throws Exception {
-        List<?> orgEmail = signUp("praveen998@gmail.com", "TestOrg42");
-        String token = loginTestUser("praveen998@gmail.com", (Long) orgEmail.getFirst());
-        Long orgId = (Long) orgEmail.getFirst();
-
-        Cluster cluster = createTestCluster("Test Cluster 20", orgId);
-        Cluster savedCluster = clusterService.addCluster(orgId, cluster);
-        String clusterName = savedCluster.name();
-
-        mockMvc.perform(get("/api/org/{orgId}/cluster/{clusterName}", orgId - 1, clusterName)
-                        .header("Authorization", token)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(cluster)))
-                .andExpect(status().isForbidden());
-    }
-
-    @Test
-    public void updateClusterTest() throws Exception {
-        List<?> orgEmail = signUp("praveen99811@gmail.com", "TestOrg41");
-        String token = loginTestUser("praveen99811@gmail.com", (Long) orgEmail.getFirst());
-        Long orgId = (Long) orgEmail.getFirst();
-
-        Cluster cluster = createTestCluster("Test Cluster 311", orgId);
-        Cluster savedCluster = clusterService.addCluster(orgId, cluster);
-        String clusterName = savedCluster.name();
-
-        Cluster updatedValue = new Cluster(
-                savedCluster.id(),
-                savedCluster.orgId(),
-                "Updated Test Cluster",
-                "Updated Test Description",
-                false,
-                savedCluster.createdAt()
-        );
-
-        mockMvc.perform(patch("/api/org/{orgId}/cluster/{clusterName}", orgId, clusterName)
-                        .header("Authorization", token)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(updatedValue)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.name").value("Updated Test Cluster"))
-                .andExpect(jsonPath("$.description").value("Updated Test Description"))
-                .andExpect(jsonPath("$.orgId").value(orgId));
-    }
-
-    @Test
-    public void deleteClusterTest() throws Exception {
-        List<?> orgEmail = signUp("praveen998111@gmail.com", "TestOrg432");
-        String token = loginTestUser("praveen998111@gmail.com", (Long) orgEmail.getFirst());
-        Long orgId = (Long) orgEmail.getFirst();
-
-        Cluster cluster = createTestCluster("Test Cluster 432", orgId);
-        Cluster savedCluster = clusterService.addCluster(orgId, cluster);
-        String clusterName = savedCluster.name();
-
-        mockMvc.perform(delete("/api/org/{orgId}/cluster/{clusterName}", orgId, clusterName)
-                        .header("Authorization", token)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(savedCluster)))
-                .andExpect(status().isNoContent());
-    }
-
-    @Test
-    public void deleteClusterByWrongOrgIdTest() throws Exception {
-        List<?> orgEmail = signUp("praveen998121@gmail.com", "TestOrg421");
-        String token = loginTestUser("praveen998121@gmail.com", (Long) orgEmail.getFirst());
-        Long orgId = (Long) orgEmail.getFirst();
-
-        Cluster cluster = createTestCluster("Test Cluster 402", orgId);
-        Cluster savedCluster = clusterService.addCluster(orgId, cluster);
-        String clusterName = savedCluster.name();
-
-        mockMvc.perform(delete("/api/org/{orgId}/cluster/{clusterName}", orgId - 3, clusterName)
-                        .header("Authorization", token)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(savedCluster)))
-                .andExpect(status().isForbidden());
-    }
-
-    private Cluster createTestCluster(String name, Long orgId) {
-        return new Cluster(
-                null,
-                orgId,
-                name,
-                "For Test Description",
-                true,
-                LocalDateTime.now()
-        );
-    }
-
-    private List<?> signUp(String email, String orgName) throws Exception {
-        SignUp signupRequest = new SignUp("Gagan Taneja", email, "tanejaGagan", orgName, "Big Data Com.", LocalDateTime.now(), LocalDateTime.now());;
-        MvcResult result = mockMvc.perform(post("/api/signup")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(signupRequest)))
-                .andExpect(status().isOk())
-                .andReturn();
-        String org = objectMapper.readValue(result.getResponse().getContentAsString(), SignUp.class).orgName();
-        return List.of(organizationService.getOrgByName(org).id(), objectMapper.readValue(result.getResponse().getContentAsString(), SignUp.class).email());
-    }
-
-    private String loginTestUser(String email, Long orgId) throws Exception {
-        LoginRequest loginRequest = new LoginRequest(email, "tanejaGagan");
-        String json = mockMvc.perform(post("/api/login/org/{orgId}", orgId)
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(loginRequest)))
-                .andExpect(status().isOk())
-                .andReturn()
-                .getResponse()
-                .getContentAsString();
-        return objectMapper.readTree(json).get("token").asText();
-    }
-}
+package com.one211.application.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.one211.application.model.Cluster;
+import com.one211.application.model.LoginRequest;
+import com.one211.application.model.SignUp;
+import com.one211.application.service.ClusterService;
+import com.one211.application.service.OrganizationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasItem;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class ClusterControllerTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ClusterService clusterService;
+
+
+    @Test
+    public void createClusterTest() throws Exception {
+        List<?> orgEmail = signUp("praveen9981@gmail.com", "TestOrg4");
+        String token = loginTestUser("praveen9981@gmail.com", (Long) orgEmail.getFirst());
+        Long orgId = (Long) orgEmail.getFirst();
+
+        Cluster cluster = createTestCluster("Test Cluster 1", orgId);
+        mockMvc.perform(post("/api/org/{orgId}/cluster", orgId)
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cluster)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Test Cluster 1"))
+                .andExpect(jsonPath("$.description").value("For Test Description"))
+                .andExpect(jsonPath("$.orgId").value(orgId));
+    }
+
+    @Test
+    public void createClusterWithWrongOrgIdTest() throws Exception {
+        List<?> orgEmail = signUp("praveen9@gmail.com", "TestOrg3");
+        String token = loginTestUser("praveen9@gmail.com", (Long) orgEmail.getFirst());
+        Long orgId = (Long) orgEmail.getFirst();
+        Cluster cluster = createTestCluster("Test Cluster 10", orgId);
+
+        mockMvc.perform(post("/api/org/{orgId}/cluster", orgId + 1)
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cluster)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void getClusterTest() throws Exception {
+        List<?> orgEmail = signUp("praveen99@gmail.com", "TestOrg2");
+        String token = loginTestUser("praveen99@gmail.com", (Long) orgEmail.getFirst());
+        Long orgId = (Long) orgEmail.getFirst();
+
+        Cluster cluster = createTestCluster("Test Cluster 2", orgId);
+        Cluster savedCluster = clusterService.addCluster(orgId, cluster);
+        String clusterName = savedCluster.name();
+
+        mockMvc.perform(get("/api/org/{orgId}/cluster/{clusterName}", orgId, clusterName)
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cluster)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Test Cluster 2"))
+                .andExpect(jsonPath("$.description").value("For Test Description"))
+                .andExpect(jsonPath("$.orgId").value(orgId))
+                .andExpect(jsonPath("$.status").value(true));
+    }
+
+    @Test
+    public void getClusterWithWrongOrgIdTest() throws Exception {
+        List<?> orgEmail = signUp("praveen998@gmail.com", "TestOrg42");
+        String token = loginTestUser("praveen998@gmail.com", (Long) orgEmail.getFirst());
+        Long orgId = (Long) orgEmail.getFirst();
+
+        Cluster cluster = createTestCluster("Test Cluster 20", orgId);
+        Cluster savedCluster = clusterService.addCluster(orgId, cluster);
+        String clusterName = savedCluster.name();
+
+        mockMvc.perform(get("/api/org/{orgId}/cluster/{clusterName}", orgId - 1, clusterName)
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(cluster)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void updateClusterTest() throws Exception {
+        List<?> orgEmail = signUp("praveen99811@gmail.com", "TestOrg41");
+        String token = loginTestUser("praveen99811@gmail.com", (Long) orgEmail.getFirst());
+        Long orgId = (Long) orgEmail.getFirst();
+
+        Cluster cluster = createTestCluster("Test Cluster 311", orgId);
+        Cluster savedCluster = clusterService.addCluster(orgId, cluster);
+        String clusterName = savedCluster.name();
+
+        Cluster updatedValue = new Cluster(
+                savedCluster.id(),
+                savedCluster.orgId(),
+                "Updated Test Cluster",
+                "Updated Test Description",
+                false,
+                savedCluster.createdAt()
+        );
+
+        mockMvc.perform(patch("/api/org/{orgId}/cluster/{clusterName}", orgId, clusterName)
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedValue)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Updated Test Cluster"))
+                .andExpect(jsonPath("$.description").value("Updated Test Description"))
+                .andExpect(jsonPath("$.orgId").value(orgId));
+    }
+
+    @Test
+    public void updateClusterIfMatchTest() throws Exception {
+        List<?> orgEmail = signUp("praveen99812@gmail.com", "TestOrg412");
+        String token = loginTestUser("praveen99812@gmail.com", (Long) orgEmail.getFirst());
+        Long orgId = (Long) orgEmail.getFirst();
+        clusterService.addCluster(orgId, createTestCluster("Test Cluster 312", orgId));
+
+        String etag = mockMvc.perform(get("/api/org/{orgId}/cluster/{clusterName}", orgId, "Test Cluster 312")
+                        .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andReturn().getResponse().getHeader("ETag");
+
+        Cluster change = new Cluster(null, orgId, null, "First writer", null, null);
+        mockMvc.perform(patch("/api/org/{orgId}/cluster/{clusterName}", orgId, "Test Cluster 312")
+                        .header("Authorization", token)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(change)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.version").value(1));
+
+        Cluster stale = new Cluster(null, orgId, null, "Second writer", null, null);
+        mockMvc.perform(patch("/api/org/{orgId}/cluster/{clusterName}", orgId, "Test Cluster 312")
+                        .header("Authorization", token)
+                        .header("If-Match", etag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stale)))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch("/api/org/{orgId}/cluster/{clusterName}", orgId, "Test Cluster 312")
+                        .header("Authorization", token)
+                        .header("If-Match", "not-an-etag")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(stale)))
+                .andExpect(status().isBadRequest());
+        assertEquals("First writer", clusterService.getClusterByName(orgId, "Test Cluster 312").description());
+    }
+
+    @Test
+    public void deleteClusterTest() throws Exception {
+        List<?> orgEmail = signUp("praveen998111@gmail.com", "TestOrg432");
+        String token = loginTestUser("praveen998111@gmail.com", (Long) orgEmail.getFirst());
+        Long orgId = (Long) orgEmail.getFirst();
+
+        Cluster cluster = createTestCluster("Test Cluster 432", orgId);
+        Cluster savedCluster = clusterService.addCluster(orgId, cluster);
+        String clusterName = savedCluster.name();
+
+        mockMvc.perform(delete("/api/org/{orgId}/cluster/{clusterName}", orgId, clusterName)
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(savedCluster)))
+                .andExpect(status().isNoContent());
+    }
+
+    @Test
+    public void deleteClusterByWrongOrgIdTest() throws Exception {
+        List<?> orgEmail = signUp("praveen998121@gmail.com", "TestOrg421");
+        String token = loginTestUser("praveen998121@gmail.com", (Long) orgEmail.getFirst());
+        Long orgId = (Long) orgEmail.getFirst();
+
+        Cluster cluster = createTestCluster("Test Cluster 402", orgId);
+        Cluster savedCluster = clusterService.addCluster(orgId, cluster);
+        String clusterName = savedCluster.name();
+
+        mockMvc.perform(delete("/api/org/{orgId}/cluster/{clusterName}", orgId - 3, clusterName)
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(savedCluster)))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    public void getAllClustersNotModifiedTest() throws Exception {
+        List<?> orgEmail = signUp("praveen998131@gmail.com", "TestOrg431");
+        String token = loginTestUser("praveen998131@gmail.com", (Long) orgEmail.getFirst());
+        Long orgId = (Long) orgEmail.getFirst();
+        clusterService.addCluster(orgId, createTestCluster("Test Cluster 431", orgId));
+
+        String etag = mockMvc.perform(get("/api/org/{orgId}/cluster", orgId)
+                        .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/org/{orgId}/cluster", orgId)
+                        .header("Authorization", token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        clusterService.addCluster(orgId, createTestCluster("Test Cluster 433", orgId));
+
+        mockMvc.perform(get("/api/org/{orgId}/cluster", orgId)
+                        .header("Authorization", token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    public void getAllClustersRejectsBadParametersBeforeNotModifiedTest() throws Exception {
+        List<?> orgEmail = signUp("praveen998132@gmail.com", "TestOrg432");
+        String token = loginTestUser("praveen998132@gmail.com", (Long) orgEmail.getFirst());
+        Long orgId = (Long) orgEmail.getFirst();
+        clusterService.addCluster(orgId, createTestCluster("Test Cluster 432", orgId));
+
+        String etag = mockMvc.perform(get("/api/org/{orgId}/cluster", orgId)
+                        .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+
+        mockMvc.perform(get("/api/org/{orgId}/cluster", orgId)
+                        .param("sort", "size")
+                        .header("Authorization", token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/org/{orgId}/cluster", orgId)
+                        .param("after", "not a cursor")
+                        .header("Authorization", token)
+                        .header("If-None-Match", etag))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void getAllClustersAsCborTest() throws Exception {
+        List<?> orgEmail = signUp("praveen998141@gmail.com", "TestOrg441");
+        String token = loginTestUser("praveen998141@gmail.com", (Long) orgEmail.getFirst());
+        Long orgId = (Long) orgEmail.getFirst();
+        clusterService.addCluster(orgId, createTestCluster("Test Cluster 441", orgId));
+
+        byte[] body = mockMvc.perform(get("/api/org/{orgId}/cluster", orgId)
+                        .header("Authorization", token)
+                        .accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+
+        JsonNode clusters = new CBORMapper().readTree(body);
+        assertEquals(1, clusters.size());
+        assertEquals("Test Cluster 441", clusters.get(0).get("name").asText());
+    }
+
+    @Test
+    public void getAllClustersEtagPerEncodingTest() throws Exception {
+        List<?> orgEmail = signUp("praveen998151@gmail.com", "TestOrg451");
+        String token = loginTestUser("praveen998151@gmail.com", (Long) orgEmail.getFirst());
+        Long orgId = (Long) orgEmail.getFirst();
+        clusterService.addCluster(orgId, createTestCluster("Test Cluster 451", orgId));
+
+        String jsonEtag = mockMvc.perform(get("/api/org/{orgId}/cluster", orgId)
+                        .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(header().stringValues("Vary", hasItem("Accept")))
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        String cborEtag = mockMvc.perform(get("/api/org/{orgId}/cluster", orgId)
+                        .header("Authorization", token)
+                        .accept("application/cbor"))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getHeader("ETag");
+        assertNotEquals(jsonEtag, cborEtag);
+
+        mockMvc.perform(get("/api/org/{orgId}/cluster", orgId)
+                        .header("Authorization", token)
+                        .accept("application/cbor")
+                        .header("If-None-Match", jsonEtag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/cbor"));
+        mockMvc.perform(get("/api/org/{orgId}/cluster", orgId)
+                        .header("Authorization", token)
+                        .accept("application/cbor")
+                        .header("If-None-Match", cborEtag))
+                .andExpect(status().isNotModified());
+    }
+
+    private Cluster createTestCluster(String name, Long orgId) {
+        return new Cluster(
+                null,
+                orgId,
+                name,
+                "For Test Description",
+                true,
+                LocalDateTime.now()
+        );
+    }
+
+    private List<?> signUp(String email, String orgName) throws Exception {
+        SignUp signupRequest = new SignUp("Gagan Taneja", email, "tanejaGagan", orgName, "Big Data Com.", LocalDateTime.now(), LocalDateTime.now());;
+        MvcResult result = mockMvc.perform(post("/api/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signupRequest)))
+                .andExpect(status().isOk())
+                .andReturn();
+        String org = objectMapper.readValue(result.getResponse().getContentAsString(), SignUp.class).orgName();
+        return List.of(organizationService.getOrgByName(org).id(), objectMapper.readValue(result.getResponse().getContentAsString(), SignUp.class).email());
+    }
+
+    private String loginTestUser(String email, Long orgId) throws Exception {
+        LoginRequest loginRequest = new LoginRequest(email, "tanejaGagan");
+        String json = mockMvc.perform(post("/api/login/org/{orgId}", orgId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(json).get("token").asText();
+    }
+}
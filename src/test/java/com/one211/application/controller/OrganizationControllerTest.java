@@ -0,0 +1,134 @@
+package com.one211.application.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.one211.application.model.LoginRequest;
+import com.one211.application.model.Organization;
+import com.one211.application.model.SignUp;
+import com.one211.application.service.OrganizationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class OrganizationControllerTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void getOrganizationTest() throws Exception {
+        Long orgId = signUp("orgview@gmail.com", "OrgViewOrg");
+        String token = loginTestUser("orgview@gmail.com", orgId);
+
+        mockMvc.perform(get("/api/org/{orgId}", orgId)
+                        .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"0\""))
+                .andExpect(jsonPath("$.name").value("OrgViewOrg"));
+    }
+
+    @Test
+    public void updateOrganizationIfMatchTest() throws Exception {
+        Long orgId = signUp("orgpatch@gmail.com", "OrgPatchOrg");
+        String token = loginTestUser("orgpatch@gmail.com", orgId);
+        Organization change = new Organization(null, null, "Renamed description", null, null);
+
+        mockMvc.perform(patch("/api/org/{orgId}", orgId)
+                        .header("Authorization", token)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(change)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"1\""))
+                .andExpect(jsonPath("$.name").value("OrgPatchOrg"))
+                .andExpect(jsonPath("$.description").value("Renamed description"));
+
+        mockMvc.perform(patch("/api/org/{orgId}", orgId)
+                        .header("Authorization", token)
+                        .header("If-Match", "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(change)))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals(1L, organizationService.getOrgById(orgId).version());
+    }
+
+    @Test
+    public void deletedOrganizationIsRefusedTest() throws Exception {
+        Long orgId = signUp("orgdelete@gmail.com", "OrgDeleteOrg");
+        String token = loginTestUser("orgdelete@gmail.com", orgId);
+
+        mockMvc.perform(delete("/api/org/{orgId}", orgId)
+                        .header("Authorization", token))
+                .andExpect(status().isAccepted());
+
+        mockMvc.perform(get("/api/org/{orgId}", orgId)
+                        .header("Authorization", token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/orgs/{orgId}/groups", orgId)
+                        .header("Authorization", token))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/org/{orgId}/deletion", orgId)
+                        .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orgId").value(orgId));
+    }
+
+    private Long signUp(String email, String orgName) throws Exception {
+        SignUp signupRequest = new SignUp("Gagan Taneja", email, "tanejaGagan", orgName, "Big Data Com.", LocalDateTime.now(), LocalDateTime.now());
+        MvcResult result = mockMvc.perform(post("/api/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signupRequest)))
+                .andExpect(status().isOk())
+                .andReturn();
+        String org = objectMapper.readValue(result.getResponse().getContentAsString(), SignUp.class).orgName();
+        return organizationService.getOrgByName(org).id();
+    }
+
+    private String loginTestUser(String email, Long orgId) throws Exception {
+        LoginRequest loginRequest = new LoginRequest(email, "tanejaGagan");
+        String json = mockMvc.perform(post("/api/login/org/{orgId}", orgId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(json).get("token").asText();
+    }
+}
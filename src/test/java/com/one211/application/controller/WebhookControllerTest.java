@@ -0,0 +1,139 @@
+package com.one211.application.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.one211.application.model.LoginRequest;
+import com.one211.application.model.SignUp;
+import com.one211.application.model.Webhook;
+import com.one211.application.service.OrganizationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@Testcontainers
+public class WebhookControllerTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("outbox.allowed-hosts", () -> "localhost");
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void registerRefusesInternalAddressesTest() throws Exception {
+        Long orgId = signUp("webhook5@gmail.com", "WebhookOrg5");
+        String token = loginTestUser("webhook5@gmail.com", orgId);
+
+        for (String url : List.of("http://127.0.0.1:9/hook", "http://169.254.169.254/latest/meta-data", "http://10.0.0.5/hook",
+                "http://[::1]:9/hook", "http://[fd00::1]/hook", "http://0.0.0.0:9/hook")) {
+            mockMvc.perform(post("/api/orgs/{orgId}/webhooks", orgId)
+                            .header("Authorization", token)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(new Webhook(url, null))))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Test
+    public void registerListAndDeleteWebhookTest() throws Exception {
+        Long orgId = signUp("webhook1@gmail.com", "WebhookOrg1");
+        String token = loginTestUser("webhook1@gmail.com", orgId);
+
+        String json = mockMvc.perform(post("/api/orgs/{orgId}/webhooks", orgId)
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Webhook("http://localhost:9/hook", "s3cret"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.url").value("http://localhost:9/hook"))
+                .andExpect(jsonPath("$.secret").doesNotExist())
+                .andReturn().getResponse().getContentAsString();
+        long webhookId = objectMapper.readTree(json).get("id").asLong();
+
+        mockMvc.perform(post("/api/orgs/{orgId}/webhooks", orgId)
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Webhook("http://localhost:9/hook", null))))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/orgs/{orgId}/webhooks", orgId).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(webhookId));
+
+        mockMvc.perform(delete("/api/orgs/{orgId}/webhooks/{webhookId}", orgId, webhookId).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(content().string("true"));
+    }
+
+    @Test
+    public void registerInvalidUrlTest() throws Exception {
+        Long orgId = signUp("webhook2@gmail.com", "WebhookOrg2");
+        String token = loginTestUser("webhook2@gmail.com", orgId);
+
+        mockMvc.perform(post("/api/orgs/{orgId}/webhooks", orgId)
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new Webhook("ftp://example.com/hook", null))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void otherOrgIsForbiddenTest() throws Exception {
+        Long orgId = signUp("webhook3@gmail.com", "WebhookOrg3");
+        Long otherOrgId = signUp("webhook4@gmail.com", "WebhookOrg4");
+        String token = loginTestUser("webhook3@gmail.com", orgId);
+
+        mockMvc.perform(get("/api/orgs/{orgId}/webhooks", otherOrgId).header("Authorization", token))
+                .andExpect(status().isForbidden());
+    }
+
+    private Long signUp(String email, String orgName) throws Exception {
+        SignUp signupRequest = new SignUp("Gagan Taneja", email, "tanejaGagan", orgName, "Big Data Com.", LocalDateTime.now(), LocalDateTime.now());
+        mockMvc.perform(post("/api/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signupRequest)))
+                .andExpect(status().isOk());
+        return organizationService.getOrgByName(orgName).id();
+    }
+
+    private String loginTestUser(String email, Long orgId) throws Exception {
+        LoginRequest loginRequest = new LoginRequest(email, "tanejaGagan");
+        String json = mockMvc.perform(post("/api/login/org/{orgId}", orgId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(json).get("token").asText();
+    }
+}
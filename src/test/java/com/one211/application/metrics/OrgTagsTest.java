@@ -0,0 +1,29 @@
+package com.one211.application.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class OrgTagsTest {
+
+    @Test
+    public void orgsBeyondLimitShareOtherTagTest() {
+        OrgTags tags = new OrgTags(2);
+
+        assertEquals("1", tags.of("1"));
+        assertEquals("2", tags.of("2"));
+        assertEquals(OrgTags.OTHER, tags.of("3"));
+        assertEquals("1", tags.of("1"));
+        assertEquals(OrgTags.OTHER, tags.of("3"));
+    }
+
+    @Test
+    public void nonNumericIdsAreNotTrackedTest() {
+        OrgTags tags = new OrgTags(2);
+
+        assertEquals(OrgTags.NONE, tags.of(null));
+        assertEquals(OrgTags.OTHER, tags.of("abc"));
+        assertEquals(OrgTags.OTHER, tags.of("12345678901234567890"));
+        assertEquals("7", tags.of("7"));
+    }
+}
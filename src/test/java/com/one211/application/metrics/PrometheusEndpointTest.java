@@ -0,0 +1,61 @@
+package com.one211.application.metrics;
+
+import com.one211.application.model.SignUp;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@Testcontainers
+public class PrometheusEndpointTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Test
+    public void prometheusEndpointExposesRequestDatabaseAndPoolMetricsTest() {
+        SignUp signUp = new SignUp("Gagan Taneja", "metrics@gmail.com", "tanejaGagan", "MetricsOrg", "Big Data Com.",
+                LocalDateTime.now(), LocalDateTime.now());
+        assertEquals(HttpStatus.OK, restTemplate.postForEntity("/api/signup", signUp, String.class).getStatusCode());
+
+        ResponseEntity<String> scrape = restTemplate.getForEntity(
+                "http://localhost:" + managementPort + "/actuator/prometheus", String.class);
+
+        assertEquals(HttpStatus.OK, scrape.getStatusCode());
+        String body = scrape.getBody();
+        assertTrue(body.contains("http_server_requests_seconds_bucket"));
+        assertTrue(body.contains("handler=\"SignUpController.signup\""));
+        assertTrue(body.contains("db_statement_seconds_count"));
+        assertTrue(body.contains("statement=\"SignUpService."));
+        assertTrue(body.contains("auth_bcrypt_seconds_count{operation=\"encode\"}"));
+        assertTrue(body.contains("hikaricp_connections_active"));
+        assertTrue(body.contains("jvm_gc_pause_seconds") || body.contains("jvm_memory_used_bytes"));
+    }
+}
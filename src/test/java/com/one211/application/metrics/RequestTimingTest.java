@@ -0,0 +1,34 @@
+package com.one211.application.metrics;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RequestTimingTest {
+
+    @AfterEach
+    public void tearDown() {
+        RequestTiming.end();
+    }
+
+    @Test
+    public void addIsIgnoredWhenRequestIsNotTimedTest() {
+        RequestTiming.add(RequestTiming.Phase.DB, 1_000_000);
+
+        assertNull(RequestTiming.current());
+    }
+
+    @Test
+    public void headerListsRecordedPhasesInOrderTest() {
+        RequestTiming timing = RequestTiming.begin(System.nanoTime());
+        RequestTiming.add(RequestTiming.Phase.DB, 1_500_000);
+        RequestTiming.add(RequestTiming.Phase.DB, 500_000);
+        RequestTiming.add(RequestTiming.Phase.BCRYPT, 80_250_000);
+
+        String header = timing.header();
+
+        assertTrue(header.startsWith("bcrypt;dur=80.25;desc=\"BCrypt\", db;dur=2.00;desc=\"SQL x2\", total;dur="), header);
+        assertFalse(header.contains("jwt"));
+    }
+}
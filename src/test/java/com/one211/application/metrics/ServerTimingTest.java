@@ -0,0 +1,102 @@
+package com.one211.application.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.one211.application.model.LoginRequest;
+import com.one211.application.model.SignUp;
+import com.one211.application.service.OrganizationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {"server-timing.sample-rate=0.0", "server-timing.admins=true"})
+@AutoConfigureMockMvc
+@Testcontainers
+public class ServerTimingTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void adminRequestGetsPhaseBreakdownTest() throws Exception {
+        Long orgId = signUp("timingadmin@gmail.com", "TimingAdminOrg");
+        String token = loginTestUser("timingadmin@gmail.com", orgId);
+
+        mockMvc.perform(get("/api/org/{orgId}", orgId)
+                        .header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(header().string(RequestTiming.HEADER, allOf(
+                        containsString("jwt;dur="),
+                        containsString("user;dur="),
+                        containsString("db;dur="),
+                        containsString("serialize;dur="),
+                        containsString("total;dur="))));
+    }
+
+    @Test
+    public void unsampledAnonymousRequestHasNoHeaderTest() throws Exception {
+        SignUp signupRequest = new SignUp("Gagan Taneja", "timinganon@gmail.com", "tanejaGagan", "TimingAnonOrg", "Big Data Com.", LocalDateTime.now(), LocalDateTime.now());
+
+        mockMvc.perform(post("/api/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signupRequest)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(RequestTiming.HEADER));
+    }
+
+    private Long signUp(String email, String orgName) throws Exception {
+        SignUp signupRequest = new SignUp("Gagan Taneja", email, "tanejaGagan", orgName, "Big Data Com.", LocalDateTime.now(), LocalDateTime.now());
+        MvcResult result = mockMvc.perform(post("/api/signup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(signupRequest)))
+                .andExpect(status().isOk())
+                .andReturn();
+        String org = objectMapper.readValue(result.getResponse().getContentAsString(), SignUp.class).orgName();
+        return organizationService.getOrgByName(org).id();
+    }
+
+    private String loginTestUser(String email, Long orgId) throws Exception {
+        LoginRequest loginRequest = new LoginRequest(email, "tanejaGagan");
+        String json = mockMvc.perform(post("/api/login/org/{orgId}", orgId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginRequest)))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return objectMapper.readTree(json).get("token").asText();
+    }
+}
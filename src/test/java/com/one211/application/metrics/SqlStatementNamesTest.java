@@ -0,0 +1,32 @@
+package com.one211.application.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class SqlStatementNamesTest {
+
+    private final SqlStatementNames names = new SqlStatementNames(null);
+
+    @Test
+    public void runtimeSqlIsNamedByTheCallerTest() {
+        String sql = "SELECT %s FROM cluster".formatted("id, name");
+
+        assertEquals(OrgTags.OTHER, names.nameOf(sql));
+        assertEquals("ClusterService.GET_CLUSTER_PAGE_QUERY",
+                SqlStatementNames.named("ClusterService.GET_CLUSTER_PAGE_QUERY", () -> names.nameOf(sql)));
+        assertEquals(OrgTags.OTHER, names.nameOf(sql));
+    }
+
+    @Test
+    public void nestedNameIsRestoredTest() {
+        String inner = SqlStatementNames.named("Outer.QUERY", () -> {
+            String nested = SqlStatementNames.named("Inner.QUERY", () -> names.nameOf("SELECT 1"));
+            assertEquals("Outer.QUERY", names.nameOf("SELECT 1"));
+            return nested;
+        });
+
+        assertEquals("Inner.QUERY", inner);
+        assertEquals(OrgTags.OTHER, names.nameOf("SELECT 1"));
+    }
+}
@@ -0,0 +1,78 @@
+package com.one211.application.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class GeneratedRowMapperTest {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 1, 2, 3, 4, 5);
+
+    @Test
+    public void columnsAreResolvedOncePerResultSetTest() throws Exception {
+        ResultSet rs = clusterRow();
+        ClusterRowMapper mapper = new ClusterRowMapper();
+
+        Cluster first = mapper.mapRow(rs, 1);
+        Cluster second = mapper.mapRow(rs, 2);
+
+        assertEquals(new Cluster(7L, 42L, "edge", "Edge cluster", true, CREATED, 3L), first);
+        assertEquals(first, second);
+        verify(rs, times(1)).findColumn("creation_time");
+        verify(rs, never()).getLong("id");
+
+        ResultSet next = clusterRow();
+        mapper.mapRow(next, 1);
+        verify(next, times(1)).findColumn("creation_time");
+    }
+
+    @Test
+    public void sqlNullStaysNullForBoxedComponentsTest() throws Exception {
+        ResultSet rs = clusterRow();
+        when(rs.getBoolean(5)).thenReturn(false);
+        when(rs.getLong(7)).thenReturn(0L);
+        when(rs.wasNull()).thenReturn(true);
+
+        Cluster cluster = new ClusterRowMapper().mapRow(rs, 1);
+
+        assertNull(cluster.status());
+        assertNull(cluster.version());
+    }
+
+    @Test
+    public void nestedRecordIsMappedFromTheSameRowTest() throws Exception {
+        ResultSet rs = clusterRow();
+        when(rs.findColumn("action")).thenReturn(8);
+        when(rs.getString(8)).thenReturn("assign");
+
+        ClusterWithAction row = new ClusterWithActionRowMapper().mapRow(rs, 1);
+
+        assertEquals("edge", row.cluster().name());
+        assertEquals("assign", row.action());
+    }
+
+    private static ResultSet clusterRow() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        String[] columns = {"id", "org_id", "name", "description", "active", "creation_time", "version"};
+        for (int i = 0; i < columns.length; i++) {
+            when(rs.findColumn(columns[i])).thenReturn(i + 1);
+        }
+        when(rs.getLong(1)).thenReturn(7L);
+        when(rs.getLong(2)).thenReturn(42L);
+        when(rs.getString(3)).thenReturn("edge");
+        when(rs.getString(4)).thenReturn("Edge cluster");
+        when(rs.getBoolean(5)).thenReturn(true);
+        when(rs.getObject(6, LocalDateTime.class)).thenReturn(CREATED);
+        when(rs.getLong(7)).thenReturn(3L);
+        return rs;
+    }
+}
@@ -0,0 +1,233 @@
+package com.one211.application.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.one211.application.model.Cluster;
+import com.one211.application.model.ClusterAssignmentRequest;
+import com.one211.application.model.GroupAssignmentRequest;
+import com.one211.application.model.Group;
+import com.one211.application.model.SignUp;
+import com.one211.application.model.Webhook;
+import com.one211.application.service.ClusterAssignmentService;
+import com.one211.application.service.ClusterService;
+import com.one211.application.service.GroupService;
+import com.one211.application.service.OrganizationService;
+import com.one211.application.service.SignUpService;
+import com.one211.application.service.WebhookService;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+public class WebhookDispatcherTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("outbox.poll-interval-ms", () -> "50");
+        registry.add("outbox.backoff-initial-ms", () -> "100");
+        registry.add("outbox.allowed-hosts", () -> "localhost");
+    }
+
+    @Autowired
+    private SignUpService signUpService;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private ClusterService clusterService;
+
+    @Autowired
+    private ClusterAssignmentService clusterAssignmentService;
+
+    @Autowired
+    private GroupService groupService;
+
+    @Autowired
+    private WebhookService webhookService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private OutboxWriter outboxWriter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    private HttpServer receiver;
+    private final BlockingQueue<Delivery> deliveries = new LinkedBlockingQueue<>();
+    private final AtomicInteger failuresToSend = new AtomicInteger();
+
+    @BeforeEach
+    public void startReceiver() throws Exception {
+        receiver = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        receiver.createContext("/hook", exchange -> {
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            boolean fail = failuresToSend.getAndUpdate(n -> Math.max(0, n - 1)) > 0;
+            deliveries.add(new Delivery(new String(body, StandardCharsets.UTF_8),
+                    exchange.getRequestHeaders().getFirst(WebhookDispatcher.SIGNATURE_HEADER), fail));
+            exchange.sendResponseHeaders(fail ? 500 : 204, -1);
+            exchange.close();
+        });
+        receiver.start();
+    }
+
+    @AfterEach
+    public void stopReceiver() {
+        receiver.stop(0);
+    }
+
+    @Test
+    public void deliversAssignmentAndMembershipEventsInOrderTest() throws Exception {
+        Long orgId = signUp("hook1@gmail.com", "HookOrg1");
+        webhookService.register(orgId, new Webhook(receiverUrl(), "s3cret"));
+        clusterService.addCluster(orgId, new Cluster(null, orgId, "HookCluster", "Test Description", true, LocalDateTime.now()));
+        groupService.createGroup(orgId, new Group(null, "hookGroup", "Test group", null));
+
+        assertTrue(clusterAssignmentService.updateAssignment(orgId,
+                new ClusterAssignmentRequest("GROUP", "hookGroup", "HookCluster", "assign")));
+        assertTrue(groupService.handleUserInGroup(orgId, "hook1@gmail.com", new GroupAssignmentRequest("hookGroup", "add")));
+
+        JsonNode events = awaitEvents(2);
+        assertEquals("cluster.assignment", events.get(0).get("type").asText());
+        assertEquals("HookCluster", events.get(0).get("data").get("cluster").asText());
+        assertEquals("group.membership", events.get(1).get("type").asText());
+        assertTrue(events.get(0).get("id").asLong() < events.get(1).get("id").asLong());
+    }
+
+    @Test
+    public void retriesFailedDeliveryTest() throws Exception {
+        Long orgId = signUp("hook2@gmail.com", "HookOrg2");
+        webhookService.register(orgId, new Webhook(receiverUrl(), null));
+        clusterService.addCluster(orgId, new Cluster(null, orgId, "RetryCluster", "Test Description", true, LocalDateTime.now()));
+        failuresToSend.set(1);
+
+        assertTrue(clusterAssignmentService.updateAssignment(orgId,
+                new ClusterAssignmentRequest("USER", "hook2@gmail.com", "RetryCluster", "assign")));
+
+        Delivery failed = deliveries.poll(5, TimeUnit.SECONDS);
+        assertNotNull(failed);
+        assertTrue(failed.failed());
+        Delivery retried = deliveries.poll(5, TimeUnit.SECONDS);
+        assertNotNull(retried);
+        assertFalse(retried.failed());
+        assertNull(retried.signature());
+        assertEquals(objectMapper.readTree(failed.body()).get("events"), objectMapper.readTree(retried.body()).get("events"));
+    }
+
+    @Test
+    public void failedAssignmentWritesNoOutboxEventTest() {
+        Long orgId = signUp("hook3@gmail.com", "HookOrg3");
+        clusterService.addCluster(orgId, new Cluster(null, orgId, "OnceCluster", "Test Description", true, LocalDateTime.now()));
+        ClusterAssignmentRequest request = new ClusterAssignmentRequest("USER", "hook3@gmail.com", "OnceCluster", "assign");
+
+        assertTrue(clusterAssignmentService.updateAssignment(orgId, request));
+        assertFalse(clusterAssignmentService.updateAssignment(orgId, request));
+
+        Integer events = jdbc.queryForObject("SELECT COUNT(*) FROM outbox_event WHERE org_id = ?", Integer.class, orgId);
+        assertEquals(1, events);
+    }
+
+    @Test
+    public void holdsBackEventsBehindOpenTransactionTest() throws Exception {
+        Long orgId = signUp("hook4@gmail.com", "HookOrg4");
+        webhookService.register(orgId, new Webhook(receiverUrl(), "s3cret"));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
+        // The first event takes the lower id but commits after the second.
+        transactionTemplate.executeWithoutResult(status -> {
+            outboxWriter.append(orgId, "test.event", Map.of("n", 1));
+            Thread later = Thread.ofPlatform().start(() -> transactionTemplate.executeWithoutResult(
+                    inner -> outboxWriter.append(orgId, "test.event", Map.of("n", 2))));
+            try {
+                later.join();
+                assertNull(deliveries.poll(1, TimeUnit.SECONDS));
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        JsonNode events = awaitEvents(2);
+        assertEquals(1, events.get(0).get("data").get("n").asInt());
+        assertEquals(2, events.get(1).get("data").get("n").asInt());
+    }
+
+    @Test
+    public void refusesDeliveryToInternalAddressTest() throws Exception {
+        Long orgId = signUp("hook5@gmail.com", "HookOrg5");
+        Webhook webhook = webhookService.register(orgId, new Webhook(receiverUrl(), "s3cret"));
+        // As if the registered host's DNS records now pointed inside the network
+        jdbc.update("UPDATE webhook SET url = ? WHERE id = ?", receiverUrl().replace("localhost", "127.0.0.1"), webhook.id());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> outboxWriter.append(orgId, "test.event", Map.of("n", 1)));
+
+        assertNull(deliveries.poll(2, TimeUnit.SECONDS));
+        String error = jdbc.queryForObject("SELECT last_error FROM webhook WHERE id = ?", String.class, webhook.id());
+        assertTrue(error.contains("internal address"), error);
+    }
+
+    private JsonNode awaitEvents(int expected) throws Exception {
+        var events = objectMapper.createArrayNode();
+        while (events.size() < expected) {
+            Delivery delivery = deliveries.poll(5, TimeUnit.SECONDS);
+            assertNotNull(delivery, "timed out waiting for webhook delivery");
+            assertNotNull(delivery.signature());
+            objectMapper.readTree(delivery.body()).get("events").forEach(events::add);
+        }
+        return events;
+    }
+
+    private String receiverUrl() {
+        return "http://localhost:" + receiver.getAddress().getPort() + "/hook";
+    }
+
+    private Long signUp(String email, String orgName) {
+        var user = new SignUp(
+                "Gagan Taneja",
+                email,
+                "tanejaGagan",
+                orgName,
+                "Big Data Com.",
+                LocalDateTime.now(),
+                LocalDateTime.now()
+        );
+        signUpService.signUpUser(user);
+        return organizationService.getOrgByName(user.orgName()).id();
+    }
+
+    private record Delivery(String body, String signature, boolean failed) {}
+}
@@ -1,209 +1,360 @@
-package com.one211.application.service;
-
-import com.one211.application.model.Group;
-import com.one211.application.model.GroupAssignmentRequest;
-import com.one211.application.model.SignUp;
-import com.one211.application.model.UserWithStatus;
-import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.context.DynamicPropertyRegistry;
-import org.springframework.test.context.DynamicPropertySource;
-import org.springframework.test.context.jdbc.Sql;
-import org.testcontainers.containers.PostgreSQLContainer;
-import org.testcontainers.junit.jupiter.Container;
-import org.testcontainers.junit.jupiter.Testcontainers;
-
-import java.time.LocalDateTime;
-import java.util.List;
-
-import static org.junit.jupiter.api.Assertions.*;
-
-@SpringBootTest
-@Testcontainers
-@Sql(scripts = {"/schema.sql"})
-public class GroupServiceTest {
-
-    @Container
-    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
-
-    @DynamicPropertySource
-    static void registerPgProperties(DynamicPropertyRegistry registry) {
-        registry.add("spring.datasource.url", postgres::getJdbcUrl);
-        registry.add("spring.datasource.username", postgres::getUsername);
-        registry.add("spring.datasource.password", postgres::getPassword);
-    }
-
-    @Autowired
-    private GroupService groupService;
-    @Autowired
-    private SignUpService signUpService;
-    @Autowired
-    private OrganizationService organizationService;
-
-    @Test
-    public void addGroupTest() {
-        var data = signUp("ajay@gmail.com", "AJ");
-        Group group = new Group(null, "AJGroups", "AJ Groups", null);
-        Group res = groupService.createGroup(data.orgId(), group);
-        assertNotNull(res.id());
-    }
-
-    @Test
-    public void addGroupWithWrongInputTest() {
-        var data = signUp("ajayBB@gmail.com", "AJBB");
-        Group group = new Group(null, "AJGroups", "AJ Groups", null);
-        IllegalArgumentException err = assertThrows(IllegalArgumentException.class, () -> {
-            groupService.createGroup(data.orgId() + 2, group);
-        });
-        assertTrue(err.getMessage()
-                .startsWith("Group with name '" + group.name() + "' may already exist in organization " + (data.orgId() + 2)));
-    }
-
-    @Test
-    public void removeGroupTest() {
-        var data = signUp("ajay1@gmail.com", "AJ1");
-        Group group = new Group(null, "AJGroups1", "AJ Groups", null);
-        Group res = groupService.createGroup(data.orgId(), group);
-        assertNotNull(res.id());
-        Boolean res1 = groupService.deleteGroup(data.orgId(), res.name());
-        assertTrue(res1);
-    }
-
-    @Test
-    public void removeGroupWithWrongInputTest() {
-        var data = signUp("ajay2@gmail.com", "AJ2");
-        Group group = new Group(null, "AJGroups2", "AJ Groups", null);
-        Group res = groupService.createGroup(data.orgId(), group);
-        assertNotNull(res.id());
-        Boolean res1 = groupService.deleteGroup(data.orgId(), res.name() + "X");
-        assertFalse(res1);
-    }
-
-    @Test
-    public void getOrgGroupsTest() {
-        var data = signUp("ajay20@gmail.com", "AJ20");
-        Group group1 = new Group(null, "AJGroups", "AJ Groups", null);
-        Group res1 = groupService.createGroup(data.orgId(), group1);
-        assertNotNull(res1.id());
-
-        Group group2 = new Group(null, "AJGroups2", "AJ Groups", null);
-        Group res2 = groupService.createGroup(data.orgId(), group2);
-        assertNotNull(res2.id());
-
-        List<Group> response = groupService.getAllOrgGroups(data.orgId());
-        assertEquals(2, response.size());
-    }
-
-    @Test
-    public void addUserIntoGroupTest() {
-        var data = signUp("ajay3@gmail.com", "AJ3");
-        Group group = new Group(null, "AJGroups3", "AJ Groups", null);
-        Group res = groupService.createGroup(data.orgId(), group);
-        assertNotNull(res.id());
-
-        GroupAssignmentRequest request = new GroupAssignmentRequest(res.name(), "add");
-        Boolean added = groupService.handleUserInGroup(data.orgId(), data.email(), request);
-        assertTrue(added);
-    }
-
-    @Test
-    public void addUserIntoGroupWithWrongInputTest() {
-        var data = signUp("ajay4@gmail.com", "AJ4");
-        Group group = new Group(null, "AJGroups", "AJ Groups", null);
-        Group res = groupService.createGroup(data.orgId(), group);
-        assertNotNull(res.id());
-
-        GroupAssignmentRequest request = new GroupAssignmentRequest(res.name(), "add");
-        Boolean added = groupService.handleUserInGroup(data.orgId(), "wrong-email@gmail.com", request);
-        assertFalse(added);
-    }
-
-    @Test
-    public void removeUserFromGroupTest() {
-        var data = signUp("ajay5@gmail.com", "AJ5");
-        Group group = new Group(null, "AJGroups", "AJ Groups", null);
-        Group res = groupService.createGroup(data.orgId(), group);
-        assertNotNull(res.id());
-
-        GroupAssignmentRequest addReq = new GroupAssignmentRequest(res.name(), "add");
-        assertTrue(groupService.handleUserInGroup(data.orgId(), data.email(), addReq));
-
-        GroupAssignmentRequest removeReq = new GroupAssignmentRequest(res.name(), "remove");
-        assertTrue(groupService.handleUserInGroup(data.orgId(), data.email(), removeReq));
-    }
-
-    @Test
-    public void removeUserFromGroupWithWrongInputsTest() {
-        var data = signUp("ajay6@gmail.com", "AJ6");
-        Group group = new Group(null, "AJGroups", "AJ Groups", null);
-        Group res = groupService.createGroup(data.orgId(), group);
-        assertNotNull(res.id());
-
-        GroupAssignmentRequest addReq = new GroupAssignmentRequest(res.name(), "add");
-        assertTrue(groupService.handleUserInGroup(data.orgId(), data.email(), addReq));
-
-        GroupAssignmentRequest invalidReq = new GroupAssignmentRequest(res.name(), "");
-        IllegalArgumentException err = assertThrows(IllegalArgumentException.class, () -> {
-            groupService.handleUserInGroup(data.orgId(), data.email(), invalidReq);
-        });
-        assertTrue(err.getMessage().startsWith(invalidReq.action() + " is not a valid action"));
-    }
-
-    @Test
-    public void getGroupExistingUsersTest() {
-        var data = signUp("ajay7@gmail.com", "AJ7");
-        Group group = new Group(null, "AJGroups", "AJ Groups", null);
-        Group res = groupService.createGroup(data.orgId(), group);
-        assertNotNull(res.id());
-
-        GroupAssignmentRequest addReq = new GroupAssignmentRequest(res.name(), "add");
-        assertTrue(groupService.handleUserInGroup(data.orgId(), data.email(), addReq));
-
-        List<UserWithStatus> users = groupService.getGroupUsers(data.orgId(), res.name());
-        assertEquals(1, users.stream().filter(u -> u.status().equals("existing")).count());
-    }
-
-    @Test
-    public void getGroupNonExistingUsersTest() {
-        var data = signUp("ajay79@gmail.com", "AJ97");
-        Group group = new Group(null, "AJGroups", "AJ Groups", null);
-        Group res = groupService.createGroup(data.orgId(), group);
-        assertNotNull(res.id());
-
-        GroupAssignmentRequest addReq = new GroupAssignmentRequest(res.name(), "add");
-        assertTrue(groupService.handleUserInGroup(data.orgId(), data.email(), addReq));
-
-        List<UserWithStatus> users = groupService.getGroupUsers(data.orgId(), res.name());
-        assertEquals(0, users.stream().filter(u -> u.status().equals("nonexisting")).count());
-    }
-
-    @Test
-    public void getGroupUsersByWrongInputTest() {
-        var data = signUp("ajay8@gmail.com", "AJ8");
-        Group group = new Group(null, "AJGroups", "AJ Groups", null);
-        Group res = groupService.createGroup(data.orgId(), group);
-        assertNotNull(res.id());
-
-        List<UserWithStatus> users = groupService.getGroupUsers(data.orgId() + 1, res.name());
-        assertEquals(0, users.size());
-    }
-
-    // ----------------- Helpers -----------------
-    private SignUpData signUp(String email, String orgName) {
-        var user = new SignUp(
-                "Gagan Taneja",
-                email,
-                "tanejaGagan",
-                orgName,
-                "Big Data Com.",
-                LocalDateTime.now(),
-                LocalDateTime.now()
-        );
-        signUpService.signUpUser(user);
-        Long orgId = organizationService.getOrgByName(user.orgName()).id();
-        return new SignUpData(orgId, email);
-    }
-
-    private record SignUpData(Long orgId, String email) {}
-}
+package com.one211.application.service;
+
+import com.one211.application.model.Group;
+import com.one211.application.model.GroupAssignmentRequest;
+import com.one211.application.model.GroupUserPage;
+import com.one211.application.model.SignUp;
+import com.one211.application.model.User;
+import com.one211.application.model.UserWithStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+public class GroupServiceTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void registerPgProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private GroupService groupService;
+    @Autowired
+    private SignUpService signUpService;
+    @Autowired
+    private OrganizationService organizationService;
+    @Autowired
+    private UserService userService;
+
+    @Test
+    public void addGroupTest() {
+        var data = signUp("ajay@gmail.com", "AJ");
+        Group group = new Group(null, "AJGroups", "AJ Groups", null);
+        Group res = groupService.createGroup(data.orgId(), group);
+        assertNotNull(res.id());
+    }
+
+    @Test
+    public void addGroupWithWrongInputTest() {
+        var data = signUp("ajayBB@gmail.com", "AJBB");
+        Group group = new Group(null, "AJGroups", "AJ Groups", null);
+        IllegalArgumentException err = assertThrows(IllegalArgumentException.class, () -> {
+            groupService.createGroup(data.orgId() + 2, group);
+        });
+        assertTrue(err.getMessage()
+                .startsWith("Group with name '" + group.name() + "' may already exist in organization " + (data.orgId() + 2)));
+    }
+
+    @Test
+    public void removeGroupTest() {
+        var data = signUp("ajay1@gmail.com", "AJ1");
+        Group group = new Group(null, "AJGroups1", "AJ Groups", null);
+        Group res = groupService.createGroup(data.orgId(), group);
+        assertNotNull(res.id());
+        Boolean res1 = groupService.deleteGroup(data.orgId(), res.name());
+        assertTrue(res1);
+    }
+
+    @Test
+    public void removeGroupWithWrongInputTest() {
+        var data = signUp("ajay2@gmail.com", "AJ2");
+        Group group = new Group(null, "AJGroups2", "AJ Groups", null);
+        Group res = groupService.createGroup(data.orgId(), group);
+        assertNotNull(res.id());
+        Boolean res1 = groupService.deleteGroup(data.orgId(), res.name() + "X");
+        assertFalse(res1);
+    }
+
+    @Test
+    public void getOrgGroupsTest() {
+        var data = signUp("ajay20@gmail.com", "AJ20");
+        Group group1 = new Group(null, "AJGroups", "AJ Groups", null);
+        Group res1 = groupService.createGroup(data.orgId(), group1);
+        assertNotNull(res1.id());
+
+        Group group2 = new Group(null, "AJGroups2", "AJ Groups", null);
+        Group res2 = groupService.createGroup(data.orgId(), group2);
+        assertNotNull(res2.id());
+
+        List<Group> response = groupService.getAllOrgGroups(data.orgId());
+        assertEquals(2, response.size());
+    }
+
+    @Test
+    public void addUserIntoGroupTest() {
+        var data = signUp("ajay3@gmail.com", "AJ3");
+        Group group = new Group(null, "AJGroups3", "AJ Groups", null);
+        Group res = groupService.createGroup(data.orgId(), group);
+        assertNotNull(res.id());
+
+        GroupAssignmentRequest request = new GroupAssignmentRequest(res.name(), "add");
+        Boolean added = groupService.handleUserInGroup(data.orgId(), data.email(), request);
+        assertTrue(added);
+    }
+
+    @Test
+    public void addUserIntoGroupWithWrongInputTest() {
+        var data = signUp("ajay4@gmail.com", "AJ4");
+        Group group = new Group(null, "AJGroups", "AJ Groups", null);
+        Group res = groupService.createGroup(data.orgId(), group);
+        assertNotNull(res.id());
+
+        GroupAssignmentRequest request = new GroupAssignmentRequest(res.name(), "add");
+        Boolean added = groupService.handleUserInGroup(data.orgId(), "wrong-email@gmail.com", request);
+        assertFalse(added);
+    }
+
+    @Test
+    public void removeUserFromGroupTest() {
+        var data = signUp("ajay5@gmail.com", "AJ5");
+        Group group = new Group(null, "AJGroups", "AJ Groups", null);
+        Group res = groupService.createGroup(data.orgId(), group);
+        assertNotNull(res.id());
+
+        GroupAssignmentRequest addReq = new GroupAssignmentRequest(res.name(), "add");
+        assertTrue(groupService.handleUserInGroup(data.orgId(), data.email(), addReq));
+
+        GroupAssignmentRequest removeReq = new GroupAssignmentRequest(res.name(), "remove");
+        assertTrue(groupService.handleUserInGroup(data.orgId(), data.email(), removeReq));
+    }
+
+    @Test
+    public void removeUserFromGroupWithWrongInputsTest() {
+        var data = signUp("ajay6@gmail.com", "AJ6");
+        Group group = new Group(null, "AJGroups", "AJ Groups", null);
+        Group res = groupService.createGroup(data.orgId(), group);
+        assertNotNull(res.id());
+
+        GroupAssignmentRequest addReq = new GroupAssignmentRequest(res.name(), "add");
+        assertTrue(groupService.handleUserInGroup(data.orgId(), data.email(), addReq));
+
+        GroupAssignmentRequest invalidReq = new GroupAssignmentRequest(res.name(), "");
+        IllegalArgumentException err = assertThrows(IllegalArgumentException.class, () -> {
+            groupService.handleUserInGroup(data.orgId(), data.email(), invalidReq);
+        });
+        assertTrue(err.getMessage().startsWith(invalidReq.action() + " is not a valid action"));
+    }
+
+    @Test
+    public void getGroupExistingUsersTest() {
+        var data = signUp("ajay7@gmail.com", "AJ7");
+        Group group = new Group(null, "AJGroups", "AJ Groups", null);
+        Group res = groupService.createGroup(data.orgId(), group);
+        assertNotNull(res.id());
+
+        GroupAssignmentRequest addReq = new GroupAssignmentRequest(res.name(), "add");
+        assertTrue(groupService.handleUserInGroup(data.orgId(), data.email(), addReq));
+
+        List<UserWithStatus> users = groupService.getGroupUsers(data.orgId(), res.name());
+        assertEquals(1, users.stream().filter(u -> u.status().equals("existing")).count());
+    }
+
+    @Test
+    public void getGroupNonExistingUsersTest() {
+        var data = signUp("ajay79@gmail.com", "AJ97");
+        Group group = new Group(null, "AJGroups", "AJ Groups", null);
+        Group res = groupService.createGroup(data.orgId(), group);
+        assertNotNull(res.id());
+
+        GroupAssignmentRequest addReq = new GroupAssignmentRequest(res.name(), "add");
+        assertTrue(groupService.handleUserInGroup(data.orgId(), data.email(), addReq));
+
+        List<UserWithStatus> users = groupService.getGroupUsers(data.orgId(), res.name());
+        assertEquals(0, users.stream().filter(u -> u.status().equals("nonexisting")).count());
+    }
+
+    @Test
+    public void getGroupUsersByWrongInputTest() {
+        var data = signUp("ajay8@gmail.com", "AJ8");
+        Group group = new Group(null, "AJGroups", "AJ Groups", null);
+        Group res = groupService.createGroup(data.orgId(), group);
+        assertNotNull(res.id());
+
+        List<UserWithStatus> users = groupService.getGroupUsers(data.orgId() + 1, res.name());
+        assertEquals(0, users.size());
+    }
+
+    @Test
+    public void getGroupUsersWithProjectionTest() {
+        var data = signUp("ajay9@gmail.com", "AJ9");
+        Group res = groupService.createGroup(data.orgId(), new Group(null, "AJGroups", "AJ Groups", null));
+
+        List<UserWithStatus> users = groupService.getGroupUsers(data.orgId(), res.name(), UserProjection.parse("id,email"));
+        assertEquals(1, users.size());
+        assertEquals(data.email(), users.getFirst().user().email());
+        assertNotNull(users.getFirst().user().id());
+        assertNull(users.getFirst().user().name());
+        assertNull(users.getFirst().user().password());
+    }
+
+    @Test
+    public void getGroupUserPageFiltersTest() {
+        var data = signUp("ajay10@gmail.com", "AJ10");
+        Group res = groupService.createGroup(data.orgId(), new Group(null, "AJGroups", "AJ Groups", null));
+        for (String email : List.of("ajay10a@gmail.com", "ajay10b@gmail.com", "bhanu10@gmail.com")) {
+            userService.addUser(new User(null, "Member", email, "secret", "USER", null, null, null), data.orgId());
+        }
+        groupService.handleUserInGroup(data.orgId(), "ajay10a@gmail.com", new GroupAssignmentRequest(res.name(), "add"));
+        groupService.handleUserInGroup(data.orgId(), "bhanu10@gmail.com", new GroupAssignmentRequest(res.name(), "add"));
+
+        GroupUserPage members = groupService.getGroupUserPage(data.orgId(), res.name(), UserProjection.DEFAULT,
+                GroupService.Membership.MEMBERS, null, null, 10);
+        assertEquals(2L, members.total());
+        assertTrue(members.users().stream().allMatch(u -> u.status().equals("existing")));
+
+        GroupUserPage nonMembers = groupService.getGroupUserPage(data.orgId(), res.name(), UserProjection.DEFAULT,
+                GroupService.Membership.NON_MEMBERS, "AJAY10", null, 10);
+        assertEquals(Set.of("ajay10@gmail.com", "ajay10b@gmail.com"),
+                nonMembers.users().stream().map(u -> u.user().email()).collect(Collectors.toSet()));
+    }
+
+    @Test
+    public void getGroupUserPageCursorTest() {
+        var data = signUp("ajay11@gmail.com", "AJ11");
+        Group res = groupService.createGroup(data.orgId(), new Group(null, "AJGroups", "AJ Groups", null));
+        for (String email : List.of("ajay11a@gmail.com", "ajay11b@gmail.com")) {
+            userService.addUser(new User(null, "Member", email, "secret", "USER", null, null, null), data.orgId());
+        }
+
+        GroupUserPage first = groupService.getGroupUserPage(data.orgId(), res.name(), UserProjection.DEFAULT,
+                GroupService.Membership.ALL, null, null, 2);
+        assertEquals(3L, first.total());
+        assertEquals(2, first.users().size());
+        assertNotNull(first.nextCursor());
+
+        GroupUserPage second = groupService.getGroupUserPage(data.orgId(), res.name(), UserProjection.DEFAULT,
+                GroupService.Membership.ALL, null, first.nextCursor(), 2);
+        assertNull(second.total());
+        assertNull(second.nextCursor());
+        assertEquals(1, second.users().size());
+
+        Set<String> seen = new HashSet<>();
+        first.users().forEach(u -> seen.add(u.user().email()));
+        second.users().forEach(u -> seen.add(u.user().email()));
+        assertEquals(Set.of("ajay11@gmail.com", "ajay11a@gmail.com", "ajay11b@gmail.com"), seen);
+    }
+
+    @Test
+    public void getGroupUsersReadsEveryPageTest() {
+        var data = signUp("ajay12@gmail.com", "AJ12");
+        Group res = groupService.createGroup(data.orgId(), new Group(null, "AJGroups", "AJ Groups", null));
+        for (int i = 0; i < 210; i++) {
+            userService.addUser(new User(null, "Member", "ajay12-" + i + "@gmail.com", "secret", "USER", null, null, null), data.orgId());
+        }
+
+        List<UserWithStatus> users = groupService.getGroupUsers(data.orgId(), res.name());
+        assertEquals(211, users.size());
+        assertEquals(211, users.stream().map(u -> u.user().email()).distinct().count());
+    }
+
+    @Test
+    public void nestedGroupMembersTest() {
+        var data = signUp("nest1@gmail.com", "NEST1");
+        userService.addUser(new User(null, "Nest Member", "nest1b@gmail.com", "secret", "USER", null, null, null), data.orgId());
+        for (String name : List.of("Engineering", "Platform", "Storage")) {
+            groupService.createGroup(data.orgId(), new Group(null, name, name + " team", null));
+        }
+        groupService.handleUserInGroup(data.orgId(), data.email(), new GroupAssignmentRequest("Storage", "add"));
+        groupService.handleUserInGroup(data.orgId(), "nest1b@gmail.com", new GroupAssignmentRequest("Platform", "add"));
+
+        assertTrue(groupService.handleGroupInGroup(data.orgId(), "Engineering", new GroupAssignmentRequest("Platform", "add")));
+        assertTrue(groupService.handleGroupInGroup(data.orgId(), "Platform", new GroupAssignmentRequest("Storage", "add")));
+        assertFalse(groupService.handleGroupInGroup(data.orgId(), "Platform", new GroupAssignmentRequest("Storage", "add")));
+
+        assertEquals(Set.of("nest1@gmail.com", "nest1b@gmail.com"), Set.copyOf(groupService.getTransitiveGroupUsers(data.orgId(), "Engineering")));
+        assertEquals(List.of("nest1@gmail.com"), groupService.getTransitiveGroupUsers(data.orgId(), "Storage"));
+        assertEquals(List.of("Engineering", "Platform", "Storage"), groupService.getUserGroups(data.orgId(), data.email()));
+        assertEquals(List.of("Engineering", "Platform"), groupService.getUserGroups(data.orgId(), "nest1b@gmail.com"));
+    }
+
+    @Test
+    public void nestedGroupCycleTest() {
+        var data = signUp("nest2@gmail.com", "NEST2");
+        for (String name : List.of("A", "B", "C")) {
+            groupService.createGroup(data.orgId(), new Group(null, name, name, null));
+        }
+        groupService.handleGroupInGroup(data.orgId(), "A", new GroupAssignmentRequest("B", "add"));
+        groupService.handleGroupInGroup(data.orgId(), "B", new GroupAssignmentRequest("C", "add"));
+
+        assertThrows(IllegalStateException.class,
+                () -> groupService.handleGroupInGroup(data.orgId(), "C", new GroupAssignmentRequest("A", "add")));
+        assertThrows(IllegalStateException.class,
+                () -> groupService.handleGroupInGroup(data.orgId(), "B", new GroupAssignmentRequest("B", "add")));
+        assertThrows(IllegalArgumentException.class,
+                () -> groupService.handleGroupInGroup(data.orgId(), "A", new GroupAssignmentRequest("Missing", "add")));
+    }
+
+    @Test
+    public void unnestKeepsOtherPathsTest() {
+        var data = signUp("nest3@gmail.com", "NEST3");
+        for (String name : List.of("Top", "Left", "Right", "Bottom")) {
+            groupService.createGroup(data.orgId(), new Group(null, name, name, null));
+        }
+        groupService.handleUserInGroup(data.orgId(), data.email(), new GroupAssignmentRequest("Bottom", "add"));
+        groupService.handleGroupInGroup(data.orgId(), "Top", new GroupAssignmentRequest("Left", "add"));
+        groupService.handleGroupInGroup(data.orgId(), "Top", new GroupAssignmentRequest("Right", "add"));
+        groupService.handleGroupInGroup(data.orgId(), "Left", new GroupAssignmentRequest("Bottom", "add"));
+        groupService.handleGroupInGroup(data.orgId(), "Right", new GroupAssignmentRequest("Bottom", "add"));
+
+        assertTrue(groupService.handleGroupInGroup(data.orgId(), "Top", new GroupAssignmentRequest("Left", "remove")));
+        assertEquals(List.of(data.email()), groupService.getTransitiveGroupUsers(data.orgId(), "Top"));
+
+        assertTrue(groupService.handleGroupInGroup(data.orgId(), "Top", new GroupAssignmentRequest("Right", "remove")));
+        assertTrue(groupService.getTransitiveGroupUsers(data.orgId(), "Top").isEmpty());
+        assertEquals(List.of("Bottom", "Left", "Right"), groupService.getUserGroups(data.orgId(), data.email()));
+    }
+
+    @Test
+    public void deleteNestedGroupTest() {
+        var data = signUp("nest4@gmail.com", "NEST4");
+        for (String name : List.of("Outer", "Middle", "Inner")) {
+            groupService.createGroup(data.orgId(), new Group(null, name, name, null));
+        }
+        groupService.handleUserInGroup(data.orgId(), data.email(), new GroupAssignmentRequest("Inner", "add"));
+        groupService.handleGroupInGroup(data.orgId(), "Outer", new GroupAssignmentRequest("Middle", "add"));
+        groupService.handleGroupInGroup(data.orgId(), "Middle", new GroupAssignmentRequest("Inner", "add"));
+
+        assertTrue(groupService.deleteGroup(data.orgId(), "Middle"));
+
+        assertTrue(groupService.getTransitiveGroupUsers(data.orgId(), "Outer").isEmpty());
+        assertEquals(List.of("Inner"), groupService.getUserGroups(data.orgId(), data.email()));
+    }
+
+    // ----------------- Helpers -----------------
+    private SignUpData signUp(String email, String orgName) {
+        var user = new SignUp(
+                "Gagan Taneja",
+                email,
+                "tanejaGagan",
+                orgName,
+                "Big Data Com.",
+                LocalDateTime.now(),
+                LocalDateTime.now()
+        );
+        signUpService.signUpUser(user);
+        Long orgId = organizationService.getOrgByName(user.orgName()).id();
+        return new SignUpData(orgId, email);
+    }
+
+    private record SignUpData(Long orgId, String email) {}
+}
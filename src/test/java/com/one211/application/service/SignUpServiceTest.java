@@ -1,67 +1,87 @@
-package com.one211.application.service;
-
-import com.one211.application.model.SignUp;
-import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.context.DynamicPropertyRegistry;
-import org.springframework.test.context.DynamicPropertySource;
-import org.springframework.test.context.jdbc.Sql;
-import org.testcontainers.containers.PostgreSQLContainer;
-import org.testcontainers.junit.jupiter.Container;
-import org.testcontainers.junit.jupiter.Testcontainers;
-
-import java.time.LocalDateTime;
-
-import static org.junit.jupiter.api.Assertions.*;
-
-@SpringBootTest
-@Testcontainers
-@Sql(scripts = {"/schema.sql"})
-public class SignUpServiceTest {
-
-    @Container
-    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
-
-    @DynamicPropertySource
-    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
-        registry.add("spring.datasource.url", postgres::getJdbcUrl);
-        registry.add("spring.datasource.username", postgres::getUsername);
-        registry.add("spring.datasource.password", postgres::getPassword);
-    }
-
-    @Autowired
-    private SignUpService signUpService;
-
-    @Test
-    public void signUp_withValidData_shouldSucceed() {
-        SignUp newUser = createTestUser("ekantEyadav@gmail.com", "AWS");
-        SignUp savedUser = signUpService.signUpUser(newUser);
-
-        assertNotNull(savedUser);
-        assertEquals("AWS", savedUser.orgName());
-    }
-
-    @Test
-    public void signUp_withInvalidEmail_shouldFail() {
-        SignUp invalidUser = createTestUser("@gmail.com", "ZYZ");
-
-        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
-            signUpService.signUpUser(invalidUser);
-        });
-
-        assertTrue(exception.getMessage().contains("Invalid email: "));
-    }
-
-    private SignUp createTestUser(String email, String orgName) {
-        return new SignUp(
-                "Gagan Taneja",
-                email,
-                "tanejaGagan",
-                orgName,
-                "Big Data Com.",
-                LocalDateTime.now(),
-                LocalDateTime.now()
-        );
-    }
-}
+package com.one211.application.service;
+
+import com.one211.application.model.SignUp;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+public class SignUpServiceTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private SignUpService signUpService;
+
+    @Test
+    public void signUp_withValidData_shouldSucceed() {
+        SignUp newUser = createTestUser("ekantEyadav@gmail.com", "AWS");
+        SignUp savedUser = signUpService.signUpUser(newUser);
+
+        assertNotNull(savedUser);
+        assertEquals("AWS", savedUser.orgName());
+    }
+
+    @Test
+    public void signUp_withInvalidEmail_shouldFail() {
+        SignUp invalidUser = createTestUser("@gmail.com", "ZYZ");
+
+        IllegalArgumentException exception = assertThrows(IllegalArgumentException.class, () -> {
+            signUpService.signUpUser(invalidUser);
+        });
+
+        assertTrue(exception.getMessage().contains("Invalid email: "));
+    }
+
+    @Test
+    public void signUp_withDuplicateEmail_shouldFail() {
+        signUpService.signUpUser(createTestUser("dupEmail@gmail.com", "DupEmailOrg1"));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            signUpService.signUpUser(createTestUser("dupEmail@gmail.com", "DupEmailOrg2"));
+        });
+
+        assertEquals("Email already exists: dupEmail@gmail.com", exception.getMessage());
+    }
+
+    @Test
+    public void signUp_withDuplicateOrgName_shouldFail() {
+        signUpService.signUpUser(createTestUser("dupOrg1@gmail.com", "DupOrg"));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
+            signUpService.signUpUser(createTestUser("dupOrg2@gmail.com", "DupOrg"));
+        });
+
+        assertEquals("Organization already exists: DupOrg", exception.getMessage());
+    }
+
+    private SignUp createTestUser(String email, String orgName) {
+        return new SignUp(
+                "Gagan Taneja",
+                email,
+                "tanejaGagan",
+                orgName,
+                "Big Data Com.",
+                LocalDateTime.now(),
+                LocalDateTime.now()
+        );
+    }
+}
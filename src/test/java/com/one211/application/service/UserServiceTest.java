@@ -1,122 +1,159 @@
-package com.one211.application.service;
-
-import com.one211.application.model.SignUp;
-import com.one211.application.model.User;
-import org.junit.jupiter.api.Test;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.test.context.DynamicPropertyRegistry;
-import org.springframework.test.context.DynamicPropertySource;
-import org.springframework.test.context.jdbc.Sql;
-import org.testcontainers.containers.PostgreSQLContainer;
-import org.testcontainers.junit.jupiter.Container;
-import org.testcontainers.junit.jupiter.Testcontainers;
-
-import java.time.LocalDateTime;
-import java.util.concurrent.atomic.AtomicInteger;
-
-import static org.junit.jupiter.api.Assertions.*;
-
-@SpringBootTest
-@Testcontainers
-@Sql(scripts = {"/schema.sql"})
-public class UserServiceTest {
-
-    private static final AtomicInteger counter = new AtomicInteger();
-
-    @Container
-    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
-
-    @DynamicPropertySource
-    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
-        registry.add("spring.datasource.url", postgres::getJdbcUrl);
-        registry.add("spring.datasource.username", postgres::getUsername);
-        registry.add("spring.datasource.password", postgres::getPassword);
-    }
-
-    @Autowired
-    private UserService userService;
-
-    @Autowired
-    private SignUpService signUpService;
-
-    @Autowired
-    private OrganizationService organizationService;
-
-    @Test
-    public void addAndRemoveUser_shouldSucceed() {
-        String email = generateUniqueEmail();
-        SignUp newUser = createTestUser(email, "Dance D.");
-        SignUp savedUser = signUpService.signUpUser(newUser);
-
-        assertEquals(email, savedUser.email());
-        boolean deleted = userService.removeUser(savedUser.email());
-        assertTrue(deleted);
-    }
-
-    @Test
-    public void getUserByEmailTest() {
-        String email = generateUniqueEmail();
-        SignUp newUser = createTestUser(email, "Dairy");
-        SignUp savedUser = signUpService.signUpUser(newUser);
-
-        User fetchedByEmail = userService.getUserByEmail(savedUser.email());
-
-        assertNotNull(fetchedByEmail);
-        assertEquals(savedUser.email(), fetchedByEmail.email());
-    }
-
-    @Test void addUser() {
-        String email = generateUniqueEmail();
-        SignUp newUser = createTestUser(email, "TCS");
-        SignUp savedUser = signUpService.signUpUser(newUser);
-
-        User newUserForOrg = userService.addUser(new User(null, "Raja Ram", "raja@gmail.com", "abcdefg", "USER", "HAPPY HAPPY", LocalDateTime.now(), LocalDateTime.now()), organizationService.getOrgByName(savedUser.orgName()).id());
-        assertNotNull(newUserForOrg.email());
-    }
-
-    @Test
-    public void updateUser_shouldNotUpdateEmail() {
-        String originalEmail = generateUniqueEmail();
-        SignUp newUser = createTestUser(originalEmail, "PKJ");
-
-        SignUp result = signUpService.signUpUser(newUser);
-        Long userId = userService.getUserByEmail(result.email()).id();
-        String registeredEmail = userService.getUserByEmail(result.email()).email();
-
-        String attemptedNewEmail = generateUniqueEmail(); // This should be ignored in update
-
-        User updateData = new User(
-                userId,
-                "Gagan Taneja",
-                attemptedNewEmail, // Should not be updated
-                "tanejaGagan",
-                "ADMIN",
-                "Big Data Com.",
-                newUser.createdAt(),
-                LocalDateTime.now()
-        );
-
-        User updatedUser = userService.updateUser(registeredEmail, updateData);
-
-        assertNotNull(updatedUser);
-        assertEquals(registeredEmail, updatedUser.email()); // Email should remain unchanged
-        assertEquals(userId, updatedUser.id());
-    }
-
-    private SignUp createTestUser(String email, String orgName) {
-        return new SignUp(
-                "Gagan Taneja",
-                email,
-                "tanejaGagan",
-                orgName,
-                "Big Data Com.",
-                LocalDateTime.now(),
-                LocalDateTime.now()
-        );
-    }
-
-    private String generateUniqueEmail() {
-        return "user" + counter.incrementAndGet() + "@example.com";
-    }
-}
+package com.one211.application.service;
+
+import com.one211.application.model.SignUp;
+import com.one211.application.model.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+public class UserServiceTest {
+
+    private static final AtomicInteger counter = new AtomicInteger();
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private SignUpService signUpService;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Test
+    public void addAndRemoveUser_shouldSucceed() {
+        String email = generateUniqueEmail();
+        SignUp newUser = createTestUser(email, "Dance D.");
+        SignUp savedUser = signUpService.signUpUser(newUser);
+
+        assertEquals(email, savedUser.email());
+        boolean deleted = userService.removeUser(savedUser.email());
+        assertTrue(deleted);
+    }
+
+    @Test
+    public void getUserByEmailTest() {
+        String email = generateUniqueEmail();
+        SignUp newUser = createTestUser(email, "Dairy");
+        SignUp savedUser = signUpService.signUpUser(newUser);
+
+        User fetchedByEmail = userService.getUserByEmail(savedUser.email());
+
+        assertNotNull(fetchedByEmail);
+        assertEquals(savedUser.email(), fetchedByEmail.email());
+    }
+
+    @Test void addUser() {
+        String email = generateUniqueEmail();
+        SignUp newUser = createTestUser(email, "TCS");
+        SignUp savedUser = signUpService.signUpUser(newUser);
+
+        User newUserForOrg = userService.addUser(new User(null, "Raja Ram", "raja@gmail.com", "abcdefg", "USER", "HAPPY HAPPY", LocalDateTime.now(), LocalDateTime.now()), organizationService.getOrgByName(savedUser.orgName()).id());
+        assertNotNull(newUserForOrg.email());
+    }
+
+    @Test
+    public void updateUser_shouldNotUpdateEmail() {
+        String originalEmail = generateUniqueEmail();
+        SignUp newUser = createTestUser(originalEmail, "PKJ");
+
+        SignUp result = signUpService.signUpUser(newUser);
+        Long userId = userService.getUserByEmail(result.email()).id();
+        String registeredEmail = userService.getUserByEmail(result.email()).email();
+
+        String attemptedNewEmail = generateUniqueEmail(); // This should be ignored in update
+
+        User updateData = new User(
+                userId,
+                "Gagan Taneja",
+                attemptedNewEmail, // Should not be updated
+                "tanejaGagan",
+                "ADMIN",
+                "Big Data Com.",
+                newUser.createdAt(),
+                LocalDateTime.now()
+        );
+
+        User updatedUser = userService.updateUser(registeredEmail, updateData);
+
+        assertNotNull(updatedUser);
+        assertEquals(registeredEmail, updatedUser.email()); // Email should remain unchanged
+        assertEquals(userId, updatedUser.id());
+    }
+
+    @Test
+    public void updateUserMatchesEmailIgnoringCaseTest() {
+        SignUp savedUser = signUpService.signUpUser(createTestUser(generateUniqueEmail(), "CaseVariants"));
+        Long orgId = organizationService.getOrgByName(savedUser.orgName()).id();
+        userService.addUser(new User(null, "Ravi Rao", "Ravi.Rao@example.com", "secret", "USER", null, null, null), orgId);
+        userService.addUser(new User(null, "Meera Iyer", "Meera.Iyer@example.com", "secret", "USER", null, null, null), orgId);
+        userService.addUser(new User(null, "Meera Iyer", "meera.iyer@example.com", "secret", "USER", null, null, null), orgId);
+
+        User updated = userService.updateUser("ravi.rao@example.com", new User(null, "Ravi R.", null, null, null, null, null, null));
+        assertEquals("Ravi.Rao@example.com", updated.email());
+        assertEquals("Ravi R.", updated.name());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> userService.updateUser("meera.iyer@example.com", new User(null, "Meera I.", null, null, null, null, null, null)));
+        List<User> variants = userService.searchUsers(orgId, "meera.iyer@", 10);
+        assertEquals(2, variants.size());
+        assertTrue(variants.stream().allMatch(user -> "Meera Iyer".equals(user.name())));
+        assertThrows(IllegalStateException.class,
+                () -> userService.updateUser("nobody@example.com", new User(null, "Nobody", null, null, null, null, null, null)));
+    }
+
+    @Test
+    public void searchUsersRanksPrefixMatchesFirstTest() {
+        String email = generateUniqueEmail();
+        SignUp savedUser = signUpService.signUpUser(createTestUser(email, "Typeahead"));
+        Long orgId = organizationService.getOrgByName(savedUser.orgName()).id();
+        userService.addUser(new User(null, "Kiran Rao", "kiran.rao@example.com", "secret", "USER", null, null, null), orgId);
+        userService.addUser(new User(null, "Arun Kiran", "arun.k@example.com", "secret", "USER", null, null, null), orgId);
+
+        List<User> results = userService.searchUsers(orgId, "Kiran", 10);
+        assertEquals(2, results.size());
+        assertEquals("kiran.rao@example.com", results.getFirst().email());
+        assertNull(results.getFirst().password());
+
+        List<User> shortQuery = userService.searchUsers(orgId, "ar", 10);
+        assertEquals(List.of("arun.k@example.com"), shortQuery.stream().map(User::email).toList());
+    }
+
+    private SignUp createTestUser(String email, String orgName) {
+        return new SignUp(
+                "Gagan Taneja",
+                email,
+                "tanejaGagan",
+                orgName,
+                "Big Data Com.",
+                LocalDateTime.now(),
+                LocalDateTime.now()
+        );
+    }
+
+    private String generateUniqueEmail() {
+        return "user" + counter.incrementAndGet() + "@example.com";
+    }
+}
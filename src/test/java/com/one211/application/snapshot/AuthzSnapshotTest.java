@@ -0,0 +1,135 @@
+package com.one211.application.snapshot;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AuthzSnapshotTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void answersAccessFromMappedFileTest() throws IOException {
+        Path file = dir.resolve("org-7.authz");
+        new AuthzSnapshotWriter(7, 42, 1_000, List.of("alice@x.com", "bob@x.com", "zoë@x.com"),
+                List.of("eng", "eng-backend"), List.of("prod", "staging", "dev"))
+                .member("alice@x.com", "eng")
+                .member("bob@x.com", "eng-backend")
+                .member("bob@x.com", "eng")
+                .userAssignment("zoë@x.com", "dev")
+                .groupAssignment("eng", "staging")
+                .groupAssignment("eng-backend", "staging")
+                .groupAssignment("eng-backend", "prod")
+                .writeTo(file);
+
+        AuthzSnapshot snapshot = AuthzSnapshot.map(file);
+        assertEquals(7, snapshot.orgId());
+        assertEquals(42, snapshot.version());
+        assertEquals(1_000, snapshot.createdAtMillis());
+        assertEquals(3, snapshot.userCount());
+        assertEquals(2, snapshot.groupCount());
+        assertEquals(3, snapshot.clusterCount());
+
+        assertTrue(snapshot.canAccess("alice@x.com", "staging"));
+        assertFalse(snapshot.canAccess("alice@x.com", "prod"));
+        assertTrue(snapshot.canAccess("bob@x.com", "prod"));
+        assertTrue(snapshot.canAccess("bob@x.com", "staging"));
+        assertTrue(snapshot.canAccess("zoë@x.com", "dev"));
+        assertFalse(snapshot.canAccess("zoë@x.com", "staging"));
+
+        assertTrue(snapshot.isMember("bob@x.com", "eng"));
+        assertFalse(snapshot.isMember("alice@x.com", "eng-backend"));
+        assertTrue(snapshot.groupCanAccess("eng-backend", "prod"));
+        assertFalse(snapshot.groupCanAccess("eng", "prod"));
+
+        assertFalse(snapshot.canAccess("mallory@x.com", "prod"));
+        assertFalse(snapshot.canAccess("alice@x.com", "missing"));
+        assertFalse(snapshot.canAccess(null, "prod"));
+        assertEquals(-1, snapshot.userId("alice@x.co"));
+        assertEquals("zoë@x.com", snapshot.userName(snapshot.userId("zoë@x.com")));
+    }
+
+    @Test
+    public void matchesRelationsAcrossWordBoundariesTest() throws IOException {
+        List<String> users = names("user-", 150);
+        List<String> groups = names("group-", 70);
+        List<String> clusters = names("cluster-", 200);
+        AuthzSnapshotWriter writer = new AuthzSnapshotWriter(1, 1, 0, users, groups, clusters);
+        boolean[][] member = new boolean[users.size()][groups.size()];
+        boolean[][] direct = new boolean[users.size()][clusters.size()];
+        boolean[][] assigned = new boolean[groups.size()][clusters.size()];
+        Random random = new Random(42);
+        for (int i = 0; i < 2_000; i++) {
+            int user = random.nextInt(users.size());
+            int group = random.nextInt(groups.size());
+            int cluster = random.nextInt(clusters.size());
+            switch (random.nextInt(3)) {
+                case 0 -> {
+                    member[user][group] = true;
+                    writer.member(users.get(user), groups.get(group));
+                }
+                case 1 -> {
+                    direct[user][cluster] = true;
+                    writer.userAssignment(users.get(user), clusters.get(cluster));
+                }
+                default -> {
+                    assigned[group][cluster] = true;
+                    writer.groupAssignment(groups.get(group), clusters.get(cluster));
+                }
+            }
+        }
+
+        AuthzSnapshot snapshot = AuthzSnapshot.wrap(ByteBuffer.wrap(writer.toBytes()));
+        for (int user = 0; user < users.size(); user++) {
+            for (int cluster = 0; cluster < clusters.size(); cluster++) {
+                boolean expected = direct[user][cluster];
+                for (int group = 0; group < groups.size() && !expected; group++) {
+                    expected = member[user][group] && assigned[group][cluster];
+                }
+                assertEquals(expected, snapshot.canAccess(users.get(user), clusters.get(cluster)), users.get(user) + " " + clusters.get(cluster));
+            }
+        }
+    }
+
+    @Test
+    public void rewriteLeavesExistingMappingIntactTest() throws IOException {
+        Path file = dir.resolve("org-1.authz");
+        new AuthzSnapshotWriter(1, 1, 0, List.of("alice@x.com"), List.of(), List.of("prod"))
+                .userAssignment("alice@x.com", "prod")
+                .writeTo(file);
+        AuthzSnapshot before = AuthzSnapshot.map(file);
+
+        new AuthzSnapshotWriter(1, 2, 0, List.of("alice@x.com", "bob@x.com"), List.of(), List.of("prod"))
+                .userAssignment("bob@x.com", "prod")
+                .writeTo(file);
+        AuthzSnapshot after = AuthzSnapshot.map(file);
+
+        assertEquals(1, before.version());
+        assertTrue(before.canAccess("alice@x.com", "prod"));
+        assertEquals(2, after.version());
+        assertFalse(after.canAccess("alice@x.com", "prod"));
+        assertTrue(after.canAccess("bob@x.com", "prod"));
+    }
+
+    @Test
+    public void rejectsOtherFilesTest() {
+        assertThrows(IOException.class, () -> AuthzSnapshot.wrap(ByteBuffer.allocate(AuthzSnapshot.HEADER_SIZE)));
+    }
+
+    private static List<String> names(String prefix, int count) {
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            names.add(prefix + i);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,75 @@
+package com.one211.application.tenant;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LongObjectMapTest {
+
+    @Test
+    public void putGetRemoveTest() {
+        LongObjectMap<String> map = new LongObjectMap<>();
+        assertNull(map.put(1, "one"));
+        assertNull(map.put(0, "zero"));
+        assertNull(map.put(-5, "minus five"));
+        assertEquals("one", map.put(1, "uno"));
+
+        assertEquals("uno", map.get(1));
+        assertEquals("zero", map.get(0));
+        assertEquals("minus five", map.get(-5));
+        assertNull(map.get(2));
+        assertEquals(3, map.size());
+
+        assertEquals("zero", map.remove(0));
+        assertNull(map.remove(0));
+        assertNull(map.get(0));
+        assertEquals(2, map.size());
+    }
+
+    @Test
+    public void matchesHashMapUnderRandomChurnTest() {
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 200_000; i++) {
+            long key = random.nextInt(5_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(key), map.remove(key));
+            } else {
+                assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+            }
+        }
+        assertEquals(expected.size(), map.size());
+        for (long key = 0; key < 5_000; key++) {
+            assertEquals(expected.get(key), map.get(key));
+        }
+    }
+
+    @Test
+    public void readersSeeEveryStableKeyWhileWriterResizesTest() throws Exception {
+        LongObjectMap<Long> map = new LongObjectMap<>();
+        for (long key = -1_000; key < 0; key++) {
+            map.put(key, key);
+        }
+        Thread writer = new Thread(() -> {
+            for (long key = 1; key <= 200_000; key++) {
+                map.put(key, key);
+                if (key % 2 == 0) {
+                    map.remove(key - 1);
+                }
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            for (long key = -1_000; key < 0; key++) {
+                assertEquals(key, map.get(key));
+            }
+        }
+        writer.join();
+        assertEquals(1_000 + 100_000, map.size());
+    }
+}
@@ -0,0 +1,158 @@
+package com.one211.application.tenant;
+
+import com.one211.application.model.OrgDeletionJob;
+import com.one211.application.model.Organization;
+import com.one211.application.model.SignUp;
+import com.one211.application.service.OrganizationService;
+import com.one211.application.service.SignUpService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The background poll is pushed out of the way; tests drive the worker directly.
+@SpringBootTest(properties = {"org-deletion.chunk-size=7", "org-deletion.pause-ms=0", "org-deletion.poll-interval-ms=3600000"})
+@Testcontainers
+public class OrgDeletionWorkerTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private OrgDeletionWorker worker;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private SignUpService signUpService;
+
+    @Autowired
+    private TenantDirectory tenantDirectory;
+
+    @Autowired
+    private JdbcTemplate jdbc;
+
+    @Test
+    public void deleteOrgTombstonesAndQueuesTest() {
+        Long orgId = signUp("tombstone@example.com", "Deletion Tombstone");
+
+        OrgDeletionJob job = organizationService.deleteOrg(orgId);
+
+        assertEquals("PENDING", job.status());
+        assertEquals(0L, job.rowsDeleted());
+        assertNull(organizationService.getOrgById(orgId));
+        assertNull(organizationService.update(new Organization(orgId, "Renamed", null, null, LocalDateTime.now())));
+        assertEquals(1, count("SELECT COUNT(*) FROM organization WHERE id = ? AND deleted_at IS NOT NULL", orgId));
+        assertEquals(job, organizationService.deleteOrg(orgId));
+        assertThrows(IllegalArgumentException.class, () -> organizationService.deleteOrg(orgId + 100_000));
+    }
+
+    @Test
+    public void workerRemovesRowsInChunksTest() throws InterruptedException {
+        Long orgId = signUp("chunks@example.com", "Deletion Chunks");
+        Long otherOrgId = signUp("bystander@example.com", "Deletion Bystander");
+        seed(orgId, 20);
+        seed(otherOrgId, 3);
+
+        organizationService.deleteOrg(orgId);
+        worker.poll();
+
+        OrgDeletionJob job = organizationService.getDeletion(orgId);
+        assertEquals("DONE", job.status());
+        assertNotNull(job.completedAt());
+        // 20 each of clusters, groups, assignments and group members, the admin's membership, and the org itself
+        assertEquals(82L, job.rowsDeleted());
+        for (String table : new String[]{"user_group", "cluster_association", "\"group\"", "cluster", "user_org"}) {
+            assertEquals(0, count("SELECT COUNT(*) FROM " + table + " WHERE org_id = ?", orgId), table);
+            assertTrue(count("SELECT COUNT(*) FROM " + table + " WHERE org_id = ?", otherOrgId) > 0, table);
+        }
+        assertEquals(0, count("SELECT COUNT(*) FROM organization WHERE id = ?", orgId));
+        assertNotNull(organizationService.getOrgById(otherOrgId));
+    }
+
+    @Test
+    public void workerResumesFromRecordedPhaseTest() throws InterruptedException {
+        Long orgId = signUp("resume@example.com", "Deletion Resume");
+        seed(orgId, 10);
+        organizationService.deleteOrg(orgId);
+        // As left by a worker stopped after the first two tables
+        jdbc.update("DELETE FROM user_group WHERE org_id = ?", orgId);
+        jdbc.update("DELETE FROM cluster_association WHERE org_id = ?", orgId);
+        jdbc.update("UPDATE org_deletion_job SET status = 'RUNNING', phase = 'group', rows_deleted = 20 WHERE org_id = ?", orgId);
+
+        worker.poll();
+
+        OrgDeletionJob job = organizationService.getDeletion(orgId);
+        assertEquals("DONE", job.status());
+        assertEquals(42L, job.rowsDeleted());
+        assertEquals(0, count("SELECT COUNT(*) FROM cluster WHERE org_id = ?", orgId));
+    }
+
+    @Test
+    public void workerSkipsJobLeasedElsewhereTest() throws InterruptedException {
+        Long orgId = signUp("leased@example.com", "Deletion Leased");
+        organizationService.deleteOrg(orgId);
+        jdbc.update("UPDATE org_deletion_job SET leased_by = gen_random_uuid(), leased_until = now() + INTERVAL '1 minute' WHERE org_id = ?", orgId);
+
+        worker.poll();
+        assertEquals("PENDING", organizationService.getDeletion(orgId).status());
+        assertEquals(1, count("SELECT COUNT(*) FROM user_org WHERE org_id = ?", orgId));
+
+        // As left by an instance that stopped mid-job
+        jdbc.update("UPDATE org_deletion_job SET leased_until = now() - INTERVAL '1 second' WHERE org_id = ?", orgId);
+        worker.poll();
+        assertEquals("DONE", organizationService.getDeletion(orgId).status());
+    }
+
+    @Test
+    public void claimedJobMarksOrgDeletedInDirectoryTest() throws InterruptedException {
+        Long orgId = signUp("elsewhere@example.com", "Deletion Elsewhere");
+        assertNotNull(tenantDirectory.getOrg(orgId));
+        // As deleted by another instance, whose tombstone this one has not reloaded yet
+        jdbc.update("UPDATE organization SET deleted_at = now() WHERE id = ?", orgId);
+        jdbc.update("INSERT INTO org_deletion_job (org_id, status, requested_at, updated_at) VALUES (?, 'PENDING', now(), now())", orgId);
+
+        worker.poll();
+
+        assertNull(tenantDirectory.getOrg(orgId));
+    }
+
+    private void seed(Long orgId, int rows) {
+        for (int i = 0; i < rows; i++) {
+            jdbc.update("INSERT INTO cluster (org_id, name, description) VALUES (?, ?, 'seed')", orgId, "cluster-" + i);
+            jdbc.update("INSERT INTO \"group\" (org_id, name, description) VALUES (?, ?, 'seed')", orgId, "group-" + i);
+            jdbc.update("INSERT INTO cluster_association (source_name, source_type, cluster_name, org_id) VALUES (?, 'GROUP', ?, ?)",
+                    "group-" + i, "cluster-" + i, orgId);
+            jdbc.update("INSERT INTO user_group (user_name, group_name, org_id) SELECT user_name, ?, org_id FROM user_org WHERE org_id = ?",
+                    "group-" + i, orgId);
+        }
+    }
+
+    private int count(String sql, Object... args) {
+        Integer count = jdbc.queryForObject(sql, Integer.class, args);
+        return count == null ? 0 : count;
+    }
+
+    private Long signUp(String email, String orgName) {
+        LocalDateTime now = LocalDateTime.now();
+        signUpService.signUpUser(new SignUp("Deletion Test", email, "secret123", orgName, "Org deletion test", now, now));
+        return organizationService.getOrgByName(orgName).id();
+    }
+}
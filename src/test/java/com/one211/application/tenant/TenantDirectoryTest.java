@@ -0,0 +1,173 @@
+package com.one211.application.tenant;
+
+import com.one211.application.model.LoginRequest;
+import com.one211.application.model.Organization;
+import com.one211.application.model.SignUp;
+import com.one211.application.model.User;
+import com.one211.application.model.UserOrg;
+import com.one211.application.service.LoginService;
+import com.one211.application.service.OrganizationService;
+import com.one211.application.service.SignUpService;
+import com.one211.application.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Testcontainers
+public class TenantDirectoryTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:17");
+
+    @DynamicPropertySource
+    static void configurePostgresProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+    }
+
+    @Autowired
+    private TenantDirectory tenantDirectory;
+
+    @Autowired
+    private SignUpService signUpService;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private OrganizationService organizationService;
+
+    @Autowired
+    private LoginService loginService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void signUpIsVisibleToLoginTest() {
+        Long orgId = signUp("asha@example.com", "Directory Signup");
+
+        UserOrg membership = tenantDirectory.getMembership("Asha@Example.com", orgId);
+        assertEquals("ADMIN", membership.role());
+        assertEquals("Directory Signup", membership.orgName());
+        assertEquals("asha@example.com", loginService.login(orgId, new LoginRequest("asha@example.com", "secret123")).email());
+        assertEquals(List.of(orgId), tenantDirectory.getMemberships("asha@example.com").stream().map(UserOrg::orgId).toList());
+    }
+
+    @Test
+    public void userWritesAreAppliedTest() {
+        Long orgId = signUp("owner@example.com", "Directory Users");
+        userService.addUser(new User(null, "Ravi", "ravi@example.com", "hash-1", "USER", null, null, null), orgId);
+        assertEquals("USER", tenantDirectory.getMembership("ravi@example.com", orgId).role());
+        assertNull(tenantDirectory.getMembership("ravi@example.com", orgId + 1000));
+
+        userService.updateUser("ravi@example.com", new User(null, "Ravi K", null, "new-password", null, null, null, null));
+        UserOrg updated = tenantDirectory.getUser("ravi@example.com");
+        assertEquals("Ravi K", updated.name());
+        assertNotEquals("hash-1", updated.password());
+        assertEquals("USER", tenantDirectory.getMembership("ravi@example.com", orgId).role());
+
+        userService.removeUser("ravi@example.com");
+        assertNull(tenantDirectory.getUser("ravi@example.com"));
+    }
+
+    @Test
+    public void rolledBackWriteIsNotAppliedTest() {
+        Long orgId = signUp("rollback@example.com", "Directory Rollback");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            userService.addUser(new User(null, "Ghost", "ghost@example.com", "hash", "USER", null, null, null), orgId);
+            status.setRollbackOnly();
+        });
+
+        assertNull(tenantDirectory.getUser("ghost@example.com"));
+    }
+
+    @Test
+    public void orgWritesAreAppliedTest() {
+        Long orgId = signUp("orgs@example.com", "Directory Orgs");
+        Organization renamed = organizationService.update(
+                new Organization(orgId, "Directory Orgs Renamed", null, null, LocalDateTime.now()));
+
+        assertEquals(renamed, organizationService.getOrgById(orgId));
+        assertEquals(orgId, organizationService.getOrgByName("Directory Orgs Renamed").id());
+        assertNull(organizationService.getOrgByName("Directory Orgs"));
+
+        organizationService.deleteOrg(orgId);
+        assertNull(organizationService.getOrgById(orgId));
+        assertNull(tenantDirectory.getMembership("orgs@example.com", orgId));
+        assertTrue(tenantDirectory.getMemberships("orgs@example.com").isEmpty());
+    }
+
+    @Test
+    public void reloadMatchesIncrementalStateTest() {
+        Long orgId = signUp("reload@example.com", "Directory Reload");
+        userService.addUser(new User(null, "Mira", "mira@example.com", "hash", "USER", null, null, null), orgId);
+        UserOrg before = tenantDirectory.getMembership("mira@example.com", orgId);
+        Organization orgBefore = tenantDirectory.getOrg(orgId);
+
+        tenantDirectory.load();
+
+        assertEquals(before, tenantDirectory.getMembership("mira@example.com", orgId));
+        assertEquals(orgBefore.name(), tenantDirectory.getOrg(orgId).name());
+        assertEquals("ADMIN", tenantDirectory.getMembership("reload@example.com", orgId).role());
+    }
+
+    @Test
+    public void writesFromElsewhereAreReadOnMissTest() {
+        Long orgId = signUp("elsewhere@example.com", "Directory Elsewhere");
+        jdbcTemplate.update("INSERT INTO \"user\" (name, email, password, role) VALUES ('Kim', 'kim@example.com', 'hash-1', 'USER'), ('Kim 2', 'Kim@example.com', 'hash-2', 'USER')");
+        jdbcTemplate.update("INSERT INTO user_org (user_name, org_id, role) VALUES ('Kim@example.com', ?, 'USER')", orgId);
+
+        assertEquals("hash-1", tenantDirectory.getUser("kim@example.com").password());
+        assertEquals("hash-2", tenantDirectory.getUser("Kim@example.com").password());
+        assertNull(tenantDirectory.getUser("KIM@example.com"));
+        assertNull(tenantDirectory.getMembership("kim@example.com", orgId));
+        assertEquals("USER", tenantDirectory.getMembership("Kim@example.com", orgId).role());
+    }
+
+    @Test
+    public void unknownUsersAndOrgsAreRememberedTest() {
+        assertNull(tenantDirectory.getUser("nobody@example.com"));
+        assertNull(tenantDirectory.getOrg(999_999L));
+        jdbcTemplate.update("INSERT INTO \"user\" (name, email, password, role) VALUES ('Nobody', 'nobody@example.com', 'hash', 'USER')");
+
+        assertNull(tenantDirectory.getUser("nobody@example.com"));
+
+        userService.removeUser("nobody@example.com");
+        assertNull(tenantDirectory.getUser("nobody@example.com"));
+    }
+
+    @Test
+    public void localWriteEvictsCachedUserTest() {
+        Long orgId = signUp("evict@example.com", "Directory Evict");
+        assertNull(tenantDirectory.getUser("late@example.com"));
+
+        userService.addUser(new User(null, "Late", "late@example.com", "hash", "USER", null, null, null), orgId);
+
+        assertEquals("USER", tenantDirectory.getMembership("Late@example.com", orgId).role());
+    }
+
+    private Long signUp(String email, String orgName) {
+        LocalDateTime now = LocalDateTime.now();
+        signUpService.signUpUser(new SignUp("Directory Test", email, "secret123", orgName, "Tenant directory test", now, now));
+        return organizationService.getOrgByName(orgName).id();
+    }
+}